@@ -0,0 +1,30 @@
+#ifdef GL_ARB_shader_texture_lod
+#extension GL_ARB_shader_texture_lod : enable
+#endif
+#ifdef GL_ES
+precision mediump float;
+#endif
+
+// Block atlas, see BlockAtlasPacker for the layout
+uniform sampler2D u_texture;
+// Columns and rows of atlas cells
+uniform vec2 u_atlasSize;
+
+varying vec2 v_uv;
+varying float v_layer;
+varying float v_shade;
+
+void main() {
+    float layer = floor(v_layer + 0.5);
+    vec2 cell = vec2(mod(layer, u_atlasSize.x), floor(layer / u_atlasSize.x));
+    // Tiles fill the middle half of their cell, repeating once per block
+    vec2 uv = (cell + 0.25 + 0.5 * fract(v_uv)) / u_atlasSize;
+#ifdef GL_ARB_shader_texture_lod
+    // fract jumps at block edges, mip levels from the continuous uvs keep those edges from blurring
+    vec2 scale = 0.5 / u_atlasSize;
+    vec4 color = texture2DGradARB(u_texture, uv, dFdx(v_uv) * scale, dFdy(v_uv) * scale);
+#else
+    vec4 color = texture2D(u_texture, uv);
+#endif
+    gl_FragColor = vec4(color.rgb * min(v_shade, 1.0), color.a);
+}
@@ -0,0 +1,55 @@
+// Unpacks ChunkVertexFormat: a_data0 = (x, y, z, face | corner << 3 | ao << 5), a_data1 = (layer lo, layer hi, block | sky << 4, slot)
+attribute vec4 a_data0;
+attribute vec4 a_data1;
+
+uniform mat4 u_projViewTrans;
+// Block offset of the chunk in each slot of the bound MeshArena page (MeshArena.SLOTS_PER_PAGE)
+uniform vec3 u_chunkOffsets[120];
+uniform vec3 u_lightDir;
+uniform float u_ambient;
+uniform float u_diffuse;
+// Scales sky light levels, 1 at noon
+uniform float u_skyLight;
+
+varying vec2 v_uv;
+varying float v_layer;
+varying float v_shade;
+
+// Face order matches the Direction enum: north, south, west, east, down, up
+vec3 faceNormal(float face) {
+    if (face < 0.5) return vec3(0.0, 0.0, -1.0);
+    if (face < 1.5) return vec3(0.0, 0.0, 1.0);
+    if (face < 2.5) return vec3(-1.0, 0.0, 0.0);
+    if (face < 3.5) return vec3(1.0, 0.0, 0.0);
+    if (face < 4.5) return vec3(0.0, -1.0, 0.0);
+    return vec3(0.0, 1.0, 0.0);
+}
+
+void main() {
+    vec3 local = a_data0.xyz;
+    float face = mod(a_data0.w, 8.0);
+    vec3 normal = faceNormal(face);
+
+    // Greedy quads span several blocks, so uvs come from the position and the texture repeats
+    if (face < 1.5) {
+        v_uv = vec2(local.x, -local.y);
+    } else if (face < 3.5) {
+        v_uv = vec2(local.z, -local.y);
+    } else {
+        v_uv = local.xz;
+    }
+
+    v_layer = a_data1.x + a_data1.y * 256.0;
+
+    // Each light level is 80% as bright as the one above it
+    float sky = floor(a_data1.z / 16.0);
+    float block = a_data1.z - sky * 16.0;
+    float level = max(sky * u_skyLight, block);
+    float brightness = pow(0.8, 15.0 - level);
+    // Ambient occlusion from 0 (darkest corner) to 3 (open), interpolated across the quad
+    float ao = floor(a_data0.w / 32.0);
+    brightness *= 0.55 + 0.15 * ao;
+
+    v_shade = (u_ambient + u_diffuse * max(dot(normal, -u_lightDir), 0.0)) * brightness;
+    gl_Position = u_projViewTrans * vec4(u_chunkOffsets[int(a_data1.w)] + local, 1.0);
+}
@@ -0,0 +1,184 @@
+package io.github.illuminatijoe.cubegame.benchmarks;
+
+import com.badlogic.gdx.math.Vector3;
+import io.github.illuminatijoe.cubegame.core.utils.Scratch;
+import io.github.illuminatijoe.cubegame.core.utils.Vector3i;
+import io.github.illuminatijoe.cubegame.core.world.BlockKey;
+import io.github.illuminatijoe.cubegame.core.world.Chunk;
+import io.github.illuminatijoe.cubegame.core.world.ChunkMeshUploader;
+import io.github.illuminatijoe.cubegame.core.world.ChunkKey;
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+import io.github.illuminatijoe.cubegame.core.world.World;
+import io.github.illuminatijoe.cubegame.core.world.block.BlockRegistry;
+import io.github.illuminatijoe.cubegame.core.world.mesh.MeshData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+
+/**
+ * Block and coordinate hot paths on a loaded headless world, each over {@link #BLOCKS} random blocks.
+ * These should not allocate at all: read gc.alloc.rate.norm from the GC profiler (the jmh task runs it),
+ * anything above a few bytes per op means something on the path allocates again.
+ * <p>
+ * A headless world skips lighting and remeshing, so {@link #setBlockRendered} edits a world with a
+ * {@link RenderedWorld stub uploader} to cover the light update and remesh queueing of a real edit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllocationBenchmark {
+    public static final int BLOCKS = 1024;
+    private static final int RENDER_DISTANCE = 4;
+
+    // A world that lights and meshes its chunks, with uploads dropped
+    @State(Scope.Thread)
+    public static class RenderedWorld {
+        private World world;
+        private final int[] xs = new int[BLOCKS];
+        private final int[] ys = new int[BLOCKS];
+        private final int[] zs = new int[BLOCKS];
+
+        @Setup
+        public void setup() throws InterruptedException {
+            world = new World(new ChunkMeshUploader() {
+                @Override
+                public void upload(Chunk chunk, MeshData data) {
+                }
+
+                @Override
+                public void release(Chunk chunk) {
+                }
+            });
+            load(world);
+            randomBlocks(xs, ys, zs, null);
+        }
+
+        @TearDown
+        public void tearDown() {
+            world.dispose();
+        }
+    }
+
+    private World world;
+    private final int[] xs = new int[BLOCKS];
+    private final int[] ys = new int[BLOCKS];
+    private final int[] zs = new int[BLOCKS];
+    private final long[] keys = new long[BLOCKS];
+
+    @Setup
+    public void setup() throws InterruptedException {
+        world = new World();
+        load(world);
+        randomBlocks(xs, ys, zs, keys);
+    }
+
+    private static void load(World world) throws InterruptedException {
+        Vector3 center = new Vector3();
+        Vector3 direction = new Vector3(0, 0, -1);
+        do {
+            world.update(center, direction, RENDER_DISTANCE);
+            Thread.sleep(1);
+        } while (!world.getChunkManager().isIdle());
+    }
+
+    private static void randomBlocks(int[] xs, int[] ys, int[] zs, long[] keys) {
+        int extent = RENDER_DISTANCE * ChunkStorage.SIZE;
+        Random random = new Random(1);
+        for (int i = 0; i < BLOCKS; i++) {
+            xs[i] = random.nextInt(2 * extent) - extent;
+            ys[i] = random.nextInt(4 * ChunkStorage.SIZE) - 2 * ChunkStorage.SIZE;
+            zs[i] = random.nextInt(2 * extent) - extent;
+            if (keys != null) keys[i] = BlockKey.of(xs[i], ys[i], zs[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        world.dispose();
+    }
+
+    @Benchmark
+    public int getBlock() {
+        int sum = 0;
+        for (int i = 0; i < BLOCKS; i++) {
+            sum += world.getBlock(xs[i], ys[i], zs[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int getBlockByKey() {
+        int sum = 0;
+        for (int i = 0; i < BLOCKS; i++) {
+            sum += world.getBlock(keys[i]);
+        }
+        return sum;
+    }
+
+    // Writes every block's current id back, so the world stays the same across invocations
+    @Benchmark
+    public int setBlock() {
+        int set = 0;
+        for (int i = 0; i < BLOCKS; i++) {
+            if (world.setBlock(xs[i], ys[i], zs[i], world.getBlock(keys[i]))) set++;
+        }
+        return set;
+    }
+
+    // Swaps every block between air and dirt and back, relighting and queueing remeshes both times
+    @Benchmark
+    public int setBlockRendered(RenderedWorld rendered) {
+        World world = rendered.world;
+        int set = 0;
+        for (int i = 0; i < BLOCKS; i++) {
+            int x = rendered.xs[i];
+            int y = rendered.ys[i];
+            int z = rendered.zs[i];
+            char id = world.getBlock(x, y, z);
+            char swapped = id == ChunkStorage.AIR ? BlockRegistry.DIRT.getId() : ChunkStorage.AIR;
+            if (world.setBlock(x, y, z, swapped)) set++;
+            world.setBlock(x, y, z, id);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public long keyRoundTrip() {
+        long sum = 0;
+        for (int i = 0; i < BLOCKS; i++) {
+            long chunkKey = BlockKey.toChunkKey(BlockKey.of(xs[i], ys[i], zs[i]));
+            sum += ChunkKey.x(chunkKey) + ChunkKey.y(chunkKey) + ChunkKey.z(chunkKey) + BlockKey.toLocalIndex(keys[i]);
+        }
+        return sum;
+    }
+
+    // Neighbour walk with pooled vectors, the way temporary math should be written
+    @Benchmark
+    public int scratchMath() {
+        int sum = 0;
+        Scratch scratch = Scratch.begin();
+        try {
+            Vector3i pos = scratch.vec3i();
+            Vector3i chunk = scratch.vec3i();
+            for (int i = 0; i < BLOCKS; i++) {
+                BlockKey.unpack(keys[i], pos).addLocal(1, 0, 0);
+                chunk.set(pos).floorDivLocal(ChunkStorage.SIZE);
+                sum += chunk.dst2(pos.floorModLocal(ChunkStorage.SIZE));
+            }
+        } finally {
+            scratch.end();
+        }
+        return sum;
+    }
+}
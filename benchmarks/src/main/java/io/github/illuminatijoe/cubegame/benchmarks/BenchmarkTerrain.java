@@ -0,0 +1,63 @@
+package io.github.illuminatijoe.cubegame.benchmarks;
+
+import io.github.illuminatijoe.cubegame.core.utils.OpenSimplex2S;
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+import io.github.illuminatijoe.cubegame.core.world.block.BlockRegistry;
+
+/**
+ * Fixed chunk contents shared by the benchmarks, so every run meshes the same blocks.
+ */
+public enum BenchmarkTerrain {
+    // Solid bottom half, a handful of large quads
+    FLAT {
+        @Override
+        void fill(ChunkStorage storage) {
+            for (int i = 0; i < ChunkStorage.VOLUME / 2; i++) {
+                storage.set(i, DIRT);
+            }
+        }
+    },
+    // 3D noise caves and overhangs, close to real terrain
+    NOISY {
+        @Override
+        void fill(ChunkStorage storage) {
+            float[] density = new float[ChunkStorage.VOLUME];
+            OpenSimplex2S.noise3Grid_ImproveXZ(SEED, 0, 0, 0, 0.08, ChunkStorage.SIZE, ChunkStorage.SIZE, ChunkStorage.SIZE, density);
+            for (int i = 0; i < ChunkStorage.VOLUME; i++) {
+                if (density[i] > 0) storage.set(i, DIRT);
+            }
+        }
+    },
+    // Every other block solid: nothing merges and every face is visible, the worst case for the mesher
+    CHECKERBOARD {
+        @Override
+        void fill(ChunkStorage storage) {
+            for (int y = 0; y < ChunkStorage.SIZE; y++) {
+                for (int z = 0; z < ChunkStorage.SIZE; z++) {
+                    for (int x = 0; x < ChunkStorage.SIZE; x++) {
+                        if (((x + y + z) & 1) == 0) storage.setBlock(x, y, z, DIRT);
+                    }
+                }
+            }
+        }
+    },
+    // One block throughout, like chunks deep underground: uniform storage, only border faces can show
+    SOLID {
+        @Override
+        void fill(ChunkStorage storage) {
+            storage.fill(DIRT);
+        }
+    };
+
+    static final long SEED = 1158L;
+    private static final char DIRT = BlockRegistry.DIRT.getId();
+
+    abstract void fill(ChunkStorage storage);
+
+    public ChunkStorage create() {
+        ChunkStorage storage = new ChunkStorage();
+        fill(storage);
+        storage.compact();
+        return storage;
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.illuminatijoe.cubegame.benchmarks;
+
+import com.badlogic.gdx.math.Vector3;
+import io.github.illuminatijoe.cubegame.core.world.Chunk;
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+import io.github.illuminatijoe.cubegame.core.world.World;
+import io.github.illuminatijoe.cubegame.core.world.io.ChunkSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Encoding and decoding generated terrain with each chunk codec, cycling through the non-uniform chunks
+ * of an area (uniform ones are always stored raw). Setup prints the payload bytes per chunk of every codec,
+ * over the non-uniform chunks and over the whole area.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkCodecBenchmark {
+    private static final int COLUMNS = 8;
+
+    @Param({ "raw", "rle", "deflate:1", "deflate:6", "deflate:9" })
+    public String codec;
+
+    private ChunkSerializer serializer;
+    private final List<ChunkStorage> chunks = new ArrayList<>();
+    private final List<ByteBuffer> payloads = new ArrayList<>();
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        serializer = new ChunkSerializer(ChunkSerializer.codec(codec));
+
+        Vector3 pos = new Vector3();
+        long totalBytes = 0;
+        int total = 0;
+        long mixedBytes = 0;
+        for (int y = World.MIN_CHUNK_Y; y <= World.MAX_CHUNK_Y; y++) {
+            for (int z = 0; z < COLUMNS; z++) {
+                for (int x = 0; x < COLUMNS; x++) {
+                    ChunkStorage storage = new Chunk(pos.set(x, y, z)).getStorage();
+                    ByteBuffer encoded = serializer.encode(storage);
+                    total++;
+                    totalBytes += encoded.remaining();
+                    if (storage.isUniform()) continue;
+
+                    mixedBytes += encoded.remaining();
+                    chunks.add(storage);
+                    payloads.add(ByteBuffer.allocate(encoded.remaining()).put(encoded).flip());
+                }
+            }
+        }
+        // Make sure what is measured round-trips
+        for (ByteBuffer payload : payloads) serializer.decode(payload.duplicate());
+
+        System.out.printf(Locale.ROOT, "%n%s: %.1f bytes per non-uniform chunk (%d), %.1f per chunk overall (%d)%n",
+            codec, mixedBytes / (double) chunks.size(), chunks.size(), totalBytes / (double) total, total);
+    }
+
+    @Benchmark
+    public int encode() {
+        ChunkStorage storage = chunks.get(next++ % chunks.size());
+        return serializer.encode(storage).remaining();
+    }
+
+    @Benchmark
+    public ChunkStorage decode() throws IOException {
+        ByteBuffer payload = payloads.get(next++ % payloads.size());
+        return serializer.decode(payload.duplicate());
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.illuminatijoe.cubegame.benchmarks;
+
+import com.badlogic.gdx.math.Vector3;
+import io.github.illuminatijoe.cubegame.core.world.Chunk;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Terrain generation of a single chunk. Surface chunks hold the height boundary, underground
+ * and sky chunks end up uniform.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkGenerationBenchmark {
+    @Param({ "-1", "0", "1", "3" })
+    public int chunkY;
+
+    private final Vector3 pos = new Vector3();
+    private int column;
+
+    @Benchmark
+    public Chunk generate() {
+        // Walk along x so every call samples fresh noise instead of a cached heightmap
+        pos.set(column++, chunkY, 0);
+        return new Chunk(pos);
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.illuminatijoe.cubegame.benchmarks;
+
+import io.github.illuminatijoe.cubegame.core.Direction;
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+import io.github.illuminatijoe.cubegame.core.world.mesh.ChunkMesher;
+import io.github.illuminatijoe.cubegame.core.world.mesh.ChunkNeighbors;
+import io.github.illuminatijoe.cubegame.core.world.mesh.MeshData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Greedy meshing of one chunk per terrain shape, with open air on every side so border faces are emitted too.
+ * The mesher and output are reused as in the pipeline, so allocation should stay near zero.
+ * Runs with ambient occlusion on and off to show what it costs on top of plain meshing, and at every
+ * level of detail.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkMeshBenchmark {
+    @Param({ "FLAT", "NOISY", "CHECKERBOARD", "SOLID" })
+    public BenchmarkTerrain terrain;
+
+    @Param({ "true", "false" })
+    public boolean ambientOcclusion;
+
+    @Param({ "0", "1", "2", "3" })
+    public int level;
+
+    private final ChunkMesher mesher = new ChunkMesher();
+    private final ChunkNeighbors neighbors = new ChunkNeighbors();
+    private final MeshData out = new MeshData();
+    private ChunkStorage storage;
+
+    @Setup
+    public void setup() {
+        storage = terrain.create();
+        mesher.setAmbientOcclusion(ambientOcclusion);
+        for (Direction dir : Direction.values()) {
+            neighbors.setAir(dir);
+        }
+    }
+
+    @Benchmark
+    public int mesh() {
+        mesher.mesh(storage, null, neighbors, level, out);
+        return out.getVertexCount();
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.illuminatijoe.cubegame.benchmarks;
+
+import io.github.illuminatijoe.cubegame.core.world.World;
+import io.github.illuminatijoe.cubegame.core.world.gen.HeightmapCache;
+import io.github.illuminatijoe.cubegame.core.world.gen.TerrainGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Terrain generation of every chunk in a fresh column, with and without the heightmap cache sharing
+ * the column's noise between the chunks stacked in it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnGenerationBenchmark {
+    @Param({ "true", "false" })
+    public boolean cached;
+
+    private TerrainGenerator generator;
+    private int column;
+
+    @Setup
+    public void setup() {
+        generator = new TerrainGenerator(cached ? new HeightmapCache(HeightmapCache.DEFAULT_MAX_BYTES) : null);
+    }
+
+    @Benchmark
+    public int generateColumn() {
+        int x = column++;
+        int blocks = 0;
+        for (int y = World.MIN_CHUNK_Y; y <= World.MAX_CHUNK_Y; y++) {
+            blocks += generator.generate(x, y, 0).getNonAirCount();
+        }
+        return blocks;
+    }
+}
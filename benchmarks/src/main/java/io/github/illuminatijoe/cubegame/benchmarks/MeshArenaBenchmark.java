@@ -0,0 +1,71 @@
+package io.github.illuminatijoe.cubegame.benchmarks;
+
+import io.github.illuminatijoe.cubegame.core.render.MeshArena;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+
+/**
+ * Chunk mesh churn in a {@link MeshArena}, as when the player moves and chunks are remeshed: every op
+ * frees a random live mesh and places one of a new size, then builds the draw ranges of all meshes.
+ * Pages and fragmentation at the end of the run are printed to check the arena doesn't keep growing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MeshArenaBenchmark {
+    public static final int MESHES = 1024;
+
+    private MeshArena arena;
+    private final MeshArena.Allocation[] allocations = new MeshArena.Allocation[MESHES];
+    private Random random;
+
+    @Setup
+    public void setup() {
+        arena = new MeshArena();
+        random = new Random(1);
+        for (int i = 0; i < MESHES; i++) {
+            allocations[i] = allocate();
+        }
+    }
+
+    @Benchmark
+    public int churn() {
+        int i = random.nextInt(MESHES);
+        arena.free(allocations[i]);
+        allocations[i] = allocate();
+        return allocations[i].getPage();
+    }
+
+    @Benchmark
+    public int buildDraws() {
+        arena.beginFrame();
+        for (MeshArena.Allocation allocation : allocations) {
+            arena.addVisible(allocation);
+        }
+        return arena.buildDraws();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println("\n" + arena.getPageCount() + " pages, " + arena.getMeshCount() + " meshes, "
+            + Math.round(arena.getFragmentation() * 100) + "% fragmented");
+    }
+
+    // Surface meshes are mostly a few hundred quads, some far larger
+    private MeshArena.Allocation allocate() {
+        int quads = 50 + (int) (random.nextDouble() * random.nextDouble() * 3000);
+        return arena.allocate(quads * 4, quads * 6, 0, 0, 0);
+    }
+}
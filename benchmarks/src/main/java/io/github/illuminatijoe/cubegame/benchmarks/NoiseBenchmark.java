@@ -0,0 +1,72 @@
+package io.github.illuminatijoe.cubegame.benchmarks;
+
+import io.github.illuminatijoe.cubegame.core.utils.OpenSimplex2S;
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Noise for one chunk: a 16x16 height grid and a 16x16x16 density grid,
+ * sampled one point at a time and through the batch grid functions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoiseBenchmark {
+    private static final int SIZE = ChunkStorage.SIZE;
+    private static final double FREQUENCY = 0.01;
+
+    private final float[] heights = new float[ChunkStorage.AREA];
+    private final float[] density = new float[ChunkStorage.VOLUME];
+    private int chunk;
+
+    @Benchmark
+    public float[] noise2Scalar() {
+        double x0 = nextChunkX();
+        for (int z = 0; z < SIZE; z++) {
+            for (int x = 0; x < SIZE; x++) {
+                heights[x + z * SIZE] = OpenSimplex2S.noise2(BenchmarkTerrain.SEED, x0 + x * FREQUENCY, z * FREQUENCY);
+            }
+        }
+        return heights;
+    }
+
+    @Benchmark
+    public float[] noise2Grid() {
+        OpenSimplex2S.noise2Grid(BenchmarkTerrain.SEED, nextChunkX(), 0, FREQUENCY, SIZE, SIZE, heights);
+        return heights;
+    }
+
+    @Benchmark
+    public float[] noise3Scalar() {
+        double x0 = nextChunkX();
+        for (int y = 0; y < SIZE; y++) {
+            for (int z = 0; z < SIZE; z++) {
+                for (int x = 0; x < SIZE; x++) {
+                    density[ChunkStorage.index(x, y, z)] = OpenSimplex2S.noise3_ImproveXZ(BenchmarkTerrain.SEED,
+                        x0 + x * FREQUENCY, y * FREQUENCY, z * FREQUENCY);
+                }
+            }
+        }
+        return density;
+    }
+
+    @Benchmark
+    public float[] noise3Grid() {
+        OpenSimplex2S.noise3Grid_ImproveXZ(BenchmarkTerrain.SEED, nextChunkX(), 0, 0, FREQUENCY, SIZE, SIZE, SIZE, density);
+        return density;
+    }
+
+    // Moves to the next chunk along x, wrapping so the coordinates stay small
+    private double nextChunkX() {
+        return (chunk++ & 1023) * SIZE * FREQUENCY;
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.illuminatijoe.cubegame.benchmarks;
+
+import com.badlogic.gdx.math.Vector3;
+import io.github.illuminatijoe.cubegame.core.world.Chunk;
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+import io.github.illuminatijoe.cubegame.core.world.World;
+import io.github.illuminatijoe.cubegame.core.world.io.RegionFile;
+import io.github.illuminatijoe.cubegame.core.world.io.RegionStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Loading a saved chunk from a region file against generating it again, over one region of generated terrain.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegionLoadBenchmark {
+    private static final int COLUMNS = 32;
+
+    private Path directory;
+    private RegionStorage storage;
+    private final Vector3 pos = new Vector3();
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("region-benchmark");
+        storage = new RegionStorage(directory);
+        for (int y = World.MIN_CHUNK_Y; y <= World.MAX_CHUNK_Y; y++) {
+            for (int z = 0; z < COLUMNS; z++) {
+                for (int x = 0; x < COLUMNS; x++) {
+                    storage.save(x, y, z, new Chunk(pos.set(x, y, z)).getStorage());
+                }
+            }
+        }
+        storage.flush();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        storage.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public ChunkStorage load() throws IOException {
+        nextPosition();
+        return storage.load((int) pos.x, (int) pos.y, (int) pos.z);
+    }
+
+    @Benchmark
+    public Chunk generate() {
+        return new Chunk(nextPosition());
+    }
+
+    // Cycles through every chunk of the region
+    private Vector3 nextPosition() {
+        int i = next++ % (COLUMNS * COLUMNS * RegionFile.HEIGHT);
+        return pos.set(i % COLUMNS, World.MIN_CHUNK_Y + i / (COLUMNS * COLUMNS), (i / COLUMNS) % COLUMNS);
+    }
+}
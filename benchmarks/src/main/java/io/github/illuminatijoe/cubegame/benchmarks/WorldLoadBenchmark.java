@@ -0,0 +1,74 @@
+package io.github.illuminatijoe.cubegame.benchmarks;
+
+import com.badlogic.gdx.math.Vector3;
+import io.github.illuminatijoe.cubegame.core.Direction;
+import io.github.illuminatijoe.cubegame.core.utils.LongObjectMap;
+import io.github.illuminatijoe.cubegame.core.world.Chunk;
+import io.github.illuminatijoe.cubegame.core.world.ChunkKey;
+import io.github.illuminatijoe.cubegame.core.world.World;
+import io.github.illuminatijoe.cubegame.core.world.mesh.ChunkMesher;
+import io.github.illuminatijoe.cubegame.core.world.mesh.ChunkNeighbors;
+import io.github.illuminatijoe.cubegame.core.world.mesh.MeshData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loading a square world area around the origin from scratch: every column from MIN_CHUNK_Y to MAX_CHUNK_Y
+ * is generated, then meshed against its loaded neighbours. Runs on one thread, so this is the CPU work the
+ * chunk workers share, without any GL upload.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorldLoadBenchmark {
+    @Param({ "4", "8" })
+    public int radius;
+
+    private final ChunkMesher mesher = new ChunkMesher();
+    private final ChunkNeighbors neighbors = new ChunkNeighbors();
+    private final MeshData out = new MeshData();
+
+    @Benchmark
+    public int load() {
+        LongObjectMap<Chunk> chunks = new LongObjectMap<>();
+        for (int y = World.MIN_CHUNK_Y; y <= World.MAX_CHUNK_Y; y++) {
+            for (int z = -radius; z <= radius; z++) {
+                for (int x = -radius; x <= radius; x++) {
+                    Chunk chunk = new Chunk(new Vector3(x, y, z));
+                    chunks.put(chunk.getKey(), chunk);
+                }
+            }
+        }
+
+        int vertices = 0;
+        for (int i = 0; i < chunks.capacity(); i++) {
+            Chunk chunk = chunks.valueAt(i);
+            if (chunk == null) continue;
+            long key = chunk.getKey();
+            neighbors.clear();
+            for (Direction dir : Direction.values()) {
+                int y = ChunkKey.y(key) + dir.dy;
+                if (y < World.MIN_CHUNK_Y || y > World.MAX_CHUNK_Y) {
+                    neighbors.setAir(dir);
+                    continue;
+                }
+
+                Chunk neighbor = chunks.get(ChunkKey.offset(key, dir.dx, dir.dy, dir.dz));
+                if (neighbor != null) neighbors.set(dir, neighbor.getStorage());
+            }
+
+            mesher.mesh(chunk.getStorage(), neighbors, out);
+            vertices += out.getVertexCount();
+        }
+        return vertices;
+    }
+}
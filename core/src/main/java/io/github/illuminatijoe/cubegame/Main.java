@@ -4,31 +4,34 @@ import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.GL31;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.VertexAttributes;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g3d.*;
-import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
-import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
-import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
-import com.badlogic.gdx.graphics.g3d.shaders.DefaultShader;
-import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
-import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.ScreenUtils;
-import io.github.illuminatijoe.cubegame.core.Constants;
 import io.github.illuminatijoe.cubegame.core.Player;
+import io.github.illuminatijoe.cubegame.core.render.BlockTextureAtlas;
+import io.github.illuminatijoe.cubegame.core.render.ChunkCuller;
+import io.github.illuminatijoe.cubegame.core.render.ChunkRenderer;
+import io.github.illuminatijoe.cubegame.core.render.MeshArena;
+import io.github.illuminatijoe.cubegame.core.render.MultiDraw;
 import io.github.illuminatijoe.cubegame.core.world.Chunk;
+import io.github.illuminatijoe.cubegame.core.world.ChunkManager;
 import io.github.illuminatijoe.cubegame.core.world.World;
+import io.github.illuminatijoe.cubegame.core.world.io.RegionStorage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class Main extends ApplicationAdapter {
-    private ModelBatch batch;
-    public static Model blockModel;
-    private Environment ambientLight;
-    private ModelCache modelCache;
+    private final MultiDraw multiDraw;
+    private ChunkRenderer chunkRenderer;
 
     private World world;
+    private final ChunkCuller culler = new ChunkCuller();
+    private final List<Chunk> visibleChunks = new ArrayList<>();
+    private final Vector3 playerChunk = new Vector3();
 
     private Player player;
     public static int RENDER_DISTANCE = 12;
@@ -36,61 +39,72 @@ public class Main extends ApplicationAdapter {
     private BitmapFont font;
     private SpriteBatch spriteBatch;
 
-    public static Texture dirtTexture; // temp
+    private BlockTextureAtlas blockAtlas;
+
+    public Main() {
+        this(MultiDraw.SEPARATE);
+    }
+
+    // multiDraw submits chunk draws, e.g. through glMultiDrawElements where the backend has it
+    public Main(MultiDraw multiDraw) {
+        this.multiDraw = multiDraw;
+    }
 
     @Override
     public void create() {
-        dirtTexture = new Texture(Gdx.files.internal("textures/blocks/dirt.png"));
-
-        modelCache = new ModelCache();
+        blockAtlas = new BlockTextureAtlas(Gdx.files.external(".cubegame/cache/block-atlas.bin").file().toPath());
+        blockAtlas.assignBlockLayers();
 
         font = new BitmapFont();
         spriteBatch = new SpriteBatch();
         player = new Player();
 
-        ambientLight = new Environment();
-        ambientLight.set(ColorAttribute.createAmbientLight(0.4f, 0.4f, 0.4f, 1f));
-        ambientLight.add(new DirectionalLight().set(0.8f, 0.8f, 0.8f, -1f, -0.8f, -0.2f));
-
-        batch = new ModelBatch();
+        chunkRenderer = new ChunkRenderer(multiDraw);
+        chunkRenderer.setLight(0.4f, 0.8f, -1f, -0.8f, -0.2f);
 
-        ModelBuilder modelBuilder = new ModelBuilder();
-        blockModel = modelBuilder.createBox(Constants.BLOCK_SIZE, Constants.BLOCK_SIZE, Constants.BLOCK_SIZE,
-            new Material(TextureAttribute.createDiffuse(dirtTexture)),
-            VertexAttributes.Usage.Normal | VertexAttributes.Usage.Position | VertexAttributes.Usage.TextureCoordinates);
-
-        world = new World();
+        RegionStorage saves;
+        try {
+            saves = new RegionStorage(Gdx.files.external(".cubegame/saves/world").file().toPath());
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't open the world save", e);
+        }
+        world = new World(chunkRenderer, saves);
+        world.addListener(culler);
     }
 
     @Override
     public void render() {
         ScreenUtils.clear(0f, 0f, 0f, 1f, true);
         Gdx.gl.glEnable(GL20.GL_CULL_FACE);
-        Gdx.gl.glCullFace(GL20.GL_FRONT_AND_BACK);
+        Gdx.gl.glCullFace(GL20.GL_BACK);
         Gdx.gl.glEnable(GL20.GL_DEPTH_TEST);
         Gdx.gl.glDepthFunc(GL20.GL_LEQUAL);
 
         float delta = Gdx.graphics.getDeltaTime();
 
         player.update(delta);
-
-        batch.begin(player.getCamera());
-            for (Chunk chunk : world.getChunkMap().values()) {
-                //if (chunk.getChunkPos().dst(player.getChunkPosition()) > RENDER_DISTANCE) continue;
-
-                //BoundingBox chunkBounds = chunk.getBoundingBox();
-                //if (player.getCamera().frustum.boundsInFrustum(chunkBounds)) {
-                    batch.render(chunk.getMesh(), ambientLight);
-                //}
-            }
-        batch.end();
-
-//        Gdx.gl.glDisable(GL20.GL_CULL_FACE);
-//        Gdx.gl.glDisable(GL20.GL_DEPTH_TEST);
-//        spriteBatch.begin();
-//            font.draw(spriteBatch, "FPS: " + Gdx.graphics.getFramesPerSecond(), 10, Gdx.graphics.getHeight() - 20);
-//            font.draw(spriteBatch, "Heap: " + Gdx.app.getJavaHeap() / 1_000_000 + " MB", 10, Gdx.graphics.getHeight() - 40);
-//        spriteBatch.end();
+        player.getChunkPosition(playerChunk);
+        world.update(playerChunk, player.getCamera().direction, RENDER_DISTANCE);
+
+        culler.cull(player.getCamera(), playerChunk, RENDER_DISTANCE, visibleChunks);
+
+        chunkRenderer.render(player.getCamera(), blockAtlas, visibleChunks);
+
+        ChunkManager chunks = world.getChunkManager();
+        Gdx.gl.glDisable(GL20.GL_CULL_FACE);
+        Gdx.gl.glDisable(GL20.GL_DEPTH_TEST);
+        spriteBatch.begin();
+            font.draw(spriteBatch, "FPS: " + Gdx.graphics.getFramesPerSecond(), 10, Gdx.graphics.getHeight() - 20);
+            font.draw(spriteBatch, "Heap: " + Gdx.app.getJavaHeap() / 1_000_000 + " MB", 10, Gdx.graphics.getHeight() - 40);
+            font.draw(spriteBatch, "Chunks: " + chunks.getLoadedCount() + " loaded, " + chunks.getPendingCount() + " pending, "
+                + chunks.getEvictedCount() + " evicted", 10, Gdx.graphics.getHeight() - 60);
+            font.draw(spriteBatch, "Visible: " + culler.getVisibleCount() + ", culled: " + culler.getFrustumCulledCount()
+                + " frustum, " + culler.getDistanceCulledCount() + " distance", 10, Gdx.graphics.getHeight() - 80);
+            MeshArena arena = chunkRenderer.getArena();
+            font.draw(spriteBatch, "Draws: " + chunkRenderer.getDrawCallCount() + " calls, " + chunkRenderer.getDrawRangeCount()
+                + " ranges, " + chunkRenderer.getPageBindCount() + " pages bound; arena " + arena.getPageCount() + " pages, "
+                + Math.round(arena.getFragmentation() * 100) + "% fragmented", 10, Gdx.graphics.getHeight() - 100);
+        spriteBatch.end();
 
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
             Gdx.app.exit();
@@ -104,15 +118,10 @@ public class Main extends ApplicationAdapter {
 
     @Override
     public void dispose() {
-        batch.dispose();
-        blockModel.dispose();
+        world.dispose();
+        chunkRenderer.dispose();
         font.dispose();
         spriteBatch.dispose();
-        modelCache.dispose();
-        dirtTexture.dispose();
-
-        for (Chunk chunk : world.getChunkMap().values()) {
-            chunk.dispose();
-        }
+        blockAtlas.dispose();
     }
 }
@@ -19,6 +19,10 @@ public enum Direction {
         this.axis = axis;
         this.negative = negative;
     }
+
+    public Direction opposite() {
+        return values()[ordinal() ^ 1];
+    }
 }
 
 
@@ -16,6 +16,7 @@ public class Player {
     private Vector3 direction = new Vector3();
     private Vector3 right = new Vector3();
     private Vector3 up = new Vector3(0, 1, 0);
+    private final Vector3 movement = new Vector3();
 
     public Player() {
         camera = new PerspectiveCamera(80, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
@@ -59,7 +60,7 @@ public class Player {
 
     private void handleKeyboardInput(float deltaTime) {
         float velocity = moveSpeed * deltaTime;
-        Vector3 movement = new Vector3();
+        movement.setZero();
 
         if (Gdx.input.isKeyPressed(Input.Keys.W)) {
             movement.x += direction.x;
@@ -87,11 +88,15 @@ public class Player {
     }
 
     public Vector3 getChunkPosition() {
-        Vector3 chunkPos = new Vector3();
-        chunkPos.x = Math.round(getPosition().x / Constants.CHUNK_SIZE);
-        chunkPos.y = Math.round(getPosition().y / Constants.CHUNK_SIZE);
-        chunkPos.z = Math.round(getPosition().z / Constants.CHUNK_SIZE);
+        return getChunkPosition(new Vector3());
+    }
+
+    // Chunk the player is in, written to out
+    public Vector3 getChunkPosition(Vector3 out) {
+        out.x = (float) Math.floor(getPosition().x / Constants.CHUNK_SIZE);
+        out.y = (float) Math.floor(getPosition().y / Constants.CHUNK_SIZE);
+        out.z = (float) Math.floor(getPosition().z / Constants.CHUNK_SIZE);
 
-        return chunkPos;
+        return out;
     }
 }
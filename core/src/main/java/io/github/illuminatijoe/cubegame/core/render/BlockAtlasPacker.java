@@ -0,0 +1,253 @@
+package io.github.illuminatijoe.cubegame.core.render;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+/**
+ * Packs square block textures into the mip levels of one atlas, without any GL calls so it can run
+ * headless. Texels are RGBA8888 ints, red in the high byte.
+ * <p>
+ * Each tile sits in the middle of a cell twice its size, surrounded by half a tile of its own wrapped
+ * texels. Greedy quads repeat the texture, so filtering near a tile edge and lower mip levels sample the
+ * tile itself rather than its neighbour. Levels are built per tile from the tile's own box-filtered mips
+ * until a cell is a single texel; only the levels below that mix tiles.
+ */
+public final class BlockAtlasPacker {
+    private static final int MAGIC = 0x43474241; // "CGBA"
+    private static final int VERSION = 1;
+    // Magic, version and key
+    private static final int HEADER_BYTES = 16;
+    // Largest atlas side a cache may claim, well past any GL texture size limit
+    private static final int MAX_SIDE = 1 << 16;
+
+    private BlockAtlasPacker() {
+    }
+
+    public static final class PackedAtlas {
+        private final int tileSize;
+        private final int columns;
+        private final int rows;
+        private final int[][] levels;
+
+        PackedAtlas(int tileSize, int columns, int rows, int[][] levels) {
+            this.tileSize = tileSize;
+            this.columns = columns;
+            this.rows = rows;
+            this.levels = levels;
+        }
+
+        public int getTileSize() {
+            return tileSize;
+        }
+
+        public int getColumns() {
+            return columns;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public int getLevelCount() {
+            return levels.length;
+        }
+
+        public int getWidth(int level) {
+            return Math.max(1, columns * tileSize * 2 >> level);
+        }
+
+        public int getHeight(int level) {
+            return Math.max(1, rows * tileSize * 2 >> level);
+        }
+
+        public int[] getLevel(int level) {
+            return levels[level];
+        }
+    }
+
+    /**
+     * Packs tiles of tileSize^2 texels, tile i into cell i in row-major order. The grid has a power of
+     * two number of columns and rows, so every level halves cleanly.
+     */
+    public static PackedAtlas pack(int[][] tiles, int tileSize) {
+        if (Integer.bitCount(tileSize) != 1) throw new IllegalArgumentException("Tile size must be a power of two: " + tileSize);
+
+        int columns = nextPowerOfTwo((int) Math.ceil(Math.sqrt(tiles.length)));
+        int rows = nextPowerOfTwo((tiles.length + columns - 1) / columns);
+        int tileLevels = Integer.numberOfTrailingZeros(tileSize) + 1;
+        int[][][] tileMips = new int[tiles.length][tileLevels][];
+        for (int t = 0; t < tiles.length; t++) {
+            tileMips[t][0] = tiles[t];
+            for (int m = 1; m < tileLevels; m++) {
+                tileMips[t][m] = downsample(tileMips[t][m - 1], tileSize >> (m - 1), tileSize >> (m - 1));
+            }
+        }
+
+        int width = columns * tileSize * 2;
+        int height = rows * tileSize * 2;
+        int levelCount = 32 - Integer.numberOfLeadingZeros(Math.max(width, height));
+        int[][] levels = new int[levelCount][];
+        for (int m = 0; m < levelCount; m++) {
+            int levelWidth = Math.max(1, width >> m);
+            int cell = tileSize * 2 >> m;
+            if (cell == 0) {
+                levels[m] = downsample(levels[m - 1], Math.max(1, width >> (m - 1)), Math.max(1, height >> (m - 1)));
+                continue;
+            }
+
+            int[] level = new int[levelWidth * Math.max(1, height >> m)];
+            int size = Math.max(1, tileSize >> m);
+            int pad = size / 2;
+            for (int t = 0; t < tiles.length; t++) {
+                int[] mip = tileMips[t][Math.min(m, tileLevels - 1)];
+                int originX = t % columns * cell;
+                int originY = t / columns * cell;
+                for (int y = 0; y < cell; y++) {
+                    int row = (y - pad + size) % size * size;
+                    int index = (originY + y) * levelWidth + originX;
+                    for (int x = 0; x < cell; x++) {
+                        level[index + x] = mip[row + (x - pad + size) % size];
+                    }
+                }
+            }
+            levels[m] = level;
+        }
+        return new PackedAtlas(tileSize, columns, rows, levels);
+    }
+
+    // Nearest neighbour scale of a width x height image to size x size
+    public static int[] resize(int[] texels, int width, int height, int size) {
+        if (width == size && height == size) return texels;
+        int[] out = new int[size * size];
+        for (int y = 0; y < size; y++) {
+            int row = y * height / size * width;
+            for (int x = 0; x < size; x++) {
+                out[y * size + x] = texels[row + x * width / size];
+            }
+        }
+        return out;
+    }
+
+    // Averages 2x2 blocks of texels, a side of 1 stays 1
+    static int[] downsample(int[] texels, int width, int height) {
+        int outWidth = Math.max(1, width / 2);
+        int outHeight = Math.max(1, height / 2);
+        int[] out = new int[outWidth * outHeight];
+        for (int y = 0; y < outHeight; y++) {
+            int y0 = Math.min(y * 2, height - 1) * width;
+            int y1 = Math.min(y * 2 + 1, height - 1) * width;
+            for (int x = 0; x < outWidth; x++) {
+                int x0 = Math.min(x * 2, width - 1);
+                int x1 = Math.min(x * 2 + 1, width - 1);
+                out[y * outWidth + x] = average(texels[y0 + x0], texels[y0 + x1], texels[y1 + x0], texels[y1 + x1]);
+            }
+        }
+        return out;
+    }
+
+    private static int average(int a, int b, int c, int d) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            int sum = (a >>> shift & 0xFF) + (b >>> shift & 0xFF) + (c >>> shift & 0xFF) + (d >>> shift & 0xFF);
+            result |= (sum + 2) / 4 << shift;
+        }
+        return result;
+    }
+
+    static int nextPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    // Cache key of the source textures, changes with any name or content
+    public static long key(String[] names, byte[][] sources) {
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < names.length; i++) {
+            crc.update(names[i].getBytes(StandardCharsets.UTF_8));
+            crc.update(0);
+            crc.update(sources[i]);
+        }
+        return (long) sources.length << 32 | crc.getValue();
+    }
+
+    /**
+     * Reads an atlas written by {@link #write} under key. Every size in the file is checked against the
+     * layout and the bytes left before anything is allocated, so a damaged cache is packed again instead of
+     * failing startup.
+     *
+     * @return null if the file is missing, damaged, of another version or packed from different sources
+     */
+    public static PackedAtlas read(Path file, long key) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            // Ints after the header
+            long remaining = (Files.size(file) - HEADER_BYTES) / 4;
+            if (remaining < 4) return null;
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != key) return null;
+
+            int tileSize = in.readInt();
+            int columns = in.readInt();
+            int rows = in.readInt();
+            int levelCount = in.readInt();
+            remaining -= 4;
+            if (!isValidSide(tileSize) || !isValidSide(columns) || !isValidSide(rows)) return null;
+            long width = (long) columns * tileSize * 2;
+            long height = (long) rows * tileSize * 2;
+            if (width > MAX_SIDE || height > MAX_SIDE) return null;
+            if (levelCount != 32 - Integer.numberOfLeadingZeros((int) Math.max(width, height))) return null;
+
+            PackedAtlas atlas = new PackedAtlas(tileSize, columns, rows, new int[levelCount][]);
+            for (int m = 0; m < levelCount; m++) {
+                if (remaining < 1) return null;
+                int length = in.readInt();
+                remaining--;
+                if (length != (long) atlas.getWidth(m) * atlas.getHeight(m) || length > remaining) return null;
+                int[] level = new int[length];
+                for (int i = 0; i < length; i++) {
+                    level[i] = in.readInt();
+                }
+                remaining -= length;
+                atlas.levels[m] = level;
+            }
+            return remaining == 0 ? atlas : null;
+        } catch (NoSuchFileException | EOFException e) {
+            return null;
+        }
+    }
+
+    // Power of two no larger than MAX_SIDE
+    private static boolean isValidSide(int value) {
+        return value > 0 && value <= MAX_SIDE && Integer.bitCount(value) == 1;
+    }
+
+    // Writes through a temporary file, so a crash never leaves a half written atlas under the real name
+    public static void write(PackedAtlas atlas, long key, Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(key);
+            out.writeInt(atlas.tileSize);
+            out.writeInt(atlas.columns);
+            out.writeInt(atlas.rows);
+            out.writeInt(atlas.levels.length);
+            for (int[] level : atlas.levels) {
+                out.writeInt(level.length);
+                for (int texel : level) {
+                    out.writeInt(texel);
+                }
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,215 @@
+package io.github.illuminatijoe.cubegame.core.render;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import io.github.illuminatijoe.cubegame.core.world.block.BlockRegistry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every block texture in one mipmapped GL texture, so chunks of all block types draw with a single
+ * binding. Layer 0 is a generated placeholder, the PNGs under {@link #DIRECTORY} follow in name order
+ * and a block uses the texture named like it. See {@link BlockAtlasPacker} for the layout.
+ * <p>
+ * The packed levels are cached in a file keyed by the names and contents of the sources, so startup only
+ * decodes and packs the textures again when one of them changed.
+ */
+public class BlockTextureAtlas implements Disposable {
+    public static final String DIRECTORY = "textures/blocks/";
+    public static final int MISSING_LAYER = 0;
+
+    private final Map<String, Integer> layers = new HashMap<>();
+    private final int layerCount;
+    private final int tileSize;
+    private final int columns;
+    private final int rows;
+    private final boolean cached;
+    private int handle;
+
+    /**
+     * Packs the block textures, or loads them from cacheFile when it was packed from the same sources.
+     * A cache that can't be read or written is skipped, a damaged one packed over.
+     */
+    public BlockTextureAtlas(Path cacheFile) {
+        FileHandle[] sources = findSources();
+        String[] names = new String[sources.length];
+        byte[][] bytes = new byte[sources.length][];
+        for (int i = 0; i < sources.length; i++) {
+            names[i] = sources[i].nameWithoutExtension();
+            bytes[i] = sources[i].readBytes();
+            layers.put(names[i], i + 1);
+        }
+        layerCount = sources.length + 1;
+
+        long key = BlockAtlasPacker.key(names, bytes);
+        BlockAtlasPacker.PackedAtlas atlas;
+        try {
+            atlas = BlockAtlasPacker.read(cacheFile, key);
+        } catch (IOException | RuntimeException e) {
+            Gdx.app.error("BlockTextureAtlas", "Couldn't read the cached block atlas, packing it again", e);
+            atlas = null;
+        }
+        cached = atlas != null;
+        if (atlas == null) {
+            atlas = pack(bytes);
+            try {
+                BlockAtlasPacker.write(atlas, key, cacheFile);
+            } catch (IOException e) {
+                Gdx.app.error("BlockTextureAtlas", "Couldn't cache the block atlas", e);
+            }
+        }
+
+        tileSize = atlas.getTileSize();
+        columns = atlas.getColumns();
+        rows = atlas.getRows();
+        upload(atlas);
+    }
+
+    // Block textures listed in assets.txt (written by the build), or in the directory when run from the assets folder
+    private static FileHandle[] findSources() {
+        List<FileHandle> sources = new ArrayList<>();
+        FileHandle list = Gdx.files.internal("assets.txt");
+        if (list.exists()) {
+            for (String line : list.readString().split("\n")) {
+                String path = line.trim();
+                if (path.startsWith(DIRECTORY) && path.endsWith(".png") && path.indexOf('/', DIRECTORY.length()) < 0) {
+                    sources.add(Gdx.files.internal(path));
+                }
+            }
+        } else {
+            sources.addAll(Arrays.asList(Gdx.files.internal(DIRECTORY).list(".png")));
+        }
+        sources.sort(Comparator.comparing(FileHandle::name));
+        return sources.toArray(new FileHandle[0]);
+    }
+
+    // Decodes the sources and packs them behind the placeholder, scaled to the largest power of two side among them
+    private static BlockAtlasPacker.PackedAtlas pack(byte[][] sources) {
+        int[][] texels = new int[sources.length][];
+        int[] widths = new int[sources.length];
+        int[] heights = new int[sources.length];
+        int largest = 1;
+        for (int i = 0; i < sources.length; i++) {
+            Pixmap pixmap = new Pixmap(sources[i], 0, sources[i].length);
+            widths[i] = pixmap.getWidth();
+            heights[i] = pixmap.getHeight();
+            int[] image = new int[widths[i] * heights[i]];
+            for (int y = 0; y < heights[i]; y++) {
+                for (int x = 0; x < widths[i]; x++) {
+                    image[y * widths[i] + x] = pixmap.getPixel(x, y);
+                }
+            }
+            pixmap.dispose();
+            texels[i] = image;
+            largest = Math.max(largest, Math.max(widths[i], heights[i]));
+        }
+
+        int tileSize = sources.length == 0 ? 16 : BlockAtlasPacker.nextPowerOfTwo(largest);
+        int[][] tiles = new int[sources.length + 1][];
+        tiles[MISSING_LAYER] = missingTile(tileSize);
+        for (int i = 0; i < sources.length; i++) {
+            tiles[i + 1] = BlockAtlasPacker.resize(texels[i], widths[i], heights[i], tileSize);
+        }
+        return BlockAtlasPacker.pack(tiles, tileSize);
+    }
+
+    // Magenta and black checkers
+    private static int[] missingTile(int size) {
+        int[] tile = new int[size * size];
+        int half = Math.max(1, size / 2);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                tile[y * size + x] = (x / half + y / half) % 2 == 0 ? 0xFF00FFFF : 0x000000FF;
+            }
+        }
+        return tile;
+    }
+
+    private void upload(BlockAtlasPacker.PackedAtlas atlas) {
+        GL20 gl = Gdx.gl20;
+        handle = gl.glGenTexture();
+        gl.glBindTexture(GL20.GL_TEXTURE_2D, handle);
+
+        ByteBuffer buffer = BufferUtils.newByteBuffer(atlas.getWidth(0) * atlas.getHeight(0) * 4);
+        // Texels are RGBA from the high byte down
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        for (int m = 0; m < atlas.getLevelCount(); m++) {
+            int[] level = atlas.getLevel(m);
+            buffer.clear();
+            buffer.asIntBuffer().put(level);
+            buffer.limit(level.length * 4);
+            gl.glTexImage2D(GL20.GL_TEXTURE_2D, m, GL20.GL_RGBA, atlas.getWidth(m), atlas.getHeight(m), 0,
+                GL20.GL_RGBA, GL20.GL_UNSIGNED_BYTE, buffer);
+        }
+
+        // Crisp texels up close, mipmaps against shimmering in the distance
+        gl.glTexParameteri(GL20.GL_TEXTURE_2D, GL20.GL_TEXTURE_MIN_FILTER, GL20.GL_NEAREST_MIPMAP_LINEAR);
+        gl.glTexParameteri(GL20.GL_TEXTURE_2D, GL20.GL_TEXTURE_MAG_FILTER, GL20.GL_NEAREST);
+        gl.glTexParameteri(GL20.GL_TEXTURE_2D, GL20.GL_TEXTURE_WRAP_S, GL20.GL_CLAMP_TO_EDGE);
+        gl.glTexParameteri(GL20.GL_TEXTURE_2D, GL20.GL_TEXTURE_WRAP_T, GL20.GL_CLAMP_TO_EDGE);
+        gl.glBindTexture(GL20.GL_TEXTURE_2D, 0);
+    }
+
+    /**
+     * Points every textured block of the {@link BlockRegistry} at the layer of its texture, the placeholder
+     * if it has none. Call before any chunk is meshed.
+     */
+    public void assignBlockLayers() {
+        for (int id = 0; id < BlockRegistry.size(); id++) {
+            if (BlockRegistry.getTextureIndex(id) < 0) continue;
+            BlockRegistry.setTextureIndex(id, getLayer(BlockRegistry.get(id).getName()));
+        }
+    }
+
+    public void bind(int unit) {
+        GL20 gl = Gdx.gl20;
+        gl.glActiveTexture(GL20.GL_TEXTURE0 + unit);
+        gl.glBindTexture(GL20.GL_TEXTURE_2D, handle);
+    }
+
+    // Layer of the texture named name (file name without extension), the placeholder if there is none
+    public int getLayer(String name) {
+        return layers.getOrDefault(name, MISSING_LAYER);
+    }
+
+    // Layers including the placeholder
+    public int getLayerCount() {
+        return layerCount;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    // Whether the atlas came from the disk cache instead of being packed
+    public boolean isCached() {
+        return cached;
+    }
+
+    @Override
+    public void dispose() {
+        if (handle != 0) Gdx.gl20.glDeleteTexture(handle);
+        handle = 0;
+    }
+}
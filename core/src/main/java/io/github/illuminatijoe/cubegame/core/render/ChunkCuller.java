@@ -0,0 +1,208 @@
+package io.github.illuminatijoe.cubegame.core.render;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.math.Plane;
+import com.badlogic.gdx.math.Vector3;
+import io.github.illuminatijoe.cubegame.core.Constants;
+import io.github.illuminatijoe.cubegame.core.utils.LongObjectMap;
+import io.github.illuminatijoe.cubegame.core.world.Chunk;
+import io.github.illuminatijoe.cubegame.core.world.World;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Selects the chunks to draw each frame.
+ * <p>
+ * Chunks are grouped into regions of {@link #REGION_SIZE} x {@link #REGION_SIZE} columns. A region is tested against the
+ * render distance and the camera frustum first: regions fully outside are rejected without looking at
+ * their chunks, regions fully inside accept all of them, and only regions crossing a frustum plane
+ * test chunk by chunk.
+ */
+public class ChunkCuller implements World.ChunkListener {
+    public static final int REGION_SIZE = 4;
+
+    public static final int OUTSIDE = 0;
+    public static final int INTERSECTING = 1;
+    public static final int INSIDE = 2;
+
+    private static final float HALF_CHUNK = Constants.CHUNK_SIZE / 2f;
+
+    private final LongObjectMap<Region> regionMap = new LongObjectMap<>();
+    private final List<Region> regions = new ArrayList<>();
+
+    private int visibleCount;
+    private int frustumCulledCount;
+    private int distanceCulledCount;
+    private int regionsTested;
+
+    @Override
+    public void onChunkLoaded(Chunk chunk) {
+        Vector3 pos = chunk.getChunkPos();
+        int regionX = Math.floorDiv((int) pos.x, REGION_SIZE);
+        int regionZ = Math.floorDiv((int) pos.z, REGION_SIZE);
+        long key = regionKey(regionX, regionZ);
+
+        Region region = regionMap.get(key);
+        if (region == null) {
+            region = new Region(regionX, regionZ);
+            regionMap.put(key, region);
+            regions.add(region);
+        }
+        region.chunks.add(chunk);
+        region.updateBounds();
+    }
+
+    @Override
+    public void onChunkUnloaded(Chunk chunk) {
+        Vector3 pos = chunk.getChunkPos();
+        long key = regionKey(Math.floorDiv((int) pos.x, REGION_SIZE), Math.floorDiv((int) pos.z, REGION_SIZE));
+
+        Region region = regionMap.get(key);
+        if (region == null) return;
+
+        region.chunks.remove(chunk);
+        if (region.chunks.isEmpty()) {
+            regionMap.remove(key);
+            regions.remove(region);
+        } else {
+            region.updateBounds();
+        }
+    }
+
+    /**
+     * Fills {@code out} with the chunks within {@code renderDistance} of {@code playerChunk}
+     * whose bounds intersect the camera frustum.
+     */
+    public void cull(Camera camera, Vector3 playerChunk, int renderDistance, List<Chunk> out) {
+        out.clear();
+        visibleCount = 0;
+        frustumCulledCount = 0;
+        distanceCulledCount = 0;
+        regionsTested = 0;
+
+        Plane[] planes = camera.frustum.planes;
+        float maxDistance2 = renderDistance * renderDistance;
+
+        for (int r = 0, n = regions.size(); r < n; r++) {
+            Region region = regions.get(r);
+            List<Chunk> chunks = region.chunks;
+            regionsTested++;
+
+            // Closest column of the region to the player, in chunks
+            float nearX = clamp(playerChunk.x, region.minX, region.minX + REGION_SIZE - 1) - playerChunk.x;
+            float nearZ = clamp(playerChunk.z, region.minZ, region.minZ + REGION_SIZE - 1) - playerChunk.z;
+            if (nearX * nearX + nearZ * nearZ > maxDistance2) {
+                distanceCulledCount += chunks.size();
+                continue;
+            }
+
+            int regionSide = classify(planes,
+                region.centerX, region.centerY, region.centerZ,
+                region.extentX, region.extentY, region.extentZ);
+            if (regionSide == OUTSIDE) {
+                frustumCulledCount += chunks.size();
+                continue;
+            }
+
+            for (int c = 0, m = chunks.size(); c < m; c++) {
+                Chunk chunk = chunks.get(c);
+                Vector3 pos = chunk.getChunkPos();
+
+                float dx = pos.x - playerChunk.x;
+                float dz = pos.z - playerChunk.z;
+                if (dx * dx + dz * dz > maxDistance2) {
+                    distanceCulledCount++;
+                    continue;
+                }
+
+                if (regionSide == INTERSECTING && classify(planes,
+                    pos.x * Constants.CHUNK_SIZE + HALF_CHUNK,
+                    pos.y * Constants.CHUNK_SIZE + HALF_CHUNK,
+                    pos.z * Constants.CHUNK_SIZE + HALF_CHUNK,
+                    HALF_CHUNK, HALF_CHUNK, HALF_CHUNK) == OUTSIDE) {
+                    frustumCulledCount++;
+                    continue;
+                }
+
+                out.add(chunk);
+                visibleCount++;
+            }
+        }
+    }
+
+    /**
+     * Classifies an axis aligned box, given by its center and half extents, against frustum planes
+     * whose normals point inwards (as in libGDX's {@link com.badlogic.gdx.math.Frustum}).
+     */
+    public static int classify(Plane[] planes, float cx, float cy, float cz, float ex, float ey, float ez) {
+        int result = INSIDE;
+        for (Plane plane : planes) {
+            Vector3 n = plane.normal;
+            float distance = n.x * cx + n.y * cy + n.z * cz + plane.d;
+            float radius = ex * Math.abs(n.x) + ey * Math.abs(n.y) + ez * Math.abs(n.z);
+
+            if (distance + radius < 0) return OUTSIDE;
+            if (distance - radius < 0) result = INTERSECTING;
+        }
+        return result;
+    }
+
+    private static float clamp(float value, float min, float max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static long regionKey(int regionX, int regionZ) {
+        return ((long) regionX << 32) | (regionZ & 0xFFFFFFFFL);
+    }
+
+    public int getVisibleCount() {
+        return visibleCount;
+    }
+
+    public int getCulledCount() {
+        return frustumCulledCount + distanceCulledCount;
+    }
+
+    public int getFrustumCulledCount() {
+        return frustumCulledCount;
+    }
+
+    public int getDistanceCulledCount() {
+        return distanceCulledCount;
+    }
+
+    public int getRegionsTested() {
+        return regionsTested;
+    }
+
+    private static class Region {
+        final int minX, minZ; // in chunks
+        final List<Chunk> chunks = new ArrayList<>();
+        float centerX, centerY, centerZ;
+        float extentX, extentY, extentZ;
+
+        Region(int regionX, int regionZ) {
+            this.minX = regionX * REGION_SIZE;
+            this.minZ = regionZ * REGION_SIZE;
+
+            float halfWidth = REGION_SIZE * Constants.CHUNK_SIZE / 2f;
+            centerX = minX * Constants.CHUNK_SIZE + halfWidth;
+            centerZ = minZ * Constants.CHUNK_SIZE + halfWidth;
+            extentX = halfWidth;
+            extentZ = halfWidth;
+        }
+
+        // Vertical bounds follow the chunks actually loaded in the region
+        void updateBounds() {
+            float minY = Float.MAX_VALUE;
+            float maxY = -Float.MAX_VALUE;
+            for (Chunk chunk : chunks) {
+                minY = Math.min(minY, chunk.getChunkPos().y);
+                maxY = Math.max(maxY, chunk.getChunkPos().y + 1);
+            }
+            centerY = (minY + maxY) / 2f * Constants.CHUNK_SIZE;
+            extentY = (maxY - minY) / 2f * Constants.CHUNK_SIZE;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package io.github.illuminatijoe.cubegame.core.render;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import io.github.illuminatijoe.cubegame.core.Constants;
+import io.github.illuminatijoe.cubegame.core.world.Chunk;
+import io.github.illuminatijoe.cubegame.core.world.ChunkMeshUploader;
+import io.github.illuminatijoe.cubegame.core.world.mesh.ChunkVertexFormat;
+import io.github.illuminatijoe.cubegame.core.world.mesh.MeshData;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Owns the GPU meshes of loaded chunks and draws them with the chunk shader,
+ * which unpacks {@link ChunkVertexFormat} on the GPU.
+ * <p>
+ * Meshes live in the shared vertex and index buffers of a {@link MeshArena}, one pair per page. Uploading
+ * rebases the indices onto the mesh's place in the page and tags every vertex with its slot, so a frame
+ * binds each page once and draws all its visible chunks through {@link MultiDraw}.
+ */
+public class ChunkRenderer implements ChunkMeshUploader, Disposable {
+    private final ShaderProgram shader;
+    private final int data0Location;
+    private final int data1Location;
+    private final int chunkOffsetsLocation;
+    private final MultiDraw multiDraw;
+
+    private final MeshArena arena = new MeshArena();
+    // Chunks without visible faces have no entry
+    private final Map<Chunk, MeshArena.Allocation> meshes = new HashMap<>();
+    // Vertex and index buffer of every arena page
+    private int[] vertexBuffers = new int[0];
+    private int[] indexBuffers = new int[0];
+    // Staging buffer shared by all uploads, grown on demand
+    private ByteBuffer staging = BufferUtils.newByteBuffer(64 * 1024);
+
+    private final Vector3 lightDirection = new Vector3(-1f, -0.8f, -0.2f).nor();
+    private float ambient = 0.4f;
+    private float diffuse = 0.8f;
+    private float skyLight = 1f;
+
+    // Last frame
+    private int drawCallCount;
+    private int drawRangeCount;
+    private int pageBindCount;
+    private int drawnChunkCount;
+
+    public ChunkRenderer() {
+        this(MultiDraw.SEPARATE);
+    }
+
+    public ChunkRenderer(MultiDraw multiDraw) {
+        this.multiDraw = multiDraw;
+        shader = new ShaderProgram(Gdx.files.internal("shaders/chunk.vert"), Gdx.files.internal("shaders/chunk.frag"));
+        if (!shader.isCompiled()) {
+            throw new GdxRuntimeException("Chunk shader failed to compile:\n" + shader.getLog());
+        }
+        data0Location = shader.getAttributeLocation("a_data0");
+        data1Location = shader.getAttributeLocation("a_data1");
+        chunkOffsetsLocation = shader.getUniformLocation("u_chunkOffsets");
+    }
+
+    public void setLight(float ambient, float diffuse, float dirX, float dirY, float dirZ) {
+        this.ambient = ambient;
+        this.diffuse = diffuse;
+        lightDirection.set(dirX, dirY, dirZ).nor();
+    }
+
+    // Brightness of sky light between 0 (night) and 1 (day), block light is unaffected
+    public void setSkyLight(float skyLight) {
+        this.skyLight = skyLight;
+    }
+
+    @Override
+    public void upload(Chunk chunk, MeshData data) {
+        release(chunk);
+        if (data.isEmpty()) return;
+
+        Vector3 pos = chunk.getChunkPos();
+        MeshArena.Allocation allocation = arena.allocate(data.getVertexCount(), data.getIndexCount(),
+            pos.x * Constants.CHUNK_SIZE, pos.y * Constants.CHUNK_SIZE, pos.z * Constants.CHUNK_SIZE);
+        ensurePageBuffers();
+        GL20 gl = Gdx.gl20;
+
+        int vertexInts = data.getVertexCount() * MeshData.VERTEX_SIZE;
+        int vertexBytes = vertexInts * 4;
+        int indexBytes = data.getIndexCount() * 2;
+
+        ByteBuffer buffer = staging(Math.max(vertexBytes, indexBytes));
+        IntBuffer ints = buffer.asIntBuffer();
+        int[] vertices = data.getVertices();
+        int slot = allocation.getSlot();
+        for (int i = 0; i < vertexInts; i += MeshData.VERTEX_SIZE) {
+            ints.put(vertices[i]);
+            ints.put(ChunkVertexFormat.withSlot(vertices[i + 1], slot));
+        }
+        buffer.limit(vertexBytes);
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, vertexBuffers[allocation.getPage()]);
+        gl.glBufferSubData(GL20.GL_ARRAY_BUFFER, allocation.getFirstVertex() * ChunkVertexFormat.BYTES_PER_VERTEX, vertexBytes, buffer);
+
+        buffer.clear();
+        ShortBuffer shorts = buffer.asShortBuffer();
+        short[] indices = data.getIndices();
+        int base = allocation.getFirstVertex();
+        for (int i = 0, n = data.getIndexCount(); i < n; i++) {
+            shorts.put((short) ((indices[i] & 0xFFFF) + base));
+        }
+        buffer.limit(indexBytes);
+        gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, indexBuffers[allocation.getPage()]);
+        gl.glBufferSubData(GL20.GL_ELEMENT_ARRAY_BUFFER, allocation.getFirstIndex() * 2, indexBytes, buffer);
+
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+        gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, 0);
+        meshes.put(chunk, allocation);
+    }
+
+    @Override
+    public void release(Chunk chunk) {
+        MeshArena.Allocation allocation = meshes.remove(chunk);
+        if (allocation != null) arena.free(allocation);
+    }
+
+    // Creates the buffers of pages the arena added since the last upload
+    private void ensurePageBuffers() {
+        int pages = arena.getPageCount();
+        if (vertexBuffers.length == pages) return;
+
+        GL20 gl = Gdx.gl20;
+        int old = vertexBuffers.length;
+        vertexBuffers = Arrays.copyOf(vertexBuffers, pages);
+        indexBuffers = Arrays.copyOf(indexBuffers, pages);
+        for (int p = old; p < pages; p++) {
+            vertexBuffers[p] = gl.glGenBuffer();
+            gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, vertexBuffers[p]);
+            gl.glBufferData(GL20.GL_ARRAY_BUFFER, MeshArena.VERTICES_PER_PAGE * ChunkVertexFormat.BYTES_PER_VERTEX, null, GL20.GL_STATIC_DRAW);
+            indexBuffers[p] = gl.glGenBuffer();
+            gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, indexBuffers[p]);
+            gl.glBufferData(GL20.GL_ELEMENT_ARRAY_BUFFER, MeshArena.INDICES_PER_PAGE * 2, null, GL20.GL_STATIC_DRAW);
+        }
+    }
+
+    private ByteBuffer staging(int bytes) {
+        if (staging.capacity() < bytes) {
+            staging = BufferUtils.newByteBuffer(Math.max(bytes, staging.capacity() * 2));
+        }
+        staging.clear();
+        return staging;
+    }
+
+    public void render(Camera camera, BlockTextureAtlas atlas, List<Chunk> chunks) {
+        GL20 gl = Gdx.gl20;
+
+        arena.beginFrame();
+        drawnChunkCount = 0;
+        for (int i = 0, n = chunks.size(); i < n; i++) {
+            MeshArena.Allocation allocation = meshes.get(chunks.get(i));
+            if (allocation == null) continue;
+            arena.addVisible(allocation);
+            drawnChunkCount++;
+        }
+        drawRangeCount = arena.buildDraws();
+        drawCallCount = 0;
+        pageBindCount = 0;
+        if (drawRangeCount == 0) return;
+
+        atlas.bind(0);
+        shader.bind();
+        shader.setUniformMatrix("u_projViewTrans", camera.combined);
+        shader.setUniformi("u_texture", 0);
+        shader.setUniformf("u_atlasSize", atlas.getColumns(), atlas.getRows());
+        shader.setUniformf("u_ambient", ambient);
+        shader.setUniformf("u_diffuse", diffuse);
+        shader.setUniformf("u_skyLight", skyLight);
+        shader.setUniformf("u_lightDir", lightDirection);
+
+        gl.glEnableVertexAttribArray(data0Location);
+        gl.glEnableVertexAttribArray(data1Location);
+
+        int[] pages = arena.getRangePages();
+        for (int start = 0; start < drawRangeCount; ) {
+            int page = pages[start];
+            int end = start + 1;
+            while (end < drawRangeCount && pages[end] == page) end++;
+
+            float[] offsets = arena.getChunkOffsets(page);
+            shader.setUniform3fv(chunkOffsetsLocation, offsets, 0, offsets.length);
+            gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, vertexBuffers[page]);
+            gl.glVertexAttribPointer(data0Location, 4, GL20.GL_UNSIGNED_BYTE, false, ChunkVertexFormat.BYTES_PER_VERTEX, 0);
+            gl.glVertexAttribPointer(data1Location, 4, GL20.GL_UNSIGNED_BYTE, false, ChunkVertexFormat.BYTES_PER_VERTEX, 4);
+            gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, indexBuffers[page]);
+            drawCallCount += multiDraw.drawTriangles(arena.getRangeFirsts(), arena.getRangeCounts(), start, end - start);
+            pageBindCount++;
+            start = end;
+        }
+
+        gl.glDisableVertexAttribArray(data0Location);
+        gl.glDisableVertexAttribArray(data1Location);
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+        gl.glBindBuffer(GL20.GL_ELEMENT_ARRAY_BUFFER, 0);
+    }
+
+    // GL draw calls of the last frame
+    public int getDrawCallCount() {
+        return drawCallCount;
+    }
+
+    // Index ranges drawn last frame, after merging chunks that sit back to back in a page
+    public int getDrawRangeCount() {
+        return drawRangeCount;
+    }
+
+    // Pages (buffer pairs) bound last frame
+    public int getPageBindCount() {
+        return pageBindCount;
+    }
+
+    // Visible chunks with a mesh last frame
+    public int getDrawnChunkCount() {
+        return drawnChunkCount;
+    }
+
+    public MeshArena getArena() {
+        return arena;
+    }
+
+    @Override
+    public void dispose() {
+        GL20 gl = Gdx.gl20;
+        for (int p = 0; p < vertexBuffers.length; p++) {
+            gl.glDeleteBuffer(vertexBuffers[p]);
+            gl.glDeleteBuffer(indexBuffers[p]);
+        }
+        vertexBuffers = new int[0];
+        indexBuffers = new int[0];
+        meshes.clear();
+        shader.dispose();
+    }
+}
@@ -0,0 +1,252 @@
+package io.github.illuminatijoe.cubegame.core.render;
+
+import io.github.illuminatijoe.cubegame.core.utils.FreeListAllocator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Placement of chunk meshes in a few large shared buffers, called pages, without any GL calls so it can
+ * run headless. A page holds {@link #VERTICES_PER_PAGE} vertices (all addressable by unsigned short
+ * indices), {@link #INDICES_PER_PAGE} indices and up to {@link #SLOTS_PER_PAGE} meshes. Vertex and index
+ * ranges are sub-allocated with {@link FreeListAllocator}s; every mesh also takes a slot, whose chunk
+ * offset the shader looks up per vertex so meshes of different chunks can share one draw. A mesh goes
+ * to the first page with room, a new page is added when none has.
+ * <p>
+ * Each frame the visible meshes are collected and turned into draw ranges, sorted by page and merged
+ * where meshes sit back to back in the index buffer. Not thread-safe, render thread only.
+ */
+public class MeshArena {
+    public static final int VERTICES_PER_PAGE = 1 << 16;
+    public static final int INDICES_PER_PAGE = VERTICES_PER_PAGE / 4 * 6;
+    // Chunk offsets fit the 128 vertex uniform vectors every GL 2 implementation has, with the shader's others
+    public static final int SLOTS_PER_PAGE = 120;
+
+    // Bits of the packed visible entries: page | first index | index count
+    private static final int COUNT_BITS = 20;
+    private static final int FIRST_BITS = 20;
+    private static final long FIELD_MASK = (1L << 20) - 1;
+
+    // A mesh's place in the arena
+    public static final class Allocation {
+        private final int page;
+        private final int slot;
+        private final int firstVertex;
+        private final int vertexCount;
+        private final int firstIndex;
+        private final int indexCount;
+
+        private Allocation(int page, int slot, int firstVertex, int vertexCount, int firstIndex, int indexCount) {
+            this.page = page;
+            this.slot = slot;
+            this.firstVertex = firstVertex;
+            this.vertexCount = vertexCount;
+            this.firstIndex = firstIndex;
+            this.indexCount = indexCount;
+        }
+
+        public int getPage() {
+            return page;
+        }
+
+        public int getSlot() {
+            return slot;
+        }
+
+        public int getFirstVertex() {
+            return firstVertex;
+        }
+
+        public int getVertexCount() {
+            return vertexCount;
+        }
+
+        public int getFirstIndex() {
+            return firstIndex;
+        }
+
+        public int getIndexCount() {
+            return indexCount;
+        }
+    }
+
+    private static final class Page {
+        final FreeListAllocator vertices = new FreeListAllocator(VERTICES_PER_PAGE);
+        final FreeListAllocator indices = new FreeListAllocator(INDICES_PER_PAGE);
+        // Chunk offset (x, y, z in blocks) of every slot
+        final float[] chunkOffsets = new float[SLOTS_PER_PAGE * 3];
+        final int[] freeSlots = new int[SLOTS_PER_PAGE];
+        int freeSlotCount;
+
+        Page() {
+            // Lowest slots are handed out first
+            for (int i = 0; i < SLOTS_PER_PAGE; i++) {
+                freeSlots[i] = SLOTS_PER_PAGE - 1 - i;
+            }
+            freeSlotCount = SLOTS_PER_PAGE;
+        }
+    }
+
+    private final List<Page> pages = new ArrayList<>();
+    private int meshCount;
+
+    // Visible meshes of the current frame, packed as page | first index | index count
+    private long[] visible = new long[256];
+    private int visibleCount;
+
+    // Draw ranges built from the visible meshes, sorted by page
+    private int[] rangePages = new int[256];
+    private int[] rangeFirsts = new int[256];
+    private int[] rangeCounts = new int[256];
+    private int rangeCount;
+
+    /**
+     * Places a mesh of the chunk at block offset (x, y, z).
+     *
+     * @throws IllegalArgumentException if the mesh is larger than a page
+     */
+    public Allocation allocate(int vertexCount, int indexCount, float x, float y, float z) {
+        if (vertexCount <= 0 || vertexCount > VERTICES_PER_PAGE || indexCount <= 0 || indexCount > INDICES_PER_PAGE) {
+            throw new IllegalArgumentException("Mesh of " + vertexCount + " vertices and " + indexCount + " indices doesn't fit a page");
+        }
+
+        for (int p = 0; p <= pages.size(); p++) {
+            if (p == pages.size()) pages.add(new Page());
+            Page page = pages.get(p);
+            if (page.freeSlotCount == 0) continue;
+
+            int firstVertex = page.vertices.allocate(vertexCount);
+            if (firstVertex < 0) continue;
+            int firstIndex = page.indices.allocate(indexCount);
+            if (firstIndex < 0) {
+                page.vertices.free(firstVertex, vertexCount);
+                continue;
+            }
+
+            int slot = page.freeSlots[--page.freeSlotCount];
+            page.chunkOffsets[slot * 3] = x;
+            page.chunkOffsets[slot * 3 + 1] = y;
+            page.chunkOffsets[slot * 3 + 2] = z;
+            meshCount++;
+            return new Allocation(p, slot, firstVertex, vertexCount, firstIndex, indexCount);
+        }
+        throw new IllegalStateException("Unreachable, a new page always has room");
+    }
+
+    public void free(Allocation allocation) {
+        Page page = pages.get(allocation.page);
+        page.vertices.free(allocation.firstVertex, allocation.vertexCount);
+        page.indices.free(allocation.firstIndex, allocation.indexCount);
+        page.freeSlots[page.freeSlotCount++] = allocation.slot;
+        meshCount--;
+    }
+
+    // Starts collecting the visible meshes of a frame
+    public void beginFrame() {
+        visibleCount = 0;
+    }
+
+    public void addVisible(Allocation allocation) {
+        if (visibleCount == visible.length) visible = Arrays.copyOf(visible, visibleCount * 2);
+        visible[visibleCount++] = (long) allocation.page << (FIRST_BITS + COUNT_BITS)
+            | (long) allocation.firstIndex << COUNT_BITS
+            | allocation.indexCount;
+    }
+
+    /**
+     * Turns the meshes added since {@link #beginFrame} into draw ranges, merging meshes that follow each
+     * other in a page's index buffer.
+     *
+     * @return number of ranges
+     */
+    public int buildDraws() {
+        Arrays.sort(visible, 0, visibleCount);
+        rangeCount = 0;
+
+        for (int i = 0; i < visibleCount; i++) {
+            long entry = visible[i];
+            int page = (int) (entry >>> (FIRST_BITS + COUNT_BITS));
+            int first = (int) (entry >>> COUNT_BITS & FIELD_MASK);
+            int count = (int) (entry & FIELD_MASK);
+
+            int last = rangeCount - 1;
+            if (last >= 0 && rangePages[last] == page && rangeFirsts[last] + rangeCounts[last] == first) {
+                rangeCounts[last] += count;
+                continue;
+            }
+
+            if (rangeCount == rangePages.length) {
+                rangePages = Arrays.copyOf(rangePages, rangeCount * 2);
+                rangeFirsts = Arrays.copyOf(rangeFirsts, rangeCount * 2);
+                rangeCounts = Arrays.copyOf(rangeCounts, rangeCount * 2);
+            }
+            rangePages[rangeCount] = page;
+            rangeFirsts[rangeCount] = first;
+            rangeCounts[rangeCount] = count;
+            rangeCount++;
+        }
+        return rangeCount;
+    }
+
+    public int getRangeCount() {
+        return rangeCount;
+    }
+
+    // Page of each range, ranges of one page are consecutive
+    public int[] getRangePages() {
+        return rangePages;
+    }
+
+    // First index of each range within its page
+    public int[] getRangeFirsts() {
+        return rangeFirsts;
+    }
+
+    public int[] getRangeCounts() {
+        return rangeCounts;
+    }
+
+    // Chunk offset of every slot of a page, 3 floats per slot
+    public float[] getChunkOffsets(int page) {
+        return pages.get(page).chunkOffsets;
+    }
+
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    public int getMeshCount() {
+        return meshCount;
+    }
+
+    public long getUsedVertices() {
+        long used = 0;
+        for (Page page : pages) {
+            used += page.vertices.getUsed();
+        }
+        return used;
+    }
+
+    public long getUsedIndices() {
+        long used = 0;
+        for (Page page : pages) {
+            used += page.indices.getUsed();
+        }
+        return used;
+    }
+
+    /**
+     * Share of the free vertex space that is not in the largest free range of its page, 0 when every page
+     * has its free space in one piece. High values mean large meshes start to need new pages despite room.
+     */
+    public float getFragmentation() {
+        long free = 0;
+        long largest = 0;
+        for (Page page : pages) {
+            free += page.vertices.getFree();
+            largest += page.vertices.getLargestFreeRange();
+        }
+        return free == 0 ? 0f : 1f - (float) largest / free;
+    }
+}
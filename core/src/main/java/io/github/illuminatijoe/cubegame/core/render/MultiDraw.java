@@ -0,0 +1,27 @@
+package io.github.illuminatijoe.cubegame.core.render;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+
+/**
+ * Submits several ranges of the bound index buffer at once. GL 2 has no multi-draw, so {@link #SEPARATE}
+ * issues one glDrawElements per range; backends that can reach glMultiDrawElements pass their own
+ * implementation to the renderer and draw a whole page in a single call.
+ */
+public interface MultiDraw {
+    MultiDraw SEPARATE = (firsts, counts, offset, count) -> {
+        GL20 gl = Gdx.gl20;
+        for (int i = offset; i < offset + count; i++) {
+            gl.glDrawElements(GL20.GL_TRIANGLES, counts[i], GL20.GL_UNSIGNED_SHORT, firsts[i] * 2);
+        }
+        return count;
+    };
+
+    /**
+     * Draws the unsigned short triangle ranges offset to offset + count of firsts (first index of each
+     * range in the bound index buffer) and counts.
+     *
+     * @return number of GL draw calls issued
+     */
+    int drawTriangles(int[] firsts, int[] counts, int offset, int count);
+}
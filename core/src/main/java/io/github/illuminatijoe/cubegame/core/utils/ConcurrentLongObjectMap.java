@@ -0,0 +1,108 @@
+package io.github.illuminatijoe.cubegame.core.utils;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread-safe {@link LongObjectMap}. Writes take an exclusive lock; reads first run optimistically without
+ * locking and only retry under the read lock when a write got in between, so lookups from many worker
+ * threads don't contend with each other.
+ */
+public class ConcurrentLongObjectMap<V> {
+    private final LongObjectMap<V> map;
+    private final StampedLock lock = new StampedLock();
+
+    public ConcurrentLongObjectMap() {
+        map = new LongObjectMap<>();
+    }
+
+    public ConcurrentLongObjectMap(int expected) {
+        map = new LongObjectMap<>(expected);
+    }
+
+    public V get(long key) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            V value = map.get(key);
+            if (lock.validate(stamp)) return value;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return map.get(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    public V put(long key, V value) {
+        long stamp = lock.writeLock();
+        try {
+            return map.put(key, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public V putIfAbsent(long key, V value) {
+        long stamp = lock.writeLock();
+        try {
+            return map.putIfAbsent(key, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public V remove(long key) {
+        long stamp = lock.writeLock();
+        try {
+            return map.remove(key);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean remove(long key, V value) {
+        long stamp = lock.writeLock();
+        try {
+            return map.remove(key, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return map.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            map.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Visits every entry under the read lock; the visitor must not write to this map
+    public void forEach(LongObjectMap.Visitor<? super V> visitor) {
+        long stamp = lock.readLock();
+        try {
+            map.forEach(visitor);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package io.github.illuminatijoe.cubegame.core.utils;
+
+import java.util.Arrays;
+
+/**
+ * Best-fit allocator of ranges within [0, capacity), e.g. vertices or indices of a GPU buffer. Free ranges
+ * are kept sorted by offset in two parallel arrays and merged with their neighbours when freed, so
+ * allocating and freeing allocate nothing (only growing the free list does). Callers keep the size of
+ * every range they allocate and pass it back to {@link #free}.
+ * <p>
+ * Has no GL dependency, so placement and fragmentation can be exercised headless. Not thread-safe.
+ */
+public class FreeListAllocator {
+    private final int capacity;
+    // Free ranges sorted by offset, never adjacent to each other
+    private int[] offsets = new int[16];
+    private int[] sizes = new int[16];
+    private int count;
+    private int used;
+    private int allocationCount;
+
+    public FreeListAllocator(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        this.capacity = capacity;
+        sizes[0] = capacity;
+        count = 1;
+    }
+
+    /**
+     * Allocates size units from the smallest free range that fits them.
+     *
+     * @return offset of the range, -1 if no free range is large enough
+     */
+    public int allocate(int size) {
+        if (size <= 0) throw new IllegalArgumentException("Size must be positive: " + size);
+
+        int best = -1;
+        for (int i = 0; i < count; i++) {
+            int free = sizes[i];
+            if (free < size || best >= 0 && free >= sizes[best]) continue;
+            best = i;
+            if (free == size) break;
+        }
+        if (best < 0) return -1;
+
+        int offset = offsets[best];
+        if (sizes[best] == size) {
+            remove(best);
+        } else {
+            offsets[best] += size;
+            sizes[best] -= size;
+        }
+        used += size;
+        allocationCount++;
+        return offset;
+    }
+
+    /**
+     * Returns a range from {@link #allocate} with the size it was allocated with.
+     *
+     * @throws IllegalArgumentException if the range overlaps free space, e.g. when freed twice
+     */
+    public void free(int offset, int size) {
+        if (offset < 0 || size <= 0 || offset + size > capacity) {
+            throw new IllegalArgumentException("Range " + offset + "+" + size + " outside the allocator");
+        }
+
+        // First free range after offset
+        int next = search(offset);
+        int prev = next - 1;
+        if (prev >= 0 && offsets[prev] + sizes[prev] > offset || next < count && offset + size > offsets[next]) {
+            throw new IllegalArgumentException("Range " + offset + "+" + size + " is already free");
+        }
+
+        boolean mergePrev = prev >= 0 && offsets[prev] + sizes[prev] == offset;
+        boolean mergeNext = next < count && offset + size == offsets[next];
+        if (mergePrev && mergeNext) {
+            sizes[prev] += size + sizes[next];
+            remove(next);
+        } else if (mergePrev) {
+            sizes[prev] += size;
+        } else if (mergeNext) {
+            offsets[next] = offset;
+            sizes[next] += size;
+        } else {
+            insert(next, offset, size);
+        }
+        used -= size;
+        allocationCount--;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getUsed() {
+        return used;
+    }
+
+    public int getFree() {
+        return capacity - used;
+    }
+
+    // Live allocations
+    public int getAllocationCount() {
+        return allocationCount;
+    }
+
+    public int getFreeRangeCount() {
+        return count;
+    }
+
+    // Largest allocation that would currently succeed
+    public int getLargestFreeRange() {
+        int largest = 0;
+        for (int i = 0; i < count; i++) {
+            largest = Math.max(largest, sizes[i]);
+        }
+        return largest;
+    }
+
+    // Share of the free space outside the largest free range, 0 when it is all in one piece
+    public float getFragmentation() {
+        int free = getFree();
+        return free == 0 ? 0f : 1f - (float) getLargestFreeRange() / free;
+    }
+
+    // Index of the first free range starting after offset
+    private int search(int offset) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (offsets[mid] <= offset) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private void insert(int index, int offset, int size) {
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, count * 2);
+            sizes = Arrays.copyOf(sizes, count * 2);
+        }
+        System.arraycopy(offsets, index, offsets, index + 1, count - index);
+        System.arraycopy(sizes, index, sizes, index + 1, count - index);
+        offsets[index] = offset;
+        sizes[index] = size;
+        count++;
+    }
+
+    private void remove(int index) {
+        System.arraycopy(offsets, index + 1, offsets, index, count - index - 1);
+        System.arraycopy(sizes, index + 1, sizes, index, count - index - 1);
+        count--;
+    }
+}
@@ -0,0 +1,199 @@
+package io.github.illuminatijoe.cubegame.core.utils;
+
+import java.util.Arrays;
+
+/**
+ * Map from long keys to non-null values, with open addressing and linear probing over two parallel arrays,
+ * so entries allocate nothing (only growing does). Removal shifts later entries of the probe run back
+ * instead of leaving tombstones, keeping lookups short under constant loading and unloading.
+ * <p>
+ * Iterate by slot: {@code for (int i = 0; i < map.capacity(); i++) if (map.valueAt(i) != null) ...}.
+ * Removing while iterating may move entries to slots already visited. Not thread-safe, see
+ * {@link ConcurrentLongObjectMap}.
+ */
+public class LongObjectMap<V> {
+    private static final int MIN_CAPACITY = 16;
+
+    public interface Visitor<V> {
+        void visit(long key, V value);
+    }
+
+    private long[] keys;
+    private V[] values;
+    private int size;
+    // Index bits, capacity is 1 << bits
+    private int bits;
+
+    public LongObjectMap() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    // Room for expected entries without growing
+    public LongObjectMap(int expected) {
+        allocate(Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expected) * 2 - 1) << 1));
+    }
+
+    public V get(long key) {
+        // Arrays read once: ConcurrentLongObjectMap calls this without a lock and validates afterwards,
+        // so it has to stay in bounds and terminate even if a resize tears the state
+        long[] keys = this.keys;
+        V[] values = this.values;
+        int mask = Math.min(keys.length, values.length) - 1;
+        int i = index(key, mask);
+        for (int probes = 0; probes <= mask; probes++) {
+            V value = values[i];
+            if (value == null) return null;
+            if (keys[i] == key) return value;
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps key to value.
+     *
+     * @return the previous value, or null
+     */
+    public V put(long key, V value) {
+        if (value == null) throw new IllegalArgumentException("Null values aren't supported");
+
+        int mask = keys.length - 1;
+        int i = index(key, mask);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                V old = values[i];
+                values[i] = value;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        // Kept at most half full
+        if (++size * 2 > keys.length) grow();
+        return null;
+    }
+
+    // Maps key to value unless it is mapped already, returns the existing value or null
+    public V putIfAbsent(long key, V value) {
+        V existing = get(key);
+        if (existing != null) return existing;
+        put(key, value);
+        return null;
+    }
+
+    /**
+     * Removes the mapping for key.
+     *
+     * @return the removed value, or null
+     */
+    public V remove(long key) {
+        int slot = find(key);
+        if (slot < 0) return null;
+        V old = values[slot];
+        removeSlot(slot);
+        return old;
+    }
+
+    // Removes the mapping only while key maps to value (by identity)
+    public boolean remove(long key, V value) {
+        int slot = find(key);
+        if (slot < 0 || values[slot] != value) return false;
+        removeSlot(slot);
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    // Value in slot, null for an empty slot
+    public V valueAt(int slot) {
+        return values[slot];
+    }
+
+    // Key in slot, only meaningful when the slot has a value
+    public long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    public void forEach(Visitor<? super V> visitor) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) visitor.visit(keys[i], values[i]);
+        }
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int i = index(key, mask);
+        while (values[i] != null) {
+            if (keys[i] == key) return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    // Backward shift: moves later entries of the run into the hole wherever their home slot allows
+    private void removeSlot(int slot) {
+        int mask = keys.length - 1;
+        int free = slot;
+        int i = (slot + 1) & mask;
+        while (values[i] != null) {
+            int home = index(keys[i], mask);
+            if (((i - home) & mask) >= ((i - free) & mask)) {
+                keys[free] = keys[i];
+                values[free] = values[i];
+                free = i;
+            }
+            i = (i + 1) & mask;
+        }
+        values[free] = null;
+        size--;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        V[] oldValues = values;
+        allocate(oldKeys.length * 2);
+
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] == null) continue;
+            int i = index(oldKeys[j], mask);
+            while (values[i] != null) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity) {
+        values = (V[]) new Object[capacity];
+        keys = new long[capacity];
+        bits = Integer.numberOfTrailingZeros(capacity);
+    }
+
+    // Fibonacci hashing, spreads packed coordinates that differ only in a few low bits of each field
+    private int index(long key, int mask) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - bits)) & mask;
+    }
+}
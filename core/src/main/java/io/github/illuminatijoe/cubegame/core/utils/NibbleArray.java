@@ -0,0 +1,59 @@
+package io.github.illuminatijoe.cubegame.core.utils;
+
+import java.util.Arrays;
+
+/**
+ * Fixed number of 4-bit values, two per byte with the even index in the low nibble.
+ * While every value is the same no array is allocated at all.
+ */
+public class NibbleArray {
+    private final int size;
+    // Null while uniform
+    private byte[] data;
+    private int uniform;
+
+    public NibbleArray(int size) {
+        this.size = size;
+    }
+
+    public int get(int index) {
+        if (data == null) return uniform;
+        return (data[index >> 1] >> ((index & 1) << 2)) & 0xF;
+    }
+
+    public void set(int index, int value) {
+        if (data == null) {
+            if (value == uniform) return;
+            data = new byte[(size + 1) >> 1];
+            Arrays.fill(data, (byte) (uniform * 0x11));
+        }
+        int shift = (index & 1) << 2;
+        int i = index >> 1;
+        data[i] = (byte) ((data[i] & ~(0xF << shift)) | value << shift);
+    }
+
+    // Sets every value and drops the array
+    public void fill(int value) {
+        data = null;
+        uniform = value;
+    }
+
+    public boolean isUniform() {
+        return data == null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public NibbleArray copy() {
+        NibbleArray copy = new NibbleArray(size);
+        copy.data = data == null ? null : data.clone();
+        copy.uniform = uniform;
+        return copy;
+    }
+
+    public long getMemoryUsage() {
+        return 24 + (data == null ? 0 : 16 + data.length);
+    }
+}
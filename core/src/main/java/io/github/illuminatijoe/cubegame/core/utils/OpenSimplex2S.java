@@ -539,6 +539,419 @@ public class OpenSimplex2S {
         return value;
     }
 
+    /*
+     * Batch Evaluators
+     */
+
+    // Largest lattice area a batch call hashes up front, bigger grids fall back to per-sample evaluation
+    private static final int MAX_BATCH_LATTICE_POINTS = 1 << 14;
+    private static final ThreadLocal<int[][]> BATCH_TABLES =
+        ThreadLocal.withInitial(() -> new int[][] { new int[MAX_BATCH_LATTICE_POINTS], new int[MAX_BATCH_LATTICE_POINTS] });
+
+    /**
+     * Batch 2D noise over a regular grid: fills {@code out[i + j * width]} with
+     * {@code noise2(seed, x0 + i * step, y0 + j * step)}.
+     * The gradients of every lattice point under the grid are hashed once and shared by all samples
+     * instead of hashing four to six vertices per sample. Results are identical to {@link #noise2}.
+     */
+    public static void noise2Grid(long seed, double x0, double y0, double step, int width, int height, float[] out) {
+
+        // The skew is linear, so the lattice bounds of the grid are set by its corners.
+        double minXs = Double.MAX_VALUE, maxXs = -Double.MAX_VALUE;
+        double minYs = Double.MAX_VALUE, maxYs = -Double.MAX_VALUE;
+        for (int corner = 0; corner < 4; corner++) {
+            double x = x0 + ((corner & 1) == 0 ? 0 : (width - 1) * step);
+            double y = y0 + ((corner & 2) == 0 ? 0 : (height - 1) * step);
+            double s = SKEW_2D * (x + y);
+            minXs = Math.min(minXs, x + s);
+            maxXs = Math.max(maxXs, x + s);
+            minYs = Math.min(minYs, y + s);
+            maxYs = Math.max(maxYs, y + s);
+        }
+
+        // Vertices reach one point below and two above the base point, plus one of slack for rounding.
+        int minX = fastFloor(minXs) - 2, maxX = fastFloor(maxXs) + 3;
+        int minY = fastFloor(minYs) - 2, maxY = fastFloor(maxYs) + 3;
+        int latticeWidth = maxX - minX + 1;
+        long latticePoints = (long)latticeWidth * (maxY - minY + 1);
+
+        if (latticePoints > MAX_BATCH_LATTICE_POINTS) {
+            for (int j = 0; j < height; j++) {
+                for (int i = 0; i < width; i++) {
+                    out[i + j * width] = noise2(seed, x0 + i * step, y0 + j * step);
+                }
+            }
+            return;
+        }
+
+        int[] table = BATCH_TABLES.get()[0];
+        for (int ly = minY; ly <= maxY; ly++) {
+            long ysvp = ly * PRIME_Y;
+            int row = (ly - minY) * latticeWidth - minX;
+            for (int lx = minX; lx <= maxX; lx++) {
+                table[row + lx] = gradIndex(seed, lx * PRIME_X, ysvp);
+            }
+        }
+
+        for (int j = 0; j < height; j++) {
+            double y = y0 + j * step;
+            for (int i = 0; i < width; i++) {
+                double x = x0 + i * step;
+                double s = SKEW_2D * (x + y);
+                out[i + j * width] = noise2_UnskewedBaseCached(table, minX, minY, latticeWidth, x + s, y + s);
+            }
+        }
+    }
+
+    /**
+     * Batch 3D noise over a regular grid, oriented like {@link #noise3_ImproveXZ} (Y vertical).
+     * Fills {@code out[i + k * sizeX + j * sizeX * sizeZ]} with
+     * {@code noise3_ImproveXZ(seed, x0 + i * step, y0 + j * step, z0 + k * step)}, the same order as chunk storage.
+     * Lattice gradients for both BCC lattice copies are hashed once per call. Results are identical to the scalar function.
+     */
+    public static void noise3Grid_ImproveXZ(long seed, double x0, double y0, double z0, double step,
+                                            int sizeX, int sizeY, int sizeZ, float[] out) {
+
+        // The rotation is linear, so the lattice bounds of the grid are set by its corners.
+        double minXr = Double.MAX_VALUE, maxXr = -Double.MAX_VALUE;
+        double minYr = Double.MAX_VALUE, maxYr = -Double.MAX_VALUE;
+        double minZr = Double.MAX_VALUE, maxZr = -Double.MAX_VALUE;
+        for (int corner = 0; corner < 8; corner++) {
+            double x = x0 + ((corner & 1) == 0 ? 0 : (sizeX - 1) * step);
+            double y = y0 + ((corner & 2) == 0 ? 0 : (sizeY - 1) * step);
+            double z = z0 + ((corner & 4) == 0 ? 0 : (sizeZ - 1) * step);
+            double xz = x + z;
+            double s2 = xz * -0.211324865405187;
+            double yy = y * ROOT3OVER3;
+            double xr = x + s2 + yy, zr = z + s2 + yy, yr = xz * -ROOT3OVER3 + yy;
+            minXr = Math.min(minXr, xr);
+            maxXr = Math.max(maxXr, xr);
+            minYr = Math.min(minYr, yr);
+            maxYr = Math.max(maxYr, yr);
+            minZr = Math.min(minZr, zr);
+            maxZr = Math.max(maxZr, zr);
+        }
+
+        // Vertices reach up to two points above the base point, plus one of slack for rounding.
+        int minX = fastFloor(minXr) - 1, maxX = fastFloor(maxXr) + 3;
+        int minY = fastFloor(minYr) - 1, maxY = fastFloor(maxYr) + 3;
+        int minZ = fastFloor(minZr) - 1, maxZ = fastFloor(maxZr) + 3;
+        int strideY = maxX - minX + 1;
+        int strideZ = strideY * (maxY - minY + 1);
+        long latticePoints = (long)strideZ * (maxZ - minZ + 1);
+
+        if (latticePoints > MAX_BATCH_LATTICE_POINTS) {
+            for (int j = 0; j < sizeY; j++) {
+                for (int k = 0; k < sizeZ; k++) {
+                    for (int i = 0; i < sizeX; i++) {
+                        out[i + k * sizeX + j * sizeX * sizeZ] =
+                            noise3_ImproveXZ(seed, x0 + i * step, y0 + j * step, z0 + k * step);
+                    }
+                }
+            }
+            return;
+        }
+
+        int[][] tables = BATCH_TABLES.get();
+        int[] table = tables[0], table2 = tables[1];
+        long seed2 = seed ^ SEED_FLIP_3D;
+        for (int lz = minZ; lz <= maxZ; lz++) {
+            long zrvp = lz * PRIME_Z;
+            for (int ly = minY; ly <= maxY; ly++) {
+                long yrvp = ly * PRIME_Y;
+                int row = (lz - minZ) * strideZ + (ly - minY) * strideY - minX;
+                for (int lx = minX; lx <= maxX; lx++) {
+                    long xrvp = lx * PRIME_X;
+                    table[row + lx] = gradIndex(seed, xrvp, yrvp, zrvp);
+                    table2[row + lx] = gradIndex(seed2, xrvp, yrvp, zrvp);
+                }
+            }
+        }
+
+        for (int j = 0; j < sizeY; j++) {
+            double y = y0 + j * step;
+            double yy = y * ROOT3OVER3;
+            for (int k = 0; k < sizeZ; k++) {
+                double z = z0 + k * step;
+                for (int i = 0; i < sizeX; i++) {
+                    double x = x0 + i * step;
+                    double xz = x + z;
+                    double s2 = xz * -0.211324865405187;
+                    out[i + k * sizeX + j * sizeX * sizeZ] = noise3_UnrotatedBaseCached(table, table2,
+                        minX, minY, minZ, strideY, strideZ, x + s2 + yy, xz * -ROOT3OVER3 + yy, z + s2 + yy);
+                }
+            }
+        }
+    }
+
+    private static float noise2_UnskewedBaseCached(int[] table, int minX, int minY, int width, double xs, double ys) {
+
+        // Get base points and offsets.
+        int xsb = fastFloor(xs), ysb = fastFloor(ys);
+        float xi = (float)(xs - xsb), yi = (float)(ys - ysb);
+
+        // Index of the base point in the gradient table.
+        int base = (xsb - minX) + (ysb - minY) * width;
+
+        // Unskew.
+        float t = (xi + yi) * (float)UNSKEW_2D;
+        float dx0 = xi + t, dy0 = yi + t;
+
+        // First vertex.
+        float a0 = RSQUARED_2D - dx0 * dx0 - dy0 * dy0;
+        float value = (a0 * a0) * (a0 * a0) * grad(table, base, dx0, dy0);
+
+        // Second vertex.
+        float a1 = (float)(2 * (1 + 2 * UNSKEW_2D) * (1 / UNSKEW_2D + 2)) * t + ((float)(-2 * (1 + 2 * UNSKEW_2D) * (1 + 2 * UNSKEW_2D)) + a0);
+        float dx1 = dx0 - (float)(1 + 2 * UNSKEW_2D);
+        float dy1 = dy0 - (float)(1 + 2 * UNSKEW_2D);
+        value += (a1 * a1) * (a1 * a1) * grad(table, base + 1 + width, dx1, dy1);
+
+        // Third and fourth vertices.
+        // Nested conditionals were faster than compact bit logic/arithmetic.
+        float xmyi = xi - yi;
+        if (t < UNSKEW_2D) {
+            if (xi + xmyi > 1) {
+                float dx2 = dx0 - (float)(3 * UNSKEW_2D + 2);
+                float dy2 = dy0 - (float)(3 * UNSKEW_2D + 1);
+                float a2 = RSQUARED_2D - dx2 * dx2 - dy2 * dy2;
+                if (a2 > 0) {
+                    value += (a2 * a2) * (a2 * a2) * grad(table, base + 2 + width, dx2, dy2);
+                }
+            }
+            else
+            {
+                float dx2 = dx0 - (float)UNSKEW_2D;
+                float dy2 = dy0 - (float)(UNSKEW_2D + 1);
+                float a2 = RSQUARED_2D - dx2 * dx2 - dy2 * dy2;
+                if (a2 > 0) {
+                    value += (a2 * a2) * (a2 * a2) * grad(table, base + width, dx2, dy2);
+                }
+            }
+
+            if (yi - xmyi > 1) {
+                float dx3 = dx0 - (float)(3 * UNSKEW_2D + 1);
+                float dy3 = dy0 - (float)(3 * UNSKEW_2D + 2);
+                float a3 = RSQUARED_2D - dx3 * dx3 - dy3 * dy3;
+                if (a3 > 0) {
+                    value += (a3 * a3) * (a3 * a3) * grad(table, base + 1 + (width << 1), dx3, dy3);
+                }
+            }
+            else
+            {
+                float dx3 = dx0 - (float)(UNSKEW_2D + 1);
+                float dy3 = dy0 - (float)UNSKEW_2D;
+                float a3 = RSQUARED_2D - dx3 * dx3 - dy3 * dy3;
+                if (a3 > 0) {
+                    value += (a3 * a3) * (a3 * a3) * grad(table, base + 1, dx3, dy3);
+                }
+            }
+        }
+        else
+        {
+            if (xi + xmyi < 0) {
+                float dx2 = dx0 + (float)(1 + UNSKEW_2D);
+                float dy2 = dy0 + (float)UNSKEW_2D;
+                float a2 = RSQUARED_2D - dx2 * dx2 - dy2 * dy2;
+                if (a2 > 0) {
+                    value += (a2 * a2) * (a2 * a2) * grad(table, base - 1, dx2, dy2);
+                }
+            }
+            else
+            {
+                float dx2 = dx0 - (float)(UNSKEW_2D + 1);
+                float dy2 = dy0 - (float)UNSKEW_2D;
+                float a2 = RSQUARED_2D - dx2 * dx2 - dy2 * dy2;
+                if (a2 > 0) {
+                    value += (a2 * a2) * (a2 * a2) * grad(table, base + 1, dx2, dy2);
+                }
+            }
+
+            if (yi < xmyi) {
+                float dx2 = dx0 + (float)UNSKEW_2D;
+                float dy2 = dy0 + (float)(UNSKEW_2D + 1);
+                float a2 = RSQUARED_2D - dx2 * dx2 - dy2 * dy2;
+                if (a2 > 0) {
+                    value += (a2 * a2) * (a2 * a2) * grad(table, base - width, dx2, dy2);
+                }
+            }
+            else
+            {
+                float dx2 = dx0 - (float)UNSKEW_2D;
+                float dy2 = dy0 - (float)(UNSKEW_2D + 1);
+                float a2 = RSQUARED_2D - dx2 * dx2 - dy2 * dy2;
+                if (a2 > 0) {
+                    value += (a2 * a2) * (a2 * a2) * grad(table, base + width, dx2, dy2);
+                }
+            }
+        }
+
+        return value;
+    }
+
+    private static float noise3_UnrotatedBaseCached(int[] table, int[] table2, int minX, int minY, int minZ,
+                                                     int strideY, int strideZ, double xr, double yr, double zr) {
+
+        // Get base points and offsets.
+        int xrb = fastFloor(xr), yrb = fastFloor(yr), zrb = fastFloor(zr);
+        float xi = (float)(xr - xrb), yi = (float)(yr - yrb), zi = (float)(zr - zrb);
+
+        // Index of the base point in the gradient tables.
+        int base = (xrb - minX) + (yrb - minY) * strideY + (zrb - minZ) * strideZ;
+
+        // -1 if positive, 0 if negative.
+        int xNMask = (int)(-0.5f - xi), yNMask = (int)(-0.5f - yi), zNMask = (int)(-0.5f - zi);
+
+        // First vertex.
+        float x0 = xi + xNMask;
+        float y0 = yi + yNMask;
+        float z0 = zi + zNMask;
+        float a0 = RSQUARED_3D - x0 * x0 - y0 * y0 - z0 * z0;
+        float value = (a0 * a0) * (a0 * a0) * grad(table,
+            base + (xNMask & 1) + (yNMask & 1) * strideY + (zNMask & 1) * strideZ, x0, y0, z0);
+
+        // Second vertex.
+        float x1 = xi - 0.5f;
+        float y1 = yi - 0.5f;
+        float z1 = zi - 0.5f;
+        float a1 = RSQUARED_3D - x1 * x1 - y1 * y1 - z1 * z1;
+        value += (a1 * a1) * (a1 * a1) * grad(table2, base + 1 + strideY + strideZ, x1, y1, z1);
+
+        // Shortcuts for building the remaining falloffs.
+        // Derived by subtracting the polynomials with the offsets plugged in.
+        float xAFlipMask0 = ((xNMask | 1) << 1) * x1;
+        float yAFlipMask0 = ((yNMask | 1) << 1) * y1;
+        float zAFlipMask0 = ((zNMask | 1) << 1) * z1;
+        float xAFlipMask1 = (-2 - (xNMask << 2)) * x1 - 1.0f;
+        float yAFlipMask1 = (-2 - (yNMask << 2)) * y1 - 1.0f;
+        float zAFlipMask1 = (-2 - (zNMask << 2)) * z1 - 1.0f;
+
+        boolean skip5 = false;
+        float a2 = xAFlipMask0 + a0;
+        if (a2 > 0) {
+            float x2 = x0 - (xNMask | 1);
+            float y2 = y0;
+            float z2 = z0;
+            value += (a2 * a2) * (a2 * a2) * grad(table,
+                base + (~xNMask & 1) + (yNMask & 1) * strideY + (zNMask & 1) * strideZ, x2, y2, z2);
+        }
+        else
+        {
+            float a3 = yAFlipMask0 + zAFlipMask0 + a0;
+            if (a3 > 0) {
+                float x3 = x0;
+                float y3 = y0 - (yNMask | 1);
+                float z3 = z0 - (zNMask | 1);
+                value += (a3 * a3) * (a3 * a3) * grad(table,
+                    base + (xNMask & 1) + (~yNMask & 1) * strideY + (~zNMask & 1) * strideZ, x3, y3, z3);
+            }
+
+            float a4 = xAFlipMask1 + a1;
+            if (a4 > 0) {
+                float x4 = (xNMask | 1) + x1;
+                float y4 = y1;
+                float z4 = z1;
+                value += (a4 * a4) * (a4 * a4) * grad(table2, base + (xNMask & 2) + strideY + strideZ, x4, y4, z4);
+                skip5 = true;
+            }
+        }
+
+        boolean skip9 = false;
+        float a6 = yAFlipMask0 + a0;
+        if (a6 > 0) {
+            float x6 = x0;
+            float y6 = y0 - (yNMask | 1);
+            float z6 = z0;
+            value += (a6 * a6) * (a6 * a6) * grad(table,
+                base + (xNMask & 1) + (~yNMask & 1) * strideY + (zNMask & 1) * strideZ, x6, y6, z6);
+        }
+        else
+        {
+            float a7 = xAFlipMask0 + zAFlipMask0 + a0;
+            if (a7 > 0) {
+                float x7 = x0 - (xNMask | 1);
+                float y7 = y0;
+                float z7 = z0 - (zNMask | 1);
+                value += (a7 * a7) * (a7 * a7) * grad(table,
+                    base + (~xNMask & 1) + (yNMask & 1) * strideY + (~zNMask & 1) * strideZ, x7, y7, z7);
+            }
+
+            float a8 = yAFlipMask1 + a1;
+            if (a8 > 0) {
+                float x8 = x1;
+                float y8 = (yNMask | 1) + y1;
+                float z8 = z1;
+                value += (a8 * a8) * (a8 * a8) * grad(table2, base + 1 + (yNMask & 2) * strideY + strideZ, x8, y8, z8);
+                skip9 = true;
+            }
+        }
+
+        boolean skipD = false;
+        float aA = zAFlipMask0 + a0;
+        if (aA > 0) {
+            float xA = x0;
+            float yA = y0;
+            float zA = z0 - (zNMask | 1);
+            value += (aA * aA) * (aA * aA) * grad(table,
+                base + (xNMask & 1) + (yNMask & 1) * strideY + (~zNMask & 1) * strideZ, xA, yA, zA);
+        }
+        else
+        {
+            float aB = xAFlipMask0 + yAFlipMask0 + a0;
+            if (aB > 0) {
+                float xB = x0 - (xNMask | 1);
+                float yB = y0 - (yNMask | 1);
+                float zB = z0;
+                value += (aB * aB) * (aB * aB) * grad(table,
+                    base + (~xNMask & 1) + (~yNMask & 1) * strideY + (zNMask & 1) * strideZ, xB, yB, zB);
+            }
+
+            float aC = zAFlipMask1 + a1;
+            if (aC > 0) {
+                float xC = x1;
+                float yC = y1;
+                float zC = (zNMask | 1) + z1;
+                value += (aC * aC) * (aC * aC) * grad(table2, base + 1 + strideY + (zNMask & 2) * strideZ, xC, yC, zC);
+                skipD = true;
+            }
+        }
+
+        if (!skip5) {
+            float a5 = yAFlipMask1 + zAFlipMask1 + a1;
+            if (a5 > 0) {
+                float x5 = x1;
+                float y5 = (yNMask | 1) + y1;
+                float z5 = (zNMask | 1) + z1;
+                value += (a5 * a5) * (a5 * a5) * grad(table2,
+                    base + 1 + (yNMask & 2) * strideY + (zNMask & 2) * strideZ, x5, y5, z5);
+            }
+        }
+
+        if (!skip9) {
+            float a9 = xAFlipMask1 + zAFlipMask1 + a1;
+            if (a9 > 0) {
+                float x9 = (xNMask | 1) + x1;
+                float y9 = y1;
+                float z9 = (zNMask | 1) + z1;
+                value += (a9 * a9) * (a9 * a9) * grad(table2,
+                    base + (xNMask & 2) + strideY + (zNMask & 2) * strideZ, x9, y9, z9);
+            }
+        }
+
+        if (!skipD) {
+            float aD = xAFlipMask1 + yAFlipMask1 + a1;
+            if (aD > 0) {
+                float xD = (xNMask | 1) + x1;
+                float yD = (yNMask | 1) + y1;
+                float zD = z1;
+                value += (aD * aD) * (aD * aD) * grad(table2,
+                    base + (xNMask & 2) + (yNMask & 2) * strideY + strideZ, xD, yD, zD);
+            }
+        }
+
+        return value;
+    }
+
     /*
      * Utility
      */
@@ -567,6 +980,30 @@ public class OpenSimplex2S {
         return (GRADIENTS_4D[gi | 0] * dx + GRADIENTS_4D[gi | 1] * dy) + (GRADIENTS_4D[gi | 2] * dz + GRADIENTS_4D[gi | 3] * dw);
     }
 
+    private static int gradIndex(long seed, long xsvp, long ysvp) {
+        long hash = seed ^ xsvp ^ ysvp;
+        hash *= HASH_MULTIPLIER;
+        hash ^= hash >> (64 - N_GRADS_2D_EXPONENT + 1);
+        return (int)hash & ((N_GRADS_2D - 1) << 1);
+    }
+
+    private static int gradIndex(long seed, long xrvp, long yrvp, long zrvp) {
+        long hash = (seed ^ xrvp) ^ (yrvp ^ zrvp);
+        hash *= HASH_MULTIPLIER;
+        hash ^= hash >> (64 - N_GRADS_3D_EXPONENT + 2);
+        return (int)hash & ((N_GRADS_3D - 1) << 2);
+    }
+
+    private static float grad(int[] table, int index, float dx, float dy) {
+        int gi = table[index];
+        return GRADIENTS_2D[gi | 0] * dx + GRADIENTS_2D[gi | 1] * dy;
+    }
+
+    private static float grad(int[] table, int index, float dx, float dy, float dz) {
+        int gi = table[index];
+        return GRADIENTS_3D[gi | 0] * dx + GRADIENTS_3D[gi | 1] * dy + GRADIENTS_3D[gi | 2] * dz;
+    }
+
     private static int fastFloor(double x) {
         int xi = (int)x;
         return x < xi ? xi - 1 : xi;
@@ -0,0 +1,75 @@
+package io.github.illuminatijoe.cubegame.core.utils;
+
+import com.badlogic.gdx.math.Vector3;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread stack of reusable vectors for temporary math, so hot paths get working vectors without allocating.
+ * Vectors are taken between {@link #begin()} and {@link #end()}:
+ * <pre>
+ * Scratch scratch = Scratch.begin();
+ * try {
+ *     Vector3i pos = scratch.vec3i().set(x, y, z);
+ *     ...
+ * } finally {
+ *     scratch.end();
+ * }
+ * </pre>
+ * Everything taken since the matching begin is handed out again afterwards, so no reference may outlive it.
+ * Pairs can nest. The pool grows on demand and keeps its peak size.
+ */
+public final class Scratch {
+    private static final ThreadLocal<Scratch> LOCAL = ThreadLocal.withInitial(Scratch::new);
+    // Nesting deeper than this means an end() is missing
+    private static final int MAX_DEPTH = 32;
+
+    private Vector3i[] ints = new Vector3i[8];
+    private Vector3[] floats = new Vector3[8];
+    private int intCount;
+    private int floatCount;
+
+    // intCount and floatCount at each open begin()
+    private final int[] marks = new int[MAX_DEPTH * 2];
+    private int depth;
+
+    private Scratch() {
+    }
+
+    public static Scratch begin() {
+        Scratch scratch = LOCAL.get();
+        if (scratch.depth == MAX_DEPTH) throw new IllegalStateException("Scratch nested too deep, missing end()?");
+        scratch.marks[scratch.depth * 2] = scratch.intCount;
+        scratch.marks[scratch.depth * 2 + 1] = scratch.floatCount;
+        scratch.depth++;
+        return scratch;
+    }
+
+    // Returns everything taken since the matching begin() to the pool
+    public void end() {
+        if (depth == 0) throw new IllegalStateException("end() without begin()");
+        depth--;
+        intCount = marks[depth * 2];
+        floatCount = marks[depth * 2 + 1];
+    }
+
+    // Zeroed integer vector, valid until the matching end()
+    public Vector3i vec3i() {
+        if (depth == 0) throw new IllegalStateException("vec3i() outside begin()/end()");
+        if (intCount == ints.length) ints = Arrays.copyOf(ints, intCount * 2);
+        Vector3i vector = ints[intCount];
+        if (vector == null) ints[intCount] = vector = new Vector3i();
+        intCount++;
+        return vector.set(0, 0, 0);
+    }
+
+    // Zeroed float vector, valid until the matching end()
+    public Vector3 vec3() {
+        if (depth == 0) throw new IllegalStateException("vec3() outside begin()/end()");
+        if (floatCount == floats.length) floats = Arrays.copyOf(floats, floatCount * 2);
+        Vector3 vector = floats[floatCount];
+        if (vector == null) floats[floatCount] = vector = new Vector3();
+        floatCount++;
+        return vector.set(0f, 0f, 0f);
+    }
+}
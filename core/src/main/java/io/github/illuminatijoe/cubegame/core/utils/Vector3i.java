@@ -2,8 +2,10 @@ package io.github.illuminatijoe.cubegame.core.utils;
 
 import com.badlogic.gdx.math.Vector3;
 
-import java.util.Objects;
-
+/**
+ * Integer vector. The plain operations return new vectors; the {@code set} and {@code ...Local} variants
+ * change this one and return it, for hot paths that shouldn't allocate (see {@link Scratch}).
+ */
 public class Vector3i {
     public int x;
     public int y;
@@ -47,11 +49,68 @@ public class Vector3i {
         return new Vector3i(this.x / scalar, this.y / scalar, this.z / scalar);
     }
 
+    // In place operations
+    public Vector3i set(int x, int y, int z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    public Vector3i set(Vector3i other) {
+        return set(other.x, other.y, other.z);
+    }
+
+    // Components of a vector holding whole numbers, rounded down
+    public Vector3i set(Vector3 other) {
+        return set((int) Math.floor(other.x), (int) Math.floor(other.y), (int) Math.floor(other.z));
+    }
+
+    public Vector3i addLocal(int x, int y, int z) {
+        return set(this.x + x, this.y + y, this.z + z);
+    }
+
+    public Vector3i addLocal(Vector3i other) {
+        return addLocal(other.x, other.y, other.z);
+    }
+
+    public Vector3i subLocal(Vector3i other) {
+        return set(x - other.x, y - other.y, z - other.z);
+    }
+
+    public Vector3i sclLocal(int scale) {
+        return set(x * scale, y * scale, z * scale);
+    }
+
+    public Vector3i mulLocal(int scalar) {
+        return sclLocal(scalar);
+    }
+
+    public Vector3i divLocal(int scalar) {
+        return set(x / scalar, y / scalar, z / scalar);
+    }
+
+    // Rounds towards negative infinity, e.g. block to chunk coordinates
+    public Vector3i floorDivLocal(int scalar) {
+        return set(Math.floorDiv(x, scalar), Math.floorDiv(y, scalar), Math.floorDiv(z, scalar));
+    }
+
+    public Vector3i floorModLocal(int scalar) {
+        return set(Math.floorMod(x, scalar), Math.floorMod(y, scalar), Math.floorMod(z, scalar));
+    }
+
     // Length (magnitude) and distance
     public double len() {
         return Math.sqrt(x * x + y * y + z * z);
     }
 
+    public int dst2(Vector3i other) {
+        int dx = other.x - this.x;
+        int dy = other.y - this.y;
+        int dz = other.z - this.z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
     public double dst(Vector3i other) {
         int dx = other.x - this.x;
         int dy = other.y - this.y;
@@ -74,7 +133,8 @@ public class Vector3i {
 
     @Override
     public int hashCode() {
-        return Objects.hash(x, y, z);
+        // Same as Objects.hash(x, y, z) without the varargs array
+        return (31 * (31 * (31 + x) + y)) + z;
     }
 
     @Override
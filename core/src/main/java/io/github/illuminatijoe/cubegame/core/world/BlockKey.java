@@ -0,0 +1,65 @@
+package io.github.illuminatijoe.cubegame.core.world;
+
+import io.github.illuminatijoe.cubegame.core.utils.Vector3i;
+
+/**
+ * World block coordinates packed into a long, in the same layout as {@link ChunkKey}: x and z in 26 bits,
+ * y in 12. Covers x and z within +-33 million blocks and y within +-2048, the world's full height.
+ */
+public final class BlockKey {
+    private static final int CHUNK_SHIFT = Integer.numberOfTrailingZeros(ChunkStorage.SIZE);
+    private static final int LOCAL_MASK = ChunkStorage.SIZE - 1;
+
+    private BlockKey() {
+    }
+
+    public static long of(int x, int y, int z) {
+        return ChunkKey.of(x, y, z);
+    }
+
+    public static long of(Vector3i pos) {
+        return of(pos.x, pos.y, pos.z);
+    }
+
+    public static int x(long key) {
+        return ChunkKey.x(key);
+    }
+
+    public static int y(long key) {
+        return ChunkKey.y(key);
+    }
+
+    public static int z(long key) {
+        return ChunkKey.z(key);
+    }
+
+    public static Vector3i unpack(long key, Vector3i out) {
+        return out.set(x(key), y(key), z(key));
+    }
+
+    public static long offset(long key, int dx, int dy, int dz) {
+        return of(x(key) + dx, y(key) + dy, z(key) + dz);
+    }
+
+    /**
+     * Amount to add to a key to move it by (dx, dy, dz), a cheaper {@link #offset} for steps that stay
+     * inside the block's chunk. Fields only wrap between chunk -1 and chunk 0, so such steps never carry.
+     */
+    public static long delta(int dx, int dy, int dz) {
+        return ((long) dx << 38) + ((long) dz << 12) + dy;
+    }
+
+    // Key of the chunk holding the block, arithmetic shifts round towards negative infinity
+    public static long toChunkKey(long key) {
+        return ChunkKey.of(x(key) >> CHUNK_SHIFT, y(key) >> CHUNK_SHIFT, z(key) >> CHUNK_SHIFT);
+    }
+
+    // Index of the block within its chunk's storage
+    public static int toLocalIndex(long key) {
+        return ChunkStorage.index(x(key) & LOCAL_MASK, y(key) & LOCAL_MASK, z(key) & LOCAL_MASK);
+    }
+
+    public static String toString(long key) {
+        return ChunkKey.toString(key);
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.illuminatijoe.cubegame.core.world;
+
+import com.badlogic.gdx.math.Vector3;
+import io.github.illuminatijoe.cubegame.core.utils.Vector3i;
+
+/**
+ * Chunk coordinates packed into a long: x and z in 26 bits each, y in 12, all two's complement.
+ * {@link BlockKey} packs block coordinates the same way.
+ * Covers x and z within +-33 million chunks and y within +-2048, well past the world's bounds.
+ */
+public final class ChunkKey {
+    private ChunkKey() {
+    }
+
+    public static long of(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (y & 0xFFF);
+    }
+
+    // Chunk coordinates of a position holding whole numbers, like Chunk.getChunkPos()
+    public static long of(Vector3 pos) {
+        return of((int) pos.x, (int) pos.y, (int) pos.z);
+    }
+
+    public static int x(long key) {
+        return (int) (key >> 38);
+    }
+
+    public static int y(long key) {
+        return (int) (key << 52 >> 52);
+    }
+
+    public static int z(long key) {
+        return (int) (key << 26 >> 38);
+    }
+
+    public static Vector3i unpack(long key, Vector3i out) {
+        return out.set(x(key), y(key), z(key));
+    }
+
+    // Key of the chunk dx, dy, dz chunks away
+    public static long offset(long key, int dx, int dy, int dz) {
+        return of(x(key) + dx, y(key) + dy, z(key) + dz);
+    }
+
+    public static String toString(long key) {
+        return "(" + x(key) + ", " + y(key) + ", " + z(key) + ")";
+    }
+}
@@ -0,0 +1,206 @@
+package io.github.illuminatijoe.cubegame.core.world;
+
+import com.badlogic.gdx.math.Vector3;
+import io.github.illuminatijoe.cubegame.core.utils.LongObjectMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Streams chunks in and out around the player.
+ * <p>
+ * Missing chunks within the render distance are requested nearest first, with a bias towards the
+ * view direction among chunks at similar distance. Chunks are unloaded once they leave the render
+ * distance plus {@link #UNLOAD_MARGIN}, so moving back and forth across a chunk border doesn't
+ * reload anything. Loads and unloads are capped per tick to keep frame times even.
+ */
+public class ChunkManager {
+    public static final int VERTICAL_DISTANCE = 4;
+    public static final int UNLOAD_MARGIN = 2;
+    public static final int MAX_LOADS_PER_TICK = 32;
+    public static final int MAX_UNLOADS_PER_TICK = 32;
+    public static final int MAX_PENDING = 256;
+
+    // How many chunks of distance looking straight at a chunk is worth
+    private static final float VIEW_BIAS = 2f;
+
+    private final World world;
+    private final ChunkPipeline pipeline;
+
+    private int renderDistance = -1;
+    // dx, dy, dz triples of every chunk in range, nearest first
+    private int[] offsets = new int[0];
+
+    private final Vector3 center = new Vector3(Float.NaN, Float.NaN, Float.NaN);
+    private boolean loadComplete;
+    private boolean unloadNeeded;
+
+    private long[] removals = new long[MAX_UNLOADS_PER_TICK];
+    private int removalCount;
+    // Collects queued chunks that left the range, kept in a field so unloading doesn't allocate
+    private final LongConsumer removeIfDistant = key -> {
+        if (!inRange(key, renderDistance + UNLOAD_MARGIN, VERTICAL_DISTANCE + UNLOAD_MARGIN)) addRemoval(key);
+    };
+    private int[] candidates = new int[MAX_LOADS_PER_TICK * 4];
+    private float[] scores = new float[MAX_LOADS_PER_TICK * 4];
+
+    private long evictedCount;
+    private long cancelledCount;
+
+    public ChunkManager(World world, ChunkPipeline pipeline) {
+        this.world = world;
+        this.pipeline = pipeline;
+    }
+
+    public void update(Vector3 playerChunk, Vector3 viewDirection, int renderDistance) {
+        if (renderDistance != this.renderDistance) {
+            this.renderDistance = renderDistance;
+            offsets = buildOffsets(renderDistance);
+            loadComplete = false;
+            unloadNeeded = true;
+        }
+        if (!center.equals(playerChunk)) {
+            center.set(playerChunk);
+            loadComplete = false;
+            unloadNeeded = true;
+        }
+
+        if (unloadNeeded) unloadDistant();
+        if (!loadComplete) loadMissing(viewDirection);
+    }
+
+    private void unloadDistant() {
+        int keep = renderDistance + UNLOAD_MARGIN;
+        int keepVertical = VERTICAL_DISTANCE + UNLOAD_MARGIN;
+
+        pipeline.forEachPending(removeIfDistant);
+        for (int i = 0; i < removalCount; i++) {
+            pipeline.cancel(removals[i]);
+            cancelledCount++;
+        }
+        removalCount = 0;
+
+        LongObjectMap<Chunk> chunks = world.getChunkMap();
+        for (int i = 0; i < chunks.capacity() && removalCount < MAX_UNLOADS_PER_TICK; i++) {
+            if (chunks.valueAt(i) != null && !inRange(chunks.keyAt(i), keep, keepVertical)) addRemoval(chunks.keyAt(i));
+        }
+        for (int i = 0; i < removalCount; i++) {
+            world.removeChunk(removals[i]);
+            evictedCount++;
+        }
+        // Hitting the cap means there may be more to unload next tick
+        unloadNeeded = removalCount == MAX_UNLOADS_PER_TICK;
+        removalCount = 0;
+    }
+
+    private void addRemoval(long key) {
+        if (removalCount == removals.length) removals = Arrays.copyOf(removals, removalCount * 2);
+        removals[removalCount++] = key;
+    }
+
+    private void loadMissing(Vector3 viewDirection) {
+        int budget = Math.min(MAX_LOADS_PER_TICK, MAX_PENDING - pipeline.getPendingCount());
+        if (budget <= 0) return;
+
+        // Collect a few times more candidates than we can load, in distance order
+        int maxCandidates = candidates.length;
+        int count = 0;
+        for (int i = 0; i < offsets.length && count < maxCandidates; i += 3) {
+            int y = (int) center.y + offsets[i + 1];
+            if (y < World.MIN_CHUNK_Y || y > World.MAX_CHUNK_Y) continue;
+
+            long key = ChunkKey.of((int) center.x + offsets[i], y, (int) center.z + offsets[i + 2]);
+            if (world.getChunkMap().containsKey(key) || pipeline.isPending(key)) continue;
+
+            candidates[count] = i;
+            scores[count] = score(offsets[i], offsets[i + 1], offsets[i + 2], viewDirection);
+            count++;
+        }
+
+        if (count == 0) {
+            // Keep scanning while requests are in flight: one that fails leaves its chunk missing again
+            loadComplete = pipeline.getPendingCount() == 0;
+            return;
+        }
+
+        sortCandidates(count);
+        for (int c = 0; c < Math.min(budget, count); c++) {
+            int i = candidates[c];
+            pipeline.request(ChunkKey.of((int) center.x + offsets[i], (int) center.y + offsets[i + 1], (int) center.z + offsets[i + 2]));
+        }
+    }
+
+    private static float score(int dx, int dy, int dz, Vector3 viewDirection) {
+        float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (distance == 0f) return 0f;
+
+        float facing = (dx * viewDirection.x + dy * viewDirection.y + dz * viewDirection.z) / distance;
+        return distance - VIEW_BIAS * facing;
+    }
+
+    // Insertion sort by score, candidate lists are short
+    private void sortCandidates(int count) {
+        for (int a = 1; a < count; a++) {
+            int candidate = candidates[a];
+            float score = scores[a];
+            int b = a - 1;
+            while (b >= 0 && scores[b] > score) {
+                candidates[b + 1] = candidates[b];
+                scores[b + 1] = scores[b];
+                b--;
+            }
+            candidates[b + 1] = candidate;
+            scores[b + 1] = score;
+        }
+    }
+
+    private boolean inRange(long key, int horizontal, int vertical) {
+        float dx = ChunkKey.x(key) - center.x;
+        float dz = ChunkKey.z(key) - center.z;
+        return dx * dx + dz * dz <= horizontal * horizontal && Math.abs(ChunkKey.y(key) - center.y) <= vertical;
+    }
+
+    private static int[] buildOffsets(int distance) {
+        List<int[]> list = new ArrayList<>();
+        for (int dx = -distance; dx <= distance; dx++) {
+            for (int dz = -distance; dz <= distance; dz++) {
+                if (dx * dx + dz * dz > distance * distance) continue;
+                for (int dy = -VERTICAL_DISTANCE; dy <= VERTICAL_DISTANCE; dy++) {
+                    list.add(new int[] { dx, dy, dz });
+                }
+            }
+        }
+        list.sort((a, b) -> Integer.compare(
+            a[0] * a[0] + a[1] * a[1] + a[2] * a[2],
+            b[0] * b[0] + b[1] * b[1] + b[2] * b[2]));
+
+        int[] result = new int[list.size() * 3];
+        for (int i = 0; i < list.size(); i++) {
+            System.arraycopy(list.get(i), 0, result, i * 3, 3);
+        }
+        return result;
+    }
+
+    // Whether everything within range of the last update is loaded and nothing is left in the pipeline
+    public boolean isIdle() {
+        return loadComplete && pipeline.getPendingCount() == 0;
+    }
+
+    public int getLoadedCount() {
+        return world.getChunkMap().size();
+    }
+
+    public int getPendingCount() {
+        return pipeline.getPendingCount();
+    }
+
+    public long getEvictedCount() {
+        return evictedCount;
+    }
+
+    public long getCancelledCount() {
+        return cancelledCount;
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.illuminatijoe.cubegame.core.world;
+
+import io.github.illuminatijoe.cubegame.core.world.mesh.MeshData;
+
+/**
+ * Receives finished chunk meshes on the thread calling {@link World#update}, which for a rendered
+ * world is the GL thread. A world created without an uploader is headless and skips meshing entirely.
+ */
+public interface ChunkMeshUploader {
+    // Replaces the mesh of chunk; data is empty for a chunk without visible faces and is reused after the call
+    void upload(Chunk chunk, MeshData data);
+
+    // Frees whatever was uploaded for chunk, called when it leaves the world
+    void release(Chunk chunk);
+}
@@ -0,0 +1,305 @@
+package io.github.illuminatijoe.cubegame.core.world;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.Vector3;
+import io.github.illuminatijoe.cubegame.core.utils.ConcurrentLongObjectMap;
+import io.github.illuminatijoe.cubegame.core.utils.Scratch;
+import io.github.illuminatijoe.cubegame.core.world.io.ChunkSaveService;
+import io.github.illuminatijoe.cubegame.core.world.light.ChunkLight;
+import io.github.illuminatijoe.cubegame.core.world.mesh.ChunkMesher;
+import io.github.illuminatijoe.cubegame.core.world.mesh.ChunkNeighbors;
+import io.github.illuminatijoe.cubegame.core.world.mesh.MeshData;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+/**
+ * Loads or generates chunks and builds chunk meshes on a fixed pool of worker threads. Finished jobs wait
+ * in a queue until {@link #uploadPending(long)} hands new chunks to the world and meshes to the world's
+ * {@link ChunkMeshUploader} on the render thread, bounded by a time budget per call.
+ * <p>
+ * New chunks are not meshed here: a mesh bakes in light, which the world only computes once the chunk has
+ * joined it, so the world remeshes it right after. A headless world never meshes at all.
+ * <p>
+ * Workers never touch the world: for remeshes, the chunk's blocks and light and its neighbour borders are
+ * copied on the render thread when the job is queued. A chunk has at most one remesh waiting for a worker;
+ * remeshing it again replaces that job's copy instead of queueing another, and removing the chunk cancels it.
+ */
+public class ChunkPipeline {
+    // Bit per Direction ordinal for all six sides
+    private static final int ALL_NEIGHBORS = (1 << 6) - 1;
+
+    private final World world;
+    private final ExecutorService executor;
+
+    // Chunks being loaded or generated by ChunkKey
+    private final ConcurrentLongObjectMap<Request> pending = new ConcurrentLongObjectMap<>(ChunkManager.MAX_PENDING);
+    // Remeshes no worker has started yet by ChunkKey
+    private final ConcurrentLongObjectMap<Request> remeshes = new ConcurrentLongObjectMap<>();
+    private final Queue<Request> finished = new ConcurrentLinkedQueue<>();
+    private final Queue<MeshData> meshPool = new ConcurrentLinkedQueue<>();
+    // Uploaded for chunks without any blocks, which need no worker
+    private final MeshData emptyMesh = new MeshData(4);
+
+    private final ThreadLocal<ChunkMesher> mesher = ThreadLocal.withInitial(ChunkMesher::new);
+
+    public ChunkPipeline(World world) {
+        this(world, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    public ChunkPipeline(World world, int threads) {
+        this.world = world;
+        this.executor = Executors.newFixedThreadPool(threads, new WorkerFactory());
+    }
+
+    // Queues loading or generation of the chunk at key, unless it is already queued
+    public void request(long key) {
+        if (pending.containsKey(key)) return;
+
+        Request request = new Request(key, null);
+        pending.put(key, request);
+        request.future = executor.submit(() -> process(request));
+    }
+
+    // Rebuilds the mesh of a loaded chunk from a copy of its current blocks and light, at its level of detail
+    public void remesh(Chunk chunk) {
+        if (world.isHeadless()) return;
+
+        int version = ++chunk.meshVersion;
+        if (chunk.getStorage().isEmpty()) {
+            // Nothing to build whatever the neighbours hold
+            cancelRemesh(chunk.getKey());
+            world.getMeshUploader().upload(chunk, emptyMesh);
+            chunk.meshedNeighbors = ALL_NEIGHBORS;
+            return;
+        }
+
+        // A job still waiting for a worker takes the newer copy instead
+        Request queued = remeshes.get(chunk.getKey());
+        if (queued != null && queued.target == chunk) {
+            synchronized (queued) {
+                if (!queued.started && !queued.cancelled) {
+                    snapshot(queued, chunk, version);
+                    return;
+                }
+            }
+        }
+
+        Request request = new Request(chunk.getKey(), chunk);
+        snapshot(request, chunk, version);
+        remeshes.put(chunk.getKey(), request);
+        request.future = executor.submit(() -> process(request));
+    }
+
+    private void snapshot(Request request, Chunk chunk, int version) {
+        request.storage = chunk.getStorage().copy();
+        request.light = chunk.getLight().copy();
+        request.version = version;
+        request.lod = chunk.lod;
+        world.captureNeighbors(chunk.getKey(), chunk.lod, request.neighbors);
+    }
+
+    // Drops the remesh of the chunk at key that no worker has started yet, with its copies
+    public void cancelRemesh(long key) {
+        Request request = remeshes.remove(key);
+        if (request == null) return;
+
+        synchronized (request) {
+            request.cancelled = true;
+            // A worker that already took the copies still needs them
+            if (!request.started) {
+                request.storage = null;
+                request.light = null;
+            }
+        }
+        if (request.future != null) request.future.cancel(false);
+    }
+
+    // Remeshes queued and not yet started by a worker
+    public int getQueuedRemeshCount() {
+        return remeshes.size();
+    }
+
+    // Drops a queued chunk; its result is discarded even if the worker already finished it
+    public void cancel(long key) {
+        Request request = pending.remove(key);
+        if (request == null) return;
+
+        request.cancelled = true;
+        if (request.future != null) request.future.cancel(false);
+    }
+
+    public boolean isPending(long key) {
+        return pending.containsKey(key);
+    }
+
+    // Passes the key of every queued chunk to action, which must not request or cancel chunks
+    public void forEachPending(LongConsumer action) {
+        pending.forEach((key, request) -> action.accept(key));
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Uploads finished chunks until the budget runs out and hands new ones to the world.
+     * At least one chunk is uploaded per call so loading always makes progress.
+     *
+     * @return number of chunks uploaded
+     */
+    public int uploadPending(long budgetNanos) {
+        long start = System.nanoTime();
+        int uploaded = 0;
+
+        Request request;
+        while ((request = finished.poll()) != null) {
+            if (request.target != null) {
+                if (applyRemesh(request)) uploaded++;
+            } else if (!request.cancelled && pending.remove(request.key, request)) {
+                world.addChunk(request.chunk);
+                uploaded++;
+            }
+            releaseMesh(request);
+
+            if (System.nanoTime() - start >= budgetNanos) break;
+        }
+        return uploaded;
+    }
+
+    private boolean applyRemesh(Request request) {
+        Chunk chunk = request.target;
+        // Unloaded meanwhile, or a newer remesh is on its way
+        if (world.getChunk(chunk.getKey()) != chunk || chunk.meshVersion != request.version) {
+            return false;
+        }
+        setMesh(chunk, request);
+        return true;
+    }
+
+    private void setMesh(Chunk chunk, Request request) {
+        ChunkMeshUploader uploader = world.getMeshUploader();
+        if (uploader != null) uploader.upload(chunk, request.mesh);
+        chunk.meshedNeighbors = request.neighbors.getPresentMask();
+    }
+
+    public void dispose() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pending.clear();
+        remeshes.clear();
+        finished.clear();
+    }
+
+    private void process(Request request) {
+        try {
+            if (request.cancelled) return;
+            if (request.target == null) {
+                request.chunk = loadOrGenerate(request.key);
+            } else {
+                // From here the copy is this worker's, a later remesh queues a new job
+                ChunkStorage storage;
+                ChunkLight light;
+                int lod;
+                synchronized (request) {
+                    if (request.cancelled) return;
+                    request.started = true;
+                    storage = request.storage;
+                    light = request.light;
+                    lod = request.lod;
+                }
+                remeshes.remove(request.key, request);
+
+                MeshData mesh = meshPool.poll();
+                if (mesh == null) mesh = new MeshData();
+                // Held by the request before meshing so a failure still returns it to the pool
+                request.mesh = mesh;
+                mesher.get().mesh(storage, light, request.neighbors, lod, mesh);
+            }
+            finished.add(request);
+        } catch (Throwable t) {
+            if (request.target == null) pending.remove(request.key, request);
+            releaseMesh(request);
+            Gdx.app.error("ChunkPipeline", "Failed to build chunk at " + ChunkKey.toString(request.key), t);
+        }
+    }
+
+    // Saved copy of the chunk at key if there is one, otherwise newly generated terrain
+    private Chunk loadOrGenerate(long key) {
+        Scratch scratch = Scratch.begin();
+        try {
+            // Chunk copies its position
+            Vector3 pos = scratch.vec3().set(ChunkKey.x(key), ChunkKey.y(key), ChunkKey.z(key));
+            ChunkSaveService saveService = world.getSaveService();
+            if (saveService != null) {
+                try {
+                    ChunkStorage saved = saveService.load(ChunkKey.x(key), ChunkKey.y(key), ChunkKey.z(key));
+                    if (saved != null) return new Chunk(pos, saved);
+                } catch (IOException e) {
+                    Gdx.app.error("ChunkPipeline", "Failed to load chunk at " + ChunkKey.toString(key) + ", regenerating it", e);
+                }
+            }
+            return new Chunk(pos);
+        } finally {
+            scratch.end();
+        }
+    }
+
+    private void releaseMesh(Request request) {
+        if (request.mesh != null) {
+            meshPool.add(request.mesh);
+            request.mesh = null;
+        }
+        request.chunk = null;
+        request.storage = null;
+        request.light = null;
+    }
+
+    private static class Request {
+        final long key;
+        // Loaded chunk being remeshed, null when generating a new one
+        final Chunk target;
+        // Borders captured for a remesh, null for new chunks
+        final ChunkNeighbors neighbors;
+        volatile boolean cancelled;
+        volatile Future<?> future;
+        // Remeshes: set by the worker taking the copy, guarded by the request's monitor
+        boolean started;
+        ChunkStorage storage;
+        ChunkLight light;
+        int version;
+        int lod;
+        Chunk chunk;
+        MeshData mesh;
+
+        Request(long key, Chunk target) {
+            this.key = key;
+            this.target = target;
+            this.neighbors = target == null ? null : new ChunkNeighbors();
+        }
+    }
+
+    private static class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "chunk-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package io.github.illuminatijoe.cubegame.core.world;
+
+import io.github.illuminatijoe.cubegame.core.Constants;
+import io.github.illuminatijoe.cubegame.core.world.block.BlockRegistry;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Paletted block ids of a single chunk, indexed by {@code x + z * 16 + y * 256}. Id 0 is air.
+ * <p>
+ * Uniform chunks keep a single value and no array at all. Otherwise entries are indices into a
+ * local palette, packed into a {@code long[]} with 1-8 bits each (entries never span two longs).
+ * Past 256 distinct ids the storage falls back to a flat {@code char[]} of global ids.
+ * The representation grows automatically when a new id is set, and {@link #compact()} shrinks it again.
+ */
+public class ChunkStorage {
+    public static final int SIZE = Constants.CHUNK_SIZE;
+    public static final int AREA = SIZE * SIZE;
+    public static final int VOLUME = AREA * SIZE;
+
+    // Largest output of write, direct ids
+    public static final int MAX_SERIALIZED_SIZE = 3 + VOLUME * 2;
+
+    // Id of BlockRegistry.AIR
+    public static final char AIR = 0;
+
+    private static final int MAX_PALETTE_BITS = 8;
+    // Index strides of the x, y and z axes
+    private static final int[] STRIDE = { 1, AREA, SIZE };
+
+    // 0 = single value, 1..8 = packed palette indices, 16 = direct global ids
+    private int bits;
+    private char[] palette;
+    private int paletteSize;
+    private long[] data;
+    private char[] direct;
+
+    private int entriesPerLong;
+    private long entryMask;
+
+    private int nonAirCount;
+
+    public ChunkStorage() {
+        this(AIR);
+    }
+
+    public ChunkStorage(char value) {
+        fill(value);
+    }
+
+    // Storage holding a copy of ids (VOLUME entries in index order), packed as tightly as possible
+    public static ChunkStorage of(char[] ids) {
+        char[] used = new char[(1 << MAX_PALETTE_BITS) + 1];
+        int usedCount = 0;
+        int count = 0;
+        int last = -1;
+        for (int i = 0; i < VOLUME; i++) {
+            char id = ids[i];
+            if (id != AIR) count++;
+            if (id == last || usedCount > 1 << MAX_PALETTE_BITS) continue;
+            last = id;
+            boolean found = false;
+            for (int j = 0; j < usedCount; j++) {
+                if (used[j] == id) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) used[usedCount++] = id;
+        }
+
+        ChunkStorage storage = new ChunkStorage(used[0]);
+        if (usedCount == 1) return storage;
+        storage.resize(bitsFor(usedCount), Arrays.copyOf(used, usedCount), usedCount, Arrays.copyOf(ids, VOLUME));
+        storage.nonAirCount = count;
+        return storage;
+    }
+
+    public static int index(int x, int y, int z) {
+        return x + z * SIZE + y * AREA;
+    }
+
+    public static boolean inBounds(int x, int y, int z) {
+        return x >= 0 && x < SIZE && y >= 0 && y < SIZE && z >= 0 && z < SIZE;
+    }
+
+    public char getBlock(int x, int y, int z) {
+        return get(index(x, y, z));
+    }
+
+    public char get(int index) {
+        if (bits == 0) return palette[0];
+        if (direct != null) return direct[index];
+
+        long word = data[index / entriesPerLong];
+        int shift = (index % entriesPerLong) * bits;
+        return palette[(int) ((word >>> shift) & entryMask)];
+    }
+
+    public void setBlock(int x, int y, int z, char id) {
+        set(index(x, y, z), id);
+    }
+
+    public void set(int index, char id) {
+        char old = get(index);
+        if (old == id) return;
+
+        if (old == AIR) nonAirCount++;
+        else if (id == AIR) nonAirCount--;
+
+        if (direct != null) {
+            direct[index] = id;
+            return;
+        }
+
+        int paletteIndex = paletteIndexOf(id);
+        if (paletteIndex < 0) {
+            paletteIndex = addToPalette(id);
+            if (direct != null) {
+                direct[index] = id;
+                return;
+            }
+        }
+        write(index, paletteIndex);
+    }
+
+    // Out of bounds counts as air
+    public boolean isSolid(int x, int y, int z) {
+        return inBounds(x, y, z) && BlockRegistry.isSolid(getBlock(x, y, z));
+    }
+
+    public boolean isEmpty() {
+        return nonAirCount == 0;
+    }
+
+    public boolean isUniform() {
+        return bits == 0;
+    }
+
+    public int getNonAirCount() {
+        return nonAirCount;
+    }
+
+    public int getBitsPerEntry() {
+        return bits;
+    }
+
+    public void fill(char id) {
+        bits = 0;
+        palette = new char[] { id };
+        paletteSize = 1;
+        data = null;
+        direct = null;
+        nonAirCount = id == AIR ? 0 : VOLUME;
+    }
+
+    // Unpacks every id into out, which must hold at least VOLUME entries
+    public void copyTo(char[] out) {
+        if (bits == 0) {
+            Arrays.fill(out, 0, VOLUME, palette[0]);
+        } else if (direct != null) {
+            System.arraycopy(direct, 0, out, 0, VOLUME);
+        } else {
+            int index = 0;
+            for (long word : data) {
+                for (int i = 0; i < entriesPerLong && index < VOLUME; i++, index++) {
+                    out[index] = palette[(int) ((word >>> (i * bits)) & entryMask)];
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the slice at {@code layer} along {@code axis} (0 = X, 1 = Y, 2 = Z) into out,
+     * indexed {@code i + j * SIZE} with i along axis + 1 and j along axis + 2 (mod 3), as the mesher does.
+     */
+    public void copySlice(int axis, int layer, char[] out) {
+        copySlice(axis, layer, out, 0);
+    }
+
+    // Like copySlice(axis, layer, out), writing from out[offset]
+    public void copySlice(int axis, int layer, char[] out, int offset) {
+        if (bits == 0) {
+            Arrays.fill(out, offset, offset + AREA, palette[0]);
+            return;
+        }
+
+        int uStride = STRIDE[(axis + 1) % 3];
+        int vStride = STRIDE[(axis + 2) % 3];
+        int base = layer * STRIDE[axis];
+        for (int j = 0, n = offset; j < SIZE; j++) {
+            for (int i = 0; i < SIZE; i++, n++) {
+                out[n] = get(base + i * uStride + j * vStride);
+            }
+        }
+    }
+
+    // Whether every block of the slice at layer along axis is opaque, i.e. hides what is behind it
+    public boolean isSliceOpaque(int axis, int layer) {
+        if (bits == 0) return BlockRegistry.isOpaque(palette[0]);
+
+        int uStride = STRIDE[(axis + 1) % 3];
+        int vStride = STRIDE[(axis + 2) % 3];
+        int base = layer * STRIDE[axis];
+        for (int j = 0; j < SIZE; j++) {
+            for (int i = 0; i < SIZE; i++) {
+                if (!BlockRegistry.isOpaque(get(base + i * uStride + j * vStride))) return false;
+            }
+        }
+        return true;
+    }
+
+    public ChunkStorage copy() {
+        ChunkStorage copy = new ChunkStorage();
+        copy.bits = bits;
+        copy.palette = palette.clone();
+        copy.paletteSize = paletteSize;
+        copy.data = data == null ? null : data.clone();
+        copy.direct = direct == null ? null : direct.clone();
+        copy.entriesPerLong = entriesPerLong;
+        copy.entryMask = entryMask;
+        copy.nonAirCount = nonAirCount;
+        return copy;
+    }
+
+    /**
+     * Rebuilds the palette from the ids actually in use, dropping back to single value mode
+     * or fewer bits per entry where possible.
+     */
+    public void compact() {
+        if (bits == 0) return;
+
+        char[] ids = new char[VOLUME];
+        copyTo(ids);
+
+        char[] used = new char[direct != null ? VOLUME : paletteSize];
+        int usedCount = 0;
+        for (char id : ids) {
+            boolean found = false;
+            for (int i = 0; i < usedCount; i++) {
+                if (used[i] == id) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) used[usedCount++] = id;
+        }
+
+        if (usedCount == 1) {
+            fill(used[0]);
+            return;
+        }
+        if (usedCount == paletteSize && direct == null) return;
+
+        int count = nonAirCount;
+        fill(used[0]);
+        resize(bitsFor(usedCount), Arrays.copyOf(used, usedCount), usedCount, ids);
+        nonAirCount = count;
+    }
+
+    // Size in bytes of the output of write
+    public int getSerializedSize() {
+        int bytes = 1 + 2;
+        if (bits == 0) return bytes + 2;
+        if (direct != null) return bytes + VOLUME * 2;
+        return bytes + 2 + paletteSize * 2 + data.length * 8;
+    }
+
+    /**
+     * Writes the storage as it is laid out in memory: bits per entry, non-air count, then the single value,
+     * the palette and packed entries, or the direct ids. Call {@link #compact()} first for the smallest output.
+     */
+    public void write(ByteBuffer out) {
+        out.put((byte) bits);
+        out.putChar((char) nonAirCount);
+        if (bits == 0) {
+            out.putChar(palette[0]);
+        } else if (direct != null) {
+            for (char id : direct) out.putChar(id);
+        } else {
+            out.putChar((char) paletteSize);
+            for (int i = 0; i < paletteSize; i++) out.putChar(palette[i]);
+            for (long word : data) out.putLong(word);
+        }
+    }
+
+    /**
+     * Reads storage written by {@link #write(ByteBuffer)}.
+     *
+     * @throws IllegalArgumentException if the data is malformed
+     */
+    public static ChunkStorage read(ByteBuffer in) {
+        int bits = in.get();
+        int count = in.getChar();
+        if (count > VOLUME) throw new IllegalArgumentException("Bad non-air count " + count);
+
+        ChunkStorage storage = new ChunkStorage();
+        if (bits == 0) {
+            storage.fill(in.getChar());
+            return storage;
+        }
+
+        if (bits == 16) {
+            char[] ids = new char[VOLUME];
+            for (int i = 0; i < VOLUME; i++) ids[i] = in.getChar();
+            storage.bits = 16;
+            storage.direct = ids;
+        } else if (bits >= 1 && bits <= MAX_PALETTE_BITS) {
+            int size = in.getChar();
+            if (size < 1 || size > (1 << bits)) throw new IllegalArgumentException("Bad palette size " + size);
+
+            storage.bits = bits;
+            storage.entriesPerLong = 64 / bits;
+            storage.entryMask = (1L << bits) - 1;
+            storage.palette = new char[1 << bits];
+            for (int i = 0; i < size; i++) storage.palette[i] = in.getChar();
+            storage.paletteSize = size;
+            storage.data = new long[(VOLUME + storage.entriesPerLong - 1) / storage.entriesPerLong];
+            for (int i = 0; i < storage.data.length; i++) storage.data[i] = in.getLong();
+        } else {
+            throw new IllegalArgumentException("Bad bits per entry " + bits);
+        }
+        storage.nonAirCount = count;
+        return storage;
+    }
+
+    public long getMemoryUsage() {
+        long bytes = 48L + 16L + palette.length * 2L;
+        if (data != null) bytes += 16L + data.length * 8L;
+        if (direct != null) bytes += 16L + direct.length * 2L;
+        return bytes;
+    }
+
+    private int paletteIndexOf(char id) {
+        for (int i = 0; i < paletteSize; i++) {
+            if (palette[i] == id) return i;
+        }
+        return -1;
+    }
+
+    private int addToPalette(char id) {
+        if (paletteSize < (1 << bits)) {
+            palette[paletteSize] = id;
+            return paletteSize++;
+        }
+
+        char[] ids = new char[VOLUME];
+        copyTo(ids);
+
+        int newSize = paletteSize + 1;
+        char[] newPalette = Arrays.copyOf(palette, newSize);
+        newPalette[paletteSize] = id;
+        resize(bitsFor(newSize), newPalette, newSize, ids);
+        return newSize - 1;
+    }
+
+    private void resize(int newBits, char[] newPalette, int newSize, char[] ids) {
+        if (newBits > MAX_PALETTE_BITS) {
+            bits = 16;
+            direct = ids;
+            data = null;
+            palette = newPalette;
+            paletteSize = newSize;
+            return;
+        }
+
+        bits = newBits;
+        entriesPerLong = 64 / bits;
+        entryMask = (1L << bits) - 1;
+        palette = Arrays.copyOf(newPalette, 1 << bits);
+        paletteSize = newSize;
+        data = new long[(VOLUME + entriesPerLong - 1) / entriesPerLong];
+        direct = null;
+
+        // Packed a word at a time, neighbouring blocks mostly repeat so the palette is only searched on changes
+        int last = -1;
+        int lastIndex = 0;
+        int index = 0;
+        for (int w = 0; w < data.length; w++) {
+            long word = 0L;
+            for (int i = 0; i < entriesPerLong && index < VOLUME; i++, index++) {
+                if (ids[index] != last) {
+                    last = ids[index];
+                    lastIndex = paletteIndexOf(ids[index]);
+                }
+                word |= (long) lastIndex << (i * bits);
+            }
+            data[w] = word;
+        }
+    }
+
+    private void write(int index, int paletteIndex) {
+        int longIndex = index / entriesPerLong;
+        int shift = (index % entriesPerLong) * bits;
+        data[longIndex] = (data[longIndex] & ~(entryMask << shift)) | ((long) paletteIndex << shift);
+    }
+
+    private static int bitsFor(int paletteSize) {
+        return Math.max(1, 32 - Integer.numberOfLeadingZeros(paletteSize - 1));
+    }
+}
@@ -1,28 +1,387 @@
 package io.github.illuminatijoe.cubegame.core.world;
 
 import com.badlogic.gdx.math.Vector3;
-import io.github.illuminatijoe.cubegame.core.utils.Vector3i;
+import io.github.illuminatijoe.cubegame.core.Direction;
+import io.github.illuminatijoe.cubegame.core.utils.LongObjectMap;
+import io.github.illuminatijoe.cubegame.core.world.io.ChunkSaveService;
+import io.github.illuminatijoe.cubegame.core.world.io.RegionStorage;
+import io.github.illuminatijoe.cubegame.core.world.light.ChunkLight;
+import io.github.illuminatijoe.cubegame.core.world.light.LightEngine;
+import io.github.illuminatijoe.cubegame.core.world.mesh.ChunkLod;
+import io.github.illuminatijoe.cubegame.core.world.mesh.ChunkNeighbors;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
+/**
+ * Loaded chunks and the streaming around the player. The world itself has no GL dependency:
+ * meshes go to the {@link ChunkMeshUploader} it was created with, and without one it runs headless
+ * (generation and block data only), e.g. for servers, pre-generation and benchmarks.
+ * <p>
+ * With a {@link RegionStorage}, chunks are loaded from disk when saved before and generated otherwise.
+ * Dirty chunks are handed to a {@link ChunkSaveService} when they unload, by a periodic autosave spread
+ * over several ticks, and when the world is disposed. Unloading never waits for the save queue: a chunk it
+ * has no room for is kept and offered again every tick, and takes the place of a stale copy loaded meanwhile.
+ * <p>
+ * A rendered world lights every chunk with its {@link LightEngine} as it joins, meshes it afterwards,
+ * and relights around every block change. Headless worlds skip lighting along with meshing.
+ * <p>
+ * Chunks are meshed at a {@link ChunkLod level of detail} chosen by their horizontal distance from the
+ * player; the levels are re-chosen whenever the player enters another chunk column.
+ */
 public class World {
-    private final Map<Vector3, Chunk> chunkMap;
+    // Time per frame spent uploading finished chunk meshes
+    public static final long UPLOAD_BUDGET_NANOS = 2_000_000L;
+
+    public static final long AUTOSAVE_INTERVAL_NANOS = 60_000_000_000L;
+    // Snapshots queued per tick during an autosave
+    public static final int AUTOSAVE_CHUNKS_PER_TICK = 16;
+    // How long dispose waits for queued saves to reach the disk
+    public static final long SAVE_TIMEOUT_MILLIS = 10_000L;
+
+    // Vertical extent of the world in chunks
+    public static final int MIN_CHUNK_Y = -2;
+    public static final int MAX_CHUNK_Y = 3;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    // Notified on the render thread whenever a chunk enters or leaves the world
+    public interface ChunkListener {
+        void onChunkLoaded(Chunk chunk);
+
+        void onChunkUnloaded(Chunk chunk);
+    }
+
+    private final LongObjectMap<Chunk> chunkMap = new LongObjectMap<>();
+    private final List<ChunkListener> listeners = new ArrayList<>();
+    private final Set<Chunk> remeshQueue = new LinkedHashSet<>();
+    private final ChunkMeshUploader meshUploader;
+    // Null when headless
+    private final LightEngine lightEngine;
+    private final ChunkSaveService saveService;
+    private final ArrayDeque<Chunk> autosaveQueue = new ArrayDeque<>();
+    // Unloaded dirty chunks by ChunkKey that the save queue had no room for
+    private final LongObjectMap<Chunk> unsaved = new LongObjectMap<>();
+    private long lastAutosave = System.nanoTime();
+    private final ChunkPipeline pipeline;
+    private final ChunkManager chunkManager;
+    // Player chunk column the levels of detail were chosen around
+    private int detailX;
+    private int detailZ;
     public static long seed = 1158L;
 
+    // Headless world, chunks are generated but never meshed
     public World() {
-        chunkMap = new HashMap<>();
-        for (int x = 0; x < 1; x++) {
-            for (int y = 0; y < 1; y++) {
-                for (int z = 0; z < 1; z++) {
-                    Vector3 chunkPos = new Vector3(x, y, z);
-                    chunkMap.put(chunkPos, new Chunk(chunkPos));
-                }
+        this(null);
+    }
+
+    public World(ChunkMeshUploader meshUploader) {
+        this(meshUploader, null);
+    }
+
+    // Either may be null; the world closes regionStorage when disposed
+    public World(ChunkMeshUploader meshUploader, RegionStorage regionStorage) {
+        this.meshUploader = meshUploader;
+        this.lightEngine = meshUploader == null ? null : new LightEngine(this);
+        this.saveService = regionStorage == null ? null : new ChunkSaveService(regionStorage);
+        pipeline = new ChunkPipeline(this);
+        chunkManager = new ChunkManager(this, pipeline);
+    }
+
+    // Called once per frame on the render thread, or once per tick when headless
+    public void update(Vector3 playerChunk, Vector3 viewDirection, int renderDistance) {
+        chunkManager.update(playerChunk, viewDirection, renderDistance);
+        if (meshUploader != null) updateDetail((int) playerChunk.x, (int) playerChunk.z);
+
+        for (Chunk chunk : remeshQueue) {
+            pipeline.remesh(chunk);
+        }
+        remeshQueue.clear();
+
+        pipeline.uploadPending(UPLOAD_BUDGET_NANOS);
+        autosave();
+    }
+
+    public void addListener(ChunkListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(ChunkListener listener) {
+        listeners.remove(listener);
+    }
+
+    void addChunk(Chunk chunk) {
+        // Loaded while its last changes were still waiting to be saved, the copy from disk is stale
+        Chunk retained = unsaved.remove(chunk.getKey());
+        if (retained != null) {
+            chunk = new Chunk(retained.getChunkPos(), retained.getStorage());
+            chunk.markDirty();
+        }
+
+        Chunk old = chunkMap.put(chunk.getKey(), chunk);
+        if (old == chunk) return;
+        if (old != null) {
+            for (ChunkListener listener : listeners) listener.onChunkUnloaded(old);
+            pipeline.cancelRemesh(old.getKey());
+            if (meshUploader != null) meshUploader.release(old);
+        }
+        for (ChunkListener listener : listeners) listener.onChunkLoaded(chunk);
+        if (meshUploader == null) return;
+
+        // New chunks arrive unmeshed, their mesh needs their light
+        chunk.lod = detailLevel(chunk.getKey());
+        lightEngine.onChunkAdded(chunk, remeshQueue);
+        remeshQueue.add(chunk);
+
+        // Meshes built while the other side was missing assumed it was opaque
+        for (Direction dir : DIRECTIONS) {
+            Chunk neighbor = chunkMap.get(ChunkKey.offset(chunk.getKey(), dir.dx, dir.dy, dir.dz));
+            if (neighbor == null) continue;
+
+            int back = 1 << dir.opposite().ordinal();
+            if ((neighbor.meshedNeighbors & back) == 0 && !chunk.getStorage().isSliceOpaque(dir.axis, borderLayer(dir))) {
+                remeshQueue.add(neighbor);
+            }
+            if ((chunk.meshedNeighbors & (1 << dir.ordinal())) == 0
+                && !neighbor.getStorage().isSliceOpaque(dir.axis, borderLayer(dir.opposite()))) {
+                remeshQueue.add(chunk);
+            }
+        }
+    }
+
+    void removeChunk(long key) {
+        Chunk chunk = chunkMap.remove(key);
+        if (chunk == null) return;
+        for (ChunkListener listener : listeners) listener.onChunkUnloaded(chunk);
+        if (saveService != null && chunk.isDirty() && !offerSave(chunk)) unsaved.put(key, chunk);
+        remeshQueue.remove(chunk);
+        if (meshUploader == null) return;
+        pipeline.cancelRemesh(key);
+        meshUploader.release(chunk);
+
+        for (Direction dir : DIRECTIONS) {
+            Chunk neighbor = chunkMap.get(ChunkKey.offset(key, dir.dx, dir.dy, dir.dz));
+            if (neighbor != null) neighbor.meshedNeighbors &= ~(1 << dir.opposite().ordinal());
+        }
+    }
+
+    // Re-chooses the level of detail of every chunk once the player is in another column, remeshing the changed ones
+    private void updateDetail(int x, int z) {
+        if (x == detailX && z == detailZ) return;
+        detailX = x;
+        detailZ = z;
+
+        for (int i = 0; i < chunkMap.capacity(); i++) {
+            Chunk chunk = chunkMap.valueAt(i);
+            if (chunk == null) continue;
+            int level = detailLevel(chunk.getKey());
+            if (level == chunk.lod) continue;
+
+            chunk.lod = level;
+            remeshQueue.add(chunk);
+            // Their seams towards it change
+            for (Direction dir : DIRECTIONS) {
+                Chunk neighbor = chunkMap.get(ChunkKey.offset(chunk.getKey(), dir.dx, dir.dy, dir.dz));
+                if (neighbor != null) remeshQueue.add(neighbor);
+            }
+        }
+    }
+
+    private int detailLevel(long key) {
+        return ChunkLod.levelFor(ChunkKey.x(key) - detailX, ChunkKey.z(key) - detailZ);
+    }
+
+    // Queues a snapshot of chunk unless the save queue is full
+    private boolean offerSave(Chunk chunk) {
+        long key = chunk.getKey();
+        if (!saveService.offer(ChunkKey.x(key), ChunkKey.y(key), ChunkKey.z(key), chunk.getStorage().copy())) return false;
+        chunk.clearDirty();
+        return true;
+    }
+
+    // Queues a snapshot of chunk if it changed since it was last saved, blocking while the save queue is full
+    private void saveChunk(Chunk chunk) {
+        if (saveService == null || !chunk.isDirty()) return;
+
+        long key = chunk.getKey();
+        saveService.save(ChunkKey.x(key), ChunkKey.y(key), ChunkKey.z(key), chunk.getStorage().copy());
+        chunk.clearDirty();
+    }
+
+    // Starts a pass over the dirty chunks every interval, then queues a few per tick while the save queue has room
+    private void autosave() {
+        if (saveService == null) return;
+        retryUnsaved();
+
+        long now = System.nanoTime();
+        if (autosaveQueue.isEmpty() && now - lastAutosave >= AUTOSAVE_INTERVAL_NANOS) {
+            lastAutosave = now;
+            for (int i = 0; i < chunkMap.capacity(); i++) {
+                Chunk chunk = chunkMap.valueAt(i);
+                if (chunk != null && chunk.isDirty()) autosaveQueue.add(chunk);
+            }
+        }
+
+        for (int i = 0; i < AUTOSAVE_CHUNKS_PER_TICK && !autosaveQueue.isEmpty(); i++) {
+            Chunk chunk = autosaveQueue.peek();
+            // Unloaded chunks were saved on the way out
+            if (!chunk.isDirty() || chunkMap.get(chunk.getKey()) != chunk) {
+                autosaveQueue.poll();
+                continue;
+            }
+
+            if (!offerSave(chunk)) break;
+            autosaveQueue.poll();
+        }
+    }
+
+    // Offers the unloaded chunks the save queue refused again, until it is full
+    private void retryUnsaved() {
+        for (int i = 0; i < unsaved.capacity(); i++) {
+            Chunk chunk = unsaved.valueAt(i);
+            // Still held while it is being loaded again, addChunk takes it over
+            if (chunk == null || pipeline.isPending(chunk.getKey())) continue;
+            if (!offerSave(chunk)) return;
+            unsaved.remove(chunk.getKey());
+            // Removing shifts a later entry into this slot
+            i--;
+        }
+    }
+
+    // Layer of a chunk touching its neighbour in direction dir
+    private static int borderLayer(Direction dir) {
+        return dir.negative ? 0 : ChunkStorage.SIZE - 1;
+    }
+
+    /**
+     * Copies the borders of the loaded neighbours of the chunk at key for meshing at a level of detail,
+     * render thread only. Neighbours on the same level are copied deep enough to downsample, the others
+     * become seams.
+     */
+    void captureNeighbors(long key, int level, ChunkNeighbors out) {
+        out.clear();
+        for (Direction dir : DIRECTIONS) {
+            int y = ChunkKey.y(key) + dir.dy;
+            if (y < MIN_CHUNK_Y || y > MAX_CHUNK_Y) {
+                out.setAir(dir);
+                continue;
             }
+
+            Chunk neighbor = chunkMap.get(ChunkKey.offset(key, dir.dx, dir.dy, dir.dz));
+            if (neighbor == null) continue;
+            ChunkLight light = lightEngine == null ? null : neighbor.getLight();
+            if (neighbor.lod == level) out.set(dir, neighbor.getStorage(), light, ChunkLod.scale(level));
+            else out.setSeam(dir, light);
+        }
+    }
+
+    // Loaded chunk at chunk coordinates, or null
+    public Chunk getChunk(int x, int y, int z) {
+        return chunkMap.get(ChunkKey.of(x, y, z));
+    }
+
+    public Chunk getChunk(long key) {
+        return chunkMap.get(key);
+    }
+
+    /**
+     * Sets the block at world block coordinates, relights around it and queues a remesh of its chunk,
+     * plus the neighbouring chunks when the block sits on a chunk border or their light changed.
+     *
+     * @return false if the chunk isn't loaded
+     */
+    public boolean setBlock(int x, int y, int z, char id) {
+        int size = ChunkStorage.SIZE;
+        Chunk chunk = getChunk(Math.floorDiv(x, size), Math.floorDiv(y, size), Math.floorDiv(z, size));
+        if (chunk == null) return false;
+
+        int localX = Math.floorMod(x, size);
+        int localY = Math.floorMod(y, size);
+        int localZ = Math.floorMod(z, size);
+        if (chunk.getStorage().getBlock(localX, localY, localZ) == id) return true;
+
+        chunk.getStorage().setBlock(localX, localY, localZ, id);
+        chunk.markDirty();
+        if (meshUploader == null) return true;
+        remeshQueue.add(chunk);
+        lightEngine.onBlockChanged(BlockKey.of(x, y, z), remeshQueue);
+
+        for (Direction dir : DIRECTIONS) {
+            int local = dir.axis == 0 ? localX : dir.axis == 1 ? localY : localZ;
+            if (local != borderLayer(dir)) continue;
+            Chunk neighbor = chunkMap.get(ChunkKey.offset(chunk.getKey(), dir.dx, dir.dy, dir.dz));
+            if (neighbor != null) remeshQueue.add(neighbor);
         }
+        return true;
+    }
+
+    // Block id at world block coordinates, air if the chunk isn't loaded
+    public char getBlock(int x, int y, int z) {
+        int size = ChunkStorage.SIZE;
+        Chunk chunk = getChunk(Math.floorDiv(x, size), Math.floorDiv(y, size), Math.floorDiv(z, size));
+        if (chunk == null) return ChunkStorage.AIR;
+        return chunk.getStorage().getBlock(Math.floorMod(x, size), Math.floorMod(y, size), Math.floorMod(z, size));
+    }
+
+    // Block id at a packed BlockKey, air if the chunk isn't loaded
+    public char getBlock(long blockKey) {
+        Chunk chunk = chunkMap.get(BlockKey.toChunkKey(blockKey));
+        if (chunk == null) return ChunkStorage.AIR;
+        return chunk.getStorage().get(BlockKey.toLocalIndex(blockKey));
+    }
+
+    public boolean isHeadless() {
+        return meshUploader == null;
     }
 
-    public Map<Vector3, Chunk> getChunkMap() {
+    // Null when headless
+    public ChunkMeshUploader getMeshUploader() {
+        return meshUploader;
+    }
+
+    // Loaded chunks by ChunkKey, render thread only
+    public LongObjectMap<Chunk> getChunkMap() {
         return chunkMap;
     }
+
+    // Null when headless
+    public LightEngine getLightEngine() {
+        return lightEngine;
+    }
+
+    public ChunkPipeline getPipeline() {
+        return pipeline;
+    }
+
+    // Null when the world isn't saved
+    public ChunkSaveService getSaveService() {
+        return saveService;
+    }
+
+    public ChunkManager getChunkManager() {
+        return chunkManager;
+    }
+
+    public void dispose() {
+        pipeline.dispose();
+        remeshQueue.clear();
+        for (int i = 0; i < chunkMap.capacity(); i++) {
+            Chunk chunk = chunkMap.valueAt(i);
+            if (chunk == null) continue;
+            saveChunk(chunk);
+            if (meshUploader != null) meshUploader.release(chunk);
+        }
+        chunkMap.clear();
+        for (int i = 0; i < unsaved.capacity(); i++) {
+            Chunk chunk = unsaved.valueAt(i);
+            if (chunk != null) saveChunk(chunk);
+        }
+        unsaved.clear();
+
+        autosaveQueue.clear();
+        if (saveService != null) saveService.close(SAVE_TIMEOUT_MILLIS);
+    }
 }
@@ -0,0 +1,187 @@
+package io.github.illuminatijoe.cubegame.core.world;
+
+import com.badlogic.gdx.math.Vector3;
+import io.github.illuminatijoe.cubegame.core.world.io.RegionFile;
+import io.github.illuminatijoe.cubegame.core.world.io.RegionStorage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates and saves every chunk of a square of columns ahead of time, e.g. around spawn before a server opens.
+ * <p>
+ * The square is split along region file borders. The columns of each region are generated in parallel on a
+ * fork/join pool, then one task writes the region's chunks in a fixed order. Generation only depends on
+ * {@link World#seed} and every file is written by a single task, so a fresh save directory comes out byte for
+ * byte the same whatever the parallelism. Chunks that are already saved are skipped, so an interrupted run can
+ * be resumed.
+ */
+public class WorldPregenerator {
+    public static final long PROGRESS_INTERVAL_MILLIS = 1000;
+
+    // Columns generated by one task before it stops splitting
+    private static final int COLUMNS_PER_TASK = 8;
+
+    public interface ProgressListener {
+        // done counts generated and skipped chunks, the rate only generated ones
+        void onProgress(long done, long total, double chunksPerSecond);
+    }
+
+    private final RegionStorage storage;
+    private final int parallelism;
+
+    private final AtomicLong done = new AtomicLong();
+    private final AtomicLong generated = new AtomicLong();
+
+    public WorldPregenerator(RegionStorage storage, int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1");
+        this.storage = storage;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Generates the full height of every column within radius chunks of the center column on both axes,
+     * blocking until they are written. listener is called from this thread every
+     * {@link #PROGRESS_INTERVAL_MILLIS} and once at the end, it may be null.
+     *
+     * @return the number of chunks generated, not counting skipped ones
+     */
+    public long generate(int centerX, int centerZ, int radius, ProgressListener listener)
+        throws IOException, InterruptedException {
+        if (radius < 0) throw new IllegalArgumentException("Negative radius " + radius);
+        int minX = centerX - radius;
+        int maxX = centerX + radius;
+        int minZ = centerZ - radius;
+        int maxZ = centerZ + radius;
+
+        List<RegionTask> regions = new ArrayList<>();
+        for (int regionZ = Math.floorDiv(minZ, RegionFile.SIZE); regionZ <= Math.floorDiv(maxZ, RegionFile.SIZE); regionZ++) {
+            for (int regionX = Math.floorDiv(minX, RegionFile.SIZE); regionX <= Math.floorDiv(maxX, RegionFile.SIZE); regionX++) {
+                int fromX = Math.max(minX, regionX * RegionFile.SIZE);
+                int fromZ = Math.max(minZ, regionZ * RegionFile.SIZE);
+                int toX = Math.min(maxX, regionX * RegionFile.SIZE + RegionFile.SIZE - 1);
+                int toZ = Math.min(maxZ, regionZ * RegionFile.SIZE + RegionFile.SIZE - 1);
+                regions.add(new RegionTask(fromX, fromZ, toX - fromX + 1, toZ - fromZ + 1));
+            }
+        }
+
+        long side = 2L * radius + 1;
+        long total = side * side * RegionFile.HEIGHT;
+        done.set(0);
+        generated.set(0);
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            ForkJoinTask<?> all = pool.submit(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(regions);
+                }
+            });
+            while (true) {
+                try {
+                    all.get(PROGRESS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                    break;
+                } catch (TimeoutException e) {
+                    report(listener, total, start);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof UncheckedIOException io) throw io.getCause();
+                    if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+                    throw new IOException("Pre-generation failed", e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        report(listener, total, start);
+        return generated.get();
+    }
+
+    private void report(ProgressListener listener, long total, long start) {
+        if (listener == null) return;
+        double seconds = (System.nanoTime() - start) / 1e9;
+        listener.onProgress(done.get(), total, seconds > 0 ? generated.get() / seconds : 0);
+    }
+
+    // Columns [fromX, fromX + sizeX) x [fromZ, fromZ + sizeZ) of one region file. Tasks are never serialized
+    @SuppressWarnings("serial")
+    private class RegionTask extends RecursiveAction {
+        final int fromX, fromZ, sizeX, sizeZ;
+        // Generated chunks, column by column with y innermost, null where skipped
+        final ChunkStorage[] chunks;
+
+        RegionTask(int fromX, int fromZ, int sizeX, int sizeZ) {
+            this.fromX = fromX;
+            this.fromZ = fromZ;
+            this.sizeX = sizeX;
+            this.sizeZ = sizeZ;
+            chunks = new ChunkStorage[sizeX * sizeZ * RegionFile.HEIGHT];
+        }
+
+        @Override
+        protected void compute() {
+            new ColumnTask(this, 0, sizeX * sizeZ).invoke();
+
+            // Written in one fixed order, the region file's layout depends on it
+            try {
+                for (int i = 0; i < chunks.length; i++) {
+                    if (chunks[i] == null) continue;
+                    int column = i / RegionFile.HEIGHT;
+                    storage.save(fromX + column % sizeX, World.MIN_CHUNK_Y + i % RegionFile.HEIGHT, fromZ + column / sizeX, chunks[i]);
+                    chunks[i] = null;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // Generates columns [from, to) of a region, splitting in halves down to COLUMNS_PER_TASK
+    @SuppressWarnings("serial")
+    private class ColumnTask extends RecursiveAction {
+        final RegionTask region;
+        final int from, to;
+
+        ColumnTask(RegionTask region, int from, int to) {
+            this.region = region;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > COLUMNS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ColumnTask(region, from, middle), new ColumnTask(region, middle, to));
+                return;
+            }
+
+            Vector3 pos = new Vector3();
+            try {
+                for (int column = from; column < to; column++) {
+                    int x = region.fromX + column % region.sizeX;
+                    int z = region.fromZ + column / region.sizeX;
+                    for (int y = World.MIN_CHUNK_Y; y <= World.MAX_CHUNK_Y; y++) {
+                        if (!storage.contains(x, y, z)) {
+                            region.chunks[column * RegionFile.HEIGHT + y - World.MIN_CHUNK_Y] = new Chunk(pos.set(x, y, z)).getStorage();
+                            generated.incrementAndGet();
+                        }
+                        done.incrementAndGet();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
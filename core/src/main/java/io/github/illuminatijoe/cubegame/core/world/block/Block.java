@@ -1,14 +1,52 @@
 package io.github.illuminatijoe.cubegame.core.world.block;
 
-import com.badlogic.gdx.graphics.g3d.Model;
-
+/**
+ * Shared, immutable description of a block type. There is exactly one instance per type,
+ * obtained from {@link BlockRegistry}; chunks only store the id.
+ */
 public class Block {
+    private final char id;
+    private final String name;
+    private final boolean solid;
+    private final boolean transparent;
+    private final int lightEmission;
+
+    Block(char id, String name, boolean solid, boolean transparent, int lightEmission) {
+        this.id = id;
+        this.name = name;
+        this.solid = solid;
+        this.transparent = transparent;
+        this.lightEmission = lightEmission;
+    }
 
-    public Block() {
+    public char getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
 
+    public boolean isSolid() {
+        return solid;
     }
 
     public boolean isTransparent() {
-        return false;
+        return transparent;
+    }
+
+    // Texture layer, reassigned once the block atlas is loaded
+    public int getTextureIndex() {
+        return BlockRegistry.getTextureIndex(id);
+    }
+
+    // Block light level (0-15) the block gives off
+    public int getLightEmission() {
+        return lightEmission;
+    }
+
+    @Override
+    public String toString() {
+        return "Block(" + name + ", " + (int) id + ")";
     }
 }
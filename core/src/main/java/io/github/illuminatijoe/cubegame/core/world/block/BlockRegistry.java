@@ -0,0 +1,107 @@
+package io.github.illuminatijoe.cubegame.core.world.block;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Assigns every block type a small integer id and keeps its properties in dense arrays,
+ * so hot paths (meshing, culling) can check a voxel with a single array read.
+ */
+public final class BlockRegistry {
+    private static Block[] blocks = new Block[16];
+    private static boolean[] solid = new boolean[16];
+    private static boolean[] transparent = new boolean[16];
+    private static int[] textureIndex = new int[16];
+    private static int[] lightEmission = new int[16];
+    private static final Map<String, Block> byName = new HashMap<>();
+    private static int count;
+    private static int lightSourceCount;
+
+    // Air must stay the first registration so that id 0 means empty
+    public static final Block AIR = register("air", false, true, -1);
+    public static final Block DIRT = register("dirt", true, false, 0);
+
+    private BlockRegistry() {
+    }
+
+    public static Block register(String name, boolean isSolid, boolean isTransparent, int texture) {
+        return register(name, isSolid, isTransparent, texture, 0);
+    }
+
+    // Registers a block giving off block light of level emission (0-15)
+    public static synchronized Block register(String name, boolean isSolid, boolean isTransparent, int texture, int emission) {
+        if (emission < 0 || emission > 15) {
+            throw new IllegalArgumentException("Light emission out of range: " + emission);
+        }
+        if (byName.containsKey(name)) {
+            throw new IllegalArgumentException("Block already registered: " + name);
+        }
+        if (count > Character.MAX_VALUE) {
+            throw new IllegalStateException("Too many block types");
+        }
+
+        if (count == blocks.length) {
+            int newLength = blocks.length * 2;
+            blocks = Arrays.copyOf(blocks, newLength);
+            solid = Arrays.copyOf(solid, newLength);
+            transparent = Arrays.copyOf(transparent, newLength);
+            textureIndex = Arrays.copyOf(textureIndex, newLength);
+            lightEmission = Arrays.copyOf(lightEmission, newLength);
+        }
+
+        Block block = new Block((char) count, name, isSolid, isTransparent, emission);
+        blocks[count] = block;
+        solid[count] = isSolid;
+        transparent[count] = isTransparent;
+        textureIndex[count] = texture;
+        lightEmission[count] = emission;
+        if (emission > 0) lightSourceCount++;
+        byName.put(name, block);
+        count++;
+        return block;
+    }
+
+    public static Block get(int id) {
+        return blocks[id];
+    }
+
+    public static Block get(String name) {
+        return byName.get(name);
+    }
+
+    public static boolean isSolid(int id) {
+        return solid[id];
+    }
+
+    public static boolean isTransparent(int id) {
+        return transparent[id];
+    }
+
+    public static boolean isOpaque(int id) {
+        return !transparent[id];
+    }
+
+    public static int getTextureIndex(int id) {
+        return textureIndex[id];
+    }
+
+    // Moves a block to another texture layer, meshing threads read the layers so call before chunks are meshed
+    public static synchronized void setTextureIndex(int id, int layer) {
+        if (blocks[id] == null) throw new IllegalArgumentException("Unknown block id: " + id);
+        textureIndex[id] = layer;
+    }
+
+    public static int getLightEmission(int id) {
+        return lightEmission[id];
+    }
+
+    // Whether any registered block gives off light, lets lighting skip scanning chunks for sources
+    public static boolean hasLightSources() {
+        return lightSourceCount > 0;
+    }
+
+    public static int size() {
+        return count;
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.illuminatijoe.cubegame.core.world.gen;
+
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+
+/**
+ * Terrain height of every block column in one chunk column, indexed {@code x + z * 16}. The same for every
+ * chunk stacked in the column, so it is computed once and shared through a {@link HeightmapCache}.
+ */
+public final class Heightmap {
+    // Rough heap size of a heightmap and its cache entry
+    public static final int BYTES = 16 + ChunkStorage.AREA * 2 + 32 + 64;
+
+    private final long seed;
+    private final short[] heights;
+    private final int minHeight;
+    private final int maxHeight;
+
+    // Takes ownership of heights
+    public Heightmap(long seed, short[] heights) {
+        if (heights.length != ChunkStorage.AREA) throw new IllegalArgumentException("Heightmap needs " + ChunkStorage.AREA + " columns");
+        this.seed = seed;
+        this.heights = heights;
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (short height : heights) {
+            min = Math.min(min, height);
+            max = Math.max(max, height);
+        }
+        minHeight = min;
+        maxHeight = max;
+    }
+
+    // World y of the top block, local x and z in [0, 16)
+    public int getHeight(int x, int z) {
+        return heights[x + z * ChunkStorage.SIZE];
+    }
+
+    public int getMinHeight() {
+        return minHeight;
+    }
+
+    public int getMaxHeight() {
+        return maxHeight;
+    }
+
+    // Seed the heights were generated with
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.illuminatijoe.cubegame.core.world.gen;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Heightmaps of recently generated chunk columns, keyed by column x and z. The least recently used one is
+ * dropped once the cache would take more than its memory budget. Safe to use from several threads.
+ */
+public class HeightmapCache {
+    // About 6500 columns, several times what a large render distance keeps loaded
+    public static final long DEFAULT_MAX_BYTES = 4L << 20;
+
+    private final int maxEntries;
+    // Access ordered, eldest is the least recently used
+    private final Map<Long, Heightmap> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hitCount;
+    private long missCount;
+    private long evictedCount;
+
+    public HeightmapCache(long maxBytes) {
+        maxEntries = (int) Math.min(Integer.MAX_VALUE, maxBytes / Heightmap.BYTES);
+    }
+
+    /**
+     * Heightmap of the column at chunk x and z.
+     *
+     * @return null if it isn't cached
+     */
+    public synchronized Heightmap get(int x, int z) {
+        Heightmap heightmap = entries.get(key(x, z));
+        if (heightmap == null) missCount++;
+        else hitCount++;
+        return heightmap;
+    }
+
+    public synchronized void put(int x, int z, Heightmap heightmap) {
+        if (maxEntries == 0) return;
+        entries.put(key(x, z), heightmap);
+        if (entries.size() > maxEntries) {
+            Iterator<Heightmap> eldest = entries.values().iterator();
+            eldest.next();
+            eldest.remove();
+            evictedCount++;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxEntries;
+    }
+
+    public long getMemoryUsage() {
+        return (long) size() * Heightmap.BYTES;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictedCount() {
+        return evictedCount;
+    }
+
+    private static long key(int x, int z) {
+        return (long) x << 32 | (z & 0xFFFFFFFFL);
+    }
+}
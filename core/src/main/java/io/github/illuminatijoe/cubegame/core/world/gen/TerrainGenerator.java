@@ -0,0 +1,120 @@
+package io.github.illuminatijoe.cubegame.core.world.gen;
+
+import io.github.illuminatijoe.cubegame.core.utils.OpenSimplex2S;
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+import io.github.illuminatijoe.cubegame.core.world.World;
+import io.github.illuminatijoe.cubegame.core.world.block.BlockRegistry;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Noise terrain: dirt up to a height taken from 2D noise, air above. The height only depends on the column,
+ * so heightmaps come from a {@link HeightmapCache} and the noise is sampled once per column instead of once
+ * per chunk. Chunks entirely above or below the surface are recognised from the heightmap's range and come
+ * out uniform without filling a single block. Output only depends on {@link World#seed} and the position.
+ * Safe to use from several threads.
+ */
+public class TerrainGenerator {
+    private static final TerrainGenerator DEFAULT = new TerrainGenerator(new HeightmapCache(HeightmapCache.DEFAULT_MAX_BYTES));
+
+    private static final float FREQUENCY = 0.01f;
+    private static final int MAX_HEIGHT = ChunkStorage.SIZE * 2;
+
+    private static final char DIRT = BlockRegistry.DIRT.getId();
+
+    private static final ThreadLocal<float[]> NOISE = ThreadLocal.withInitial(() -> new float[ChunkStorage.AREA]);
+    private static final ThreadLocal<char[]> IDS = ThreadLocal.withInitial(() -> new char[ChunkStorage.VOLUME]);
+
+    private final HeightmapCache heightmaps;
+
+    private final AtomicLong generatedCount = new AtomicLong();
+    private final AtomicLong emptyCount = new AtomicLong();
+    private final AtomicLong fullCount = new AtomicLong();
+
+    // heightmaps may be null to compute every heightmap again
+    public TerrainGenerator(HeightmapCache heightmaps) {
+        this.heightmaps = heightmaps;
+    }
+
+    // Generator shared by every world, used by the Chunk constructor
+    public static TerrainGenerator getDefault() {
+        return DEFAULT;
+    }
+
+    public ChunkStorage generate(int chunkX, int chunkY, int chunkZ) {
+        Heightmap heightmap = getHeightmap(chunkX, chunkZ);
+        int bottom = chunkY * ChunkStorage.SIZE;
+        int top = bottom + ChunkStorage.SIZE - 1;
+        generatedCount.incrementAndGet();
+
+        // Entirely above or below the surface, known from the heightmap without touching a block
+        if (heightmap.getMaxHeight() < bottom) {
+            emptyCount.incrementAndGet();
+            return new ChunkStorage();
+        }
+        if (heightmap.getMinHeight() >= top) {
+            fullCount.incrementAndGet();
+            return new ChunkStorage(DIRT);
+        }
+
+        char[] ids = IDS.get();
+        Arrays.fill(ids, ChunkStorage.AIR);
+        for (int z = 0; z < ChunkStorage.SIZE; z++) {
+            for (int x = 0; x < ChunkStorage.SIZE; x++) {
+                int filled = Math.min(heightmap.getHeight(x, z) - bottom + 1, ChunkStorage.SIZE);
+                for (int y = 0; y < filled; y++) {
+                    ids[ChunkStorage.index(x, y, z)] = DIRT;
+                }
+            }
+        }
+        return ChunkStorage.of(ids);
+    }
+
+    public Heightmap getHeightmap(int chunkX, int chunkZ) {
+        long seed = World.seed;
+        if (heightmaps == null) return computeHeightmap(seed, chunkX, chunkZ);
+
+        Heightmap heightmap = heightmaps.get(chunkX, chunkZ);
+        // Cached under another seed, the seed changed since
+        if (heightmap == null || heightmap.getSeed() != seed) {
+            heightmap = computeHeightmap(seed, chunkX, chunkZ);
+            heightmaps.put(chunkX, chunkZ, heightmap);
+        }
+        return heightmap;
+    }
+
+    public long getGeneratedCount() {
+        return generatedCount.get();
+    }
+
+    // Chunks entirely above the surface, returned as uniform air without filling any blocks
+    public long getEmptyCount() {
+        return emptyCount.get();
+    }
+
+    // Chunks entirely below the surface, returned as uniform dirt
+    public long getFullCount() {
+        return fullCount.get();
+    }
+
+    // null when caching is off
+    public HeightmapCache getHeightmaps() {
+        return heightmaps;
+    }
+
+    private static Heightmap computeHeightmap(long seed, int chunkX, int chunkZ) {
+        // One batch for the whole column grid
+        float[] noise = NOISE.get();
+        OpenSimplex2S.noise2Grid(seed,
+            chunkX * ChunkStorage.SIZE * FREQUENCY, chunkZ * ChunkStorage.SIZE * FREQUENCY,
+            FREQUENCY, ChunkStorage.SIZE, ChunkStorage.SIZE, noise);
+
+        short[] heights = new short[ChunkStorage.AREA];
+        for (int i = 0; i < ChunkStorage.AREA; i++) {
+            float normalized = (noise[i] + 1f) / 2f;
+            heights[i] = (short) (int) (normalized * MAX_HEIGHT);
+        }
+        return new Heightmap(seed, heights);
+    }
+}
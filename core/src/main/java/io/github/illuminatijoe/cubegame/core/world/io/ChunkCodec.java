@@ -0,0 +1,31 @@
+package io.github.illuminatijoe.cubegame.core.world.io;
+
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * One way of turning chunk storage into bytes, identified in payloads by {@link #getId()}.
+ * Implementations keep any scratch state per thread so a single instance can be shared by all workers.
+ */
+public interface ChunkCodec {
+    // Written as the first byte of every payload, so a world can switch codecs and still read older chunks
+    byte getId();
+
+    String getName();
+
+    /**
+     * Writes storage to out, which has room for at least {@link ChunkSerializer#MAX_PAYLOAD_SIZE} bytes.
+     *
+     * @throws java.nio.BufferOverflowException if the encoded form doesn't fit
+     */
+    void encode(ChunkStorage storage, ByteBuffer out);
+
+    /**
+     * Reads storage written by {@link #encode} from in, which may be a slice of a mapped file.
+     *
+     * @throws IOException if the data is corrupt
+     */
+    ChunkStorage decode(ByteBuffer in) throws IOException;
+}
@@ -0,0 +1,231 @@
+package io.github.illuminatijoe.cubegame.core.world.io;
+
+import com.badlogic.gdx.Gdx;
+import io.github.illuminatijoe.cubegame.core.world.ChunkKey;
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write-behind saving: chunk snapshots are queued by the render thread and written to a {@link RegionStorage}
+ * by a single background thread.
+ * <p>
+ * Saving a chunk that is still queued replaces the queued snapshot instead of adding a second write.
+ * The writer takes up to {@link #BATCH_SIZE} chunks at a time and writes them grouped by region file.
+ * Once {@link #MAX_QUEUED} chunks wait, {@link #save} blocks until the writer catches up while {@link #offer}
+ * refuses, so background saving (autosave) can back off instead of stalling a frame.
+ * <p>
+ * Loads go through {@link #load} so a chunk whose save hasn't reached the disk yet is read from its snapshot.
+ */
+public class ChunkSaveService {
+    public static final int MAX_QUEUED = 1024;
+    public static final int BATCH_SIZE = 64;
+    // Minimum time between forcing writes to the disk while the queue keeps draining
+    public static final long FLUSH_INTERVAL_NANOS = 5_000_000_000L;
+
+    private static final Comparator<Entry> BY_REGION = Comparator
+        .comparingInt((Entry entry) -> Math.floorDiv(entry.x, RegionFile.SIZE))
+        .thenComparingInt(entry -> Math.floorDiv(entry.z, RegionFile.SIZE));
+
+    private final RegionStorage storage;
+    private final Thread writer;
+
+    private final Object lock = new Object();
+    // Waiting to be written, in queue order
+    private final Map<Long, Entry> queued = new LinkedHashMap<>();
+    // Taken by the writer, not yet on disk
+    private final Map<Long, Entry> writing = new HashMap<>();
+    private boolean closing;
+
+    private volatile long savedCount;
+    private volatile long coalescedCount;
+    private volatile long failedCount;
+
+    public ChunkSaveService(RegionStorage storage) {
+        this.storage = storage;
+        writer = new Thread(this::run, "chunk-saver");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues snapshot as the saved state of the chunk at chunk coordinates, blocking while the queue is full.
+     * The snapshot must not be changed afterwards.
+     */
+    public void save(int x, int y, int z, ChunkStorage snapshot) {
+        long key = key(x, y, z);
+        synchronized (lock) {
+            while (queued.size() >= MAX_QUEUED && !queued.containsKey(key) && !closing) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            enqueue(key, new Entry(x, y, z, snapshot));
+        }
+    }
+
+    /**
+     * Like {@link #save} but never blocks.
+     *
+     * @return false if the queue is full, the snapshot was not queued
+     */
+    public boolean offer(int x, int y, int z, ChunkStorage snapshot) {
+        long key = key(x, y, z);
+        synchronized (lock) {
+            if (queued.size() >= MAX_QUEUED && !queued.containsKey(key)) return false;
+            enqueue(key, new Entry(x, y, z, snapshot));
+            return true;
+        }
+    }
+
+    /**
+     * Loads the chunk at chunk coordinates, preferring a snapshot that is still waiting to be written.
+     *
+     * @return null if it was never saved
+     */
+    public ChunkStorage load(int x, int y, int z) throws IOException {
+        long key = key(x, y, z);
+        synchronized (lock) {
+            Entry entry = queued.get(key);
+            if (entry == null) entry = writing.get(key);
+            if (entry != null) return entry.snapshot.copy();
+        }
+        return storage.load(x, y, z);
+    }
+
+    public boolean hasCapacity() {
+        synchronized (lock) {
+            return queued.size() < MAX_QUEUED;
+        }
+    }
+
+    public int getQueuedCount() {
+        synchronized (lock) {
+            return queued.size() + writing.size();
+        }
+    }
+
+    public long getSavedCount() {
+        return savedCount;
+    }
+
+    // Saves replaced by a newer snapshot before they were written
+    public long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Stops accepting saves, waits up to timeoutMillis for the queue to be written and closes the storage.
+     *
+     * @return false if chunks were still unwritten when the time ran out
+     */
+    public boolean close(long timeoutMillis) {
+        synchronized (lock) {
+            closing = true;
+            lock.notifyAll();
+        }
+
+        try {
+            writer.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int unwritten = getQueuedCount();
+        if (writer.isAlive()) writer.interrupt();
+
+        try {
+            storage.close();
+        } catch (IOException e) {
+            Gdx.app.error("ChunkSaveService", "Failed to close region storage", e);
+        }
+        if (unwritten > 0) Gdx.app.error("ChunkSaveService", unwritten + " chunks were not saved before the timeout");
+        return unwritten == 0;
+    }
+
+    private void enqueue(long key, Entry entry) {
+        if (closing) throw new IllegalStateException("Save service is closed");
+        if (queued.put(key, entry) != null) coalescedCount++;
+        lock.notifyAll();
+    }
+
+    private void run() {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        long lastFlush = System.nanoTime();
+        while (true) {
+            boolean drained;
+            synchronized (lock) {
+                while (queued.isEmpty() && !closing) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (queued.isEmpty()) return;
+
+                Iterator<Map.Entry<Long, Entry>> it = queued.entrySet().iterator();
+                while (it.hasNext() && batch.size() < BATCH_SIZE) {
+                    Map.Entry<Long, Entry> next = it.next();
+                    writing.put(next.getKey(), next.getValue());
+                    batch.add(next.getValue());
+                    it.remove();
+                }
+                drained = queued.isEmpty();
+                // Room for blocked savers
+                lock.notifyAll();
+            }
+
+            batch.sort(BY_REGION);
+            for (Entry entry : batch) {
+                if (Thread.currentThread().isInterrupted()) return;
+                try {
+                    storage.save(entry.x, entry.y, entry.z, entry.snapshot);
+                    savedCount++;
+                } catch (IOException | RuntimeException e) {
+                    failedCount++;
+                    Gdx.app.error("ChunkSaveService", "Failed to save chunk at " + entry.x + ", " + entry.y + ", " + entry.z, e);
+                }
+                synchronized (lock) {
+                    writing.remove(key(entry.x, entry.y, entry.z), entry);
+                }
+            }
+            batch.clear();
+
+            // Caught up, push the writes to the disk now and then (closing the storage flushes the rest)
+            if (drained && System.nanoTime() - lastFlush >= FLUSH_INTERVAL_NANOS) {
+                storage.flush();
+                lastFlush = System.nanoTime();
+            }
+        }
+    }
+
+    private static long key(int x, int y, int z) {
+        return ChunkKey.of(x, y, z);
+    }
+
+    private static class Entry {
+        final int x, y, z;
+        final ChunkStorage snapshot;
+
+        Entry(int x, int y, int z, ChunkStorage snapshot) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.snapshot = snapshot;
+        }
+    }
+}
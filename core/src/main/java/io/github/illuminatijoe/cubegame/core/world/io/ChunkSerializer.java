@@ -0,0 +1,94 @@
+package io.github.illuminatijoe.cubegame.core.world.io;
+
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Turns chunk storage into region file payloads and back. A payload is the {@link ChunkCodec#getId() id}
+ * of the codec that wrote it followed by the codec's output, so chunks written with any known codec can be
+ * read whichever one the serializer encodes with. Chunks the codec doesn't shrink (e.g. uniform ones)
+ * are stored with {@link RawCodec} instead.
+ * <p>
+ * Codecs keep their scratch state per thread, so one serializer can be shared by all workers.
+ */
+public class ChunkSerializer {
+    // Codec id plus the largest codec output, run-length encoding with a full palette and a run per block
+    public static final int MAX_PAYLOAD_SIZE = 1 + 2 + ChunkStorage.VOLUME * 6;
+
+    private static final RawCodec RAW = new RawCodec();
+    // Decoders of the built-in ids
+    private static final ChunkCodec[] CODECS = { RAW, new DeflateCodec(), new RleCodec() };
+
+    private static final ThreadLocal<ByteBuffer> OUT = ThreadLocal.withInitial(() -> ByteBuffer.allocate(MAX_PAYLOAD_SIZE));
+
+    private final ChunkCodec codec;
+
+    public ChunkSerializer() {
+        this(new DeflateCodec());
+    }
+
+    public ChunkSerializer(ChunkCodec codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * Codec by name: {@code raw}, {@code rle}, {@code deflate} or {@code deflate:<level>}.
+     *
+     * @throws IllegalArgumentException for anything else
+     */
+    public static ChunkCodec codec(String name) {
+        if (name.equals("raw")) return RAW;
+        if (name.equals("rle")) return new RleCodec();
+        if (name.equals("deflate")) return new DeflateCodec();
+        if (name.startsWith("deflate:")) {
+            try {
+                return new DeflateCodec(Integer.parseInt(name.substring("deflate:".length())));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad deflate level in " + name, e);
+            }
+        }
+        throw new IllegalArgumentException("Unknown chunk codec " + name);
+    }
+
+    public ChunkCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Encodes storage into a payload. The returned buffer belongs to the calling thread and is
+     * overwritten by its next encode.
+     */
+    public ByteBuffer encode(ChunkStorage storage) {
+        ByteBuffer out = OUT.get().clear();
+        if (codec.getId() != RawCodec.ID) {
+            out.put(codec.getId());
+            try {
+                codec.encode(storage, out);
+                if (out.position() - 1 <= storage.getSerializedSize()) return out.flip();
+            } catch (BufferOverflowException e) {
+                // Larger than anything raw would take, fall through
+            }
+            out.clear();
+        }
+        out.put(RawCodec.ID);
+        RAW.encode(storage, out);
+        return out.flip();
+    }
+
+    /**
+     * Decodes a payload produced by {@link #encode}. The payload is read in place, so it can be a
+     * slice of a mapped region file.
+     *
+     * @throws IOException if the payload is corrupt
+     */
+    public ChunkStorage decode(ByteBuffer payload) throws IOException {
+        if (!payload.hasRemaining()) throw new IOException("Empty chunk payload");
+        byte id = payload.get();
+        if (id == codec.getId()) return codec.decode(payload);
+        if (id < 0 || id >= CODECS.length) throw new IOException("Unknown chunk codec " + id);
+        return CODECS[id].decode(payload);
+    }
+}
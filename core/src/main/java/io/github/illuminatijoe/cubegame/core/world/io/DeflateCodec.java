@@ -0,0 +1,99 @@
+package io.github.illuminatijoe.cubegame.core.world.io;
+
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * {@link ChunkStorage#write}'s output run through {@link Deflater} at a configurable level:
+ * the raw length as an int, then the deflated bytes. Decoding doesn't depend on the level.
+ */
+public class DeflateCodec implements ChunkCodec {
+    public static final byte ID = 1;
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private final int level;
+
+    public DeflateCodec() {
+        this(Deflater.BEST_SPEED);
+    }
+
+    // level in [0, 9], 1 is fastest and 9 smallest
+    public DeflateCodec(int level) {
+        if (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Bad deflate level " + level);
+        }
+        this.level = level;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return "deflate:" + level;
+    }
+
+    @Override
+    public void encode(ChunkStorage storage, ByteBuffer out) {
+        Buffers buffers = BUFFERS.get();
+        ByteBuffer raw = buffers.raw.clear();
+        storage.write(raw);
+        raw.flip();
+
+        Deflater deflater = buffers.deflater;
+        deflater.reset();
+        deflater.setLevel(level);
+        deflater.setInput(raw);
+        deflater.finish();
+
+        out.putInt(raw.limit());
+        while (!deflater.finished()) {
+            if (!out.hasRemaining()) throw new BufferOverflowException();
+            deflater.deflate(out);
+        }
+    }
+
+    @Override
+    public ChunkStorage decode(ByteBuffer in) throws IOException {
+        try {
+            int rawLength = in.getInt();
+            if (rawLength <= 0 || rawLength > ChunkStorage.MAX_SERIALIZED_SIZE) {
+                throw new IOException("Bad chunk length " + rawLength);
+            }
+
+            Buffers buffers = BUFFERS.get();
+            Inflater inflater = buffers.inflater;
+            inflater.reset();
+            inflater.setInput(in);
+
+            ByteBuffer raw = buffers.raw.clear().limit(rawLength);
+            while (raw.hasRemaining()) {
+                if (inflater.inflate(raw) == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IOException("Truncated chunk payload");
+                }
+            }
+            return ChunkStorage.read(raw.flip());
+        } catch (DataFormatException | RuntimeException e) {
+            throw new IOException("Corrupt deflated chunk", e);
+        }
+    }
+
+    private static class Buffers {
+        final ByteBuffer raw = ByteBuffer.allocate(ChunkStorage.MAX_SERIALIZED_SIZE);
+        final Deflater deflater = new Deflater();
+        final Inflater inflater = new Inflater();
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.illuminatijoe.cubegame.core.world.io;
+
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// Storage as it is laid out in memory, see ChunkStorage.write
+public class RawCodec implements ChunkCodec {
+    public static final byte ID = 0;
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return "raw";
+    }
+
+    @Override
+    public void encode(ChunkStorage storage, ByteBuffer out) {
+        storage.write(out);
+    }
+
+    @Override
+    public ChunkStorage decode(ByteBuffer in) throws IOException {
+        try {
+            return ChunkStorage.read(in);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt raw chunk", e);
+        }
+    }
+}
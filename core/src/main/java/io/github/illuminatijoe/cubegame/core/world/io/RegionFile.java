@@ -0,0 +1,201 @@
+package io.github.illuminatijoe.cubegame.core.world.io;
+
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+import io.github.illuminatijoe.cubegame.core.world.World;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One file holding the chunks of {@link #SIZE} x {@link #SIZE} columns, across the world's full height.
+ * <p>
+ * The file starts with a header of one int per chunk: the first sector of its payload shifted left by 8,
+ * or'ed with the number of sectors it takes (0 for a missing chunk). Payloads are sector aligned and
+ * start with their length in bytes. The whole file is memory mapped, so reading a chunk decodes straight
+ * from a slice of the mapping without copying.
+ * <p>
+ * Writes never overwrite a chunk's current sectors: the payload goes to free sectors first and the
+ * header entry is switched afterwards, so a failed write leaves the previous copy intact. A read-write
+ * lock lets loads run in parallel while writes, which may move or grow the mapping, run alone.
+ */
+public class RegionFile implements Closeable {
+    // Columns per side
+    public static final int SIZE = 32;
+    public static final int HEIGHT = World.MAX_CHUNK_Y - World.MIN_CHUNK_Y + 1;
+    public static final int SECTOR_BYTES = 512;
+
+    private static final int CHUNKS = SIZE * SIZE * HEIGHT;
+    private static final int HEADER_SECTORS = (CHUNKS * 4 + SECTOR_BYTES - 1) / SECTOR_BYTES;
+    private static final int MAX_CHUNK_SECTORS = 255;
+    // Sectors added to the mapping whenever it runs out of space
+    private static final int GROW_SECTORS = 256;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private MappedByteBuffer buffer;
+    private int sectorCount;
+    private final int[] entries = new int[CHUNKS];
+    private final BitSet usedSectors = new BitSet();
+    private boolean closed;
+
+    public RegionFile(Path path) throws IOException {
+        this.path = path;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            int fileSectors = (int) ((channel.size() + SECTOR_BYTES - 1) / SECTOR_BYTES);
+            map(Math.max(fileSectors, HEADER_SECTORS + GROW_SECTORS));
+            readHeader();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Index of a chunk, local x and z in [0, SIZE) and chunk y in the world's range
+    public static int index(int localX, int chunkY, int localZ) {
+        return localX + localZ * SIZE + (chunkY - World.MIN_CHUNK_Y) * SIZE * SIZE;
+    }
+
+    public boolean contains(int index) {
+        lock.readLock().lock();
+        try {
+            return entries[index] != 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Decodes the chunk at index with serializer, straight from the mapped file.
+     *
+     * @return null if the chunk was never saved
+     * @throws ClosedChannelException if the file was closed
+     */
+    public ChunkStorage read(int index, ChunkSerializer serializer) throws IOException {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            int entry = entries[index];
+            if (entry == 0) return null;
+
+            int offset = (entry >>> 8) * SECTOR_BYTES;
+            int length = buffer.getInt(offset);
+            if (length <= 0 || length > (entry & 0xFF) * SECTOR_BYTES - 4) {
+                throw new IOException("Bad chunk length " + length + " in " + path);
+            }
+            return serializer.decode(buffer.slice(offset + 4, length));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores payload (from {@link ChunkSerializer#encode}) as the chunk at index, replacing any previous copy.
+     *
+     * @throws ClosedChannelException if the file was closed
+     */
+    public void write(int index, ByteBuffer payload) throws IOException {
+        int length = payload.remaining();
+        int sectors = (length + 4 + SECTOR_BYTES - 1) / SECTOR_BYTES;
+        if (sectors > MAX_CHUNK_SECTORS) throw new IOException("Chunk payload too large: " + length + " bytes");
+
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            int sector = allocate(sectors);
+            int offset = sector * SECTOR_BYTES;
+            buffer.putInt(offset, length);
+            buffer.put(offset + 4, payload, payload.position(), length);
+
+            int old = entries[index];
+            int entry = sector << 8 | sectors;
+            entries[index] = entry;
+            buffer.putInt(index * 4, entry);
+            if (old != 0) usedSectors.clear(old >>> 8, (old >>> 8) + (old & 0xFF));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Writes mapped changes through to the disk
+    public void flush() {
+        lock.readLock().lock();
+        try {
+            if (!closed) buffer.force();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (closed) return;
+            closed = true;
+            buffer.force();
+            buffer = null;
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (closed) throw new ClosedChannelException();
+    }
+
+    private void map(int sectors) throws IOException {
+        // Mapping past the end grows the file
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) sectors * SECTOR_BYTES);
+        sectorCount = sectors;
+    }
+
+    private void readHeader() {
+        usedSectors.set(0, HEADER_SECTORS);
+        for (int i = 0; i < CHUNKS; i++) {
+            int entry = buffer.getInt(i * 4);
+            int sector = entry >>> 8;
+            int count = entry & 0xFF;
+            int nextUsed = usedSectors.nextSetBit(sector);
+            boolean overlaps = nextUsed != -1 && nextUsed < sector + count;
+            // Drop entries that point outside the file or overlap another chunk, e.g. after a crash
+            if (entry != 0 && (sector < HEADER_SECTORS || count == 0 || sector + count > sectorCount || overlaps)) {
+                buffer.putInt(i * 4, 0);
+                entry = 0;
+            }
+            entries[i] = entry;
+            if (entry != 0) usedSectors.set(sector, sector + count);
+        }
+    }
+
+    // First fit run of free sectors, growing the file when none is long enough
+    private int allocate(int sectors) throws IOException {
+        int start = usedSectors.nextClearBit(HEADER_SECTORS);
+        while (start < sectorCount) {
+            int end = usedSectors.nextSetBit(start);
+            if (end == -1 || end - start >= sectors) break;
+            start = usedSectors.nextClearBit(end);
+        }
+        if (start + sectors > sectorCount) {
+            map(Math.max(start + sectors, sectorCount + GROW_SECTORS));
+        }
+        usedSectors.set(start, start + sectors);
+        return start;
+    }
+}
@@ -0,0 +1,170 @@
+package io.github.illuminatijoe.cubegame.core.world.io;
+
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+import io.github.illuminatijoe.cubegame.core.world.World;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Saved chunks of a world: a directory of {@link RegionFile}s named {@code r.<x>.<z>.region}, opened on
+ * demand. At most {@link #MAX_OPEN_FILES} stay open, the least recently used one is closed beyond that.
+ * Safe to use from several threads; chunks are encoded outside the region's lock.
+ */
+public class RegionStorage implements Closeable {
+    public static final int MAX_OPEN_FILES = 64;
+
+    private final Path directory;
+    private final ChunkSerializer serializer;
+    // Access ordered, eldest is the least recently used
+    private final Map<Long, RegionFile> files = new LinkedHashMap<>(16, 0.75f, true);
+    private boolean closed;
+
+    public RegionStorage(Path directory) throws IOException {
+        this(directory, new ChunkSerializer());
+    }
+
+    public RegionStorage(Path directory, ChunkSerializer serializer) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.serializer = serializer;
+    }
+
+    /**
+     * Loads the chunk at chunk coordinates.
+     *
+     * @return null if it was never saved
+     */
+    public ChunkStorage load(int x, int y, int z) throws IOException {
+        checkHeight(y);
+        int index = RegionFile.index(Math.floorMod(x, RegionFile.SIZE), y, Math.floorMod(z, RegionFile.SIZE));
+        while (true) {
+            RegionFile file = open(x, z);
+            try {
+                return file.read(index, serializer);
+            } catch (ClosedChannelException e) {
+                // Evicted by another thread meanwhile, reopen
+            }
+        }
+    }
+
+    // Whether the chunk at chunk coordinates was saved
+    public boolean contains(int x, int y, int z) throws IOException {
+        checkHeight(y);
+        return open(x, z).contains(RegionFile.index(Math.floorMod(x, RegionFile.SIZE), y, Math.floorMod(z, RegionFile.SIZE)));
+    }
+
+    public void save(int x, int y, int z, ChunkStorage storage) throws IOException {
+        checkHeight(y);
+        int index = RegionFile.index(Math.floorMod(x, RegionFile.SIZE), y, Math.floorMod(z, RegionFile.SIZE));
+        ByteBuffer payload = serializer.encode(storage);
+        while (true) {
+            RegionFile file = open(x, z);
+            try {
+                file.write(index, payload);
+                return;
+            } catch (ClosedChannelException e) {
+                // Evicted by another thread meanwhile, reopen
+            }
+        }
+    }
+
+    // Forces everything written so far to the disk
+    public void flush() {
+        for (RegionFile file : openFiles()) {
+            file.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        List<RegionFile> open;
+        synchronized (files) {
+            closed = true;
+            open = new ArrayList<>(files.values());
+            files.clear();
+        }
+
+        IOException failure = null;
+        for (RegionFile file : open) {
+            try {
+                file.close();
+            } catch (IOException e) {
+                if (failure == null) failure = e;
+                else failure.addSuppressed(e);
+            }
+        }
+        if (failure != null) throw failure;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public ChunkSerializer getSerializer() {
+        return serializer;
+    }
+
+    // Region files currently open
+    int getOpenFileCount() {
+        synchronized (files) {
+            return files.size();
+        }
+    }
+
+    // Whether the region file holding the column at chunk coordinates is open, without opening it
+    boolean isOpen(int chunkX, int chunkZ) {
+        long key = regionKey(Math.floorDiv(chunkX, RegionFile.SIZE), Math.floorDiv(chunkZ, RegionFile.SIZE));
+        synchronized (files) {
+            // Not get, which would count as an access
+            return files.containsKey(key);
+        }
+    }
+
+    private RegionFile open(int chunkX, int chunkZ) throws IOException {
+        int regionX = Math.floorDiv(chunkX, RegionFile.SIZE);
+        int regionZ = Math.floorDiv(chunkZ, RegionFile.SIZE);
+        long key = regionKey(regionX, regionZ);
+
+        synchronized (files) {
+            if (closed) throw new ClosedChannelException();
+            RegionFile file = files.get(key);
+            if (file == null) {
+                file = new RegionFile(directory.resolve("r." + regionX + "." + regionZ + ".region"));
+                files.put(key, file);
+                if (files.size() > MAX_OPEN_FILES) {
+                    Iterator<RegionFile> eldest = files.values().iterator();
+                    RegionFile evicted = eldest.next();
+                    eldest.remove();
+                    // Closed before anyone can reopen the same file, waiting for reads and writes in progress on it
+                    evicted.close();
+                }
+            }
+            return file;
+        }
+    }
+
+    private static long regionKey(int regionX, int regionZ) {
+        return (long) regionX << 32 | (regionZ & 0xFFFFFFFFL);
+    }
+
+    private List<RegionFile> openFiles() {
+        synchronized (files) {
+            return new ArrayList<>(files.values());
+        }
+    }
+
+    private static void checkHeight(int y) {
+        if (y < World.MIN_CHUNK_Y || y > World.MAX_CHUNK_Y) {
+            throw new IllegalArgumentException("Chunk y " + y + " outside the world");
+        }
+    }
+}
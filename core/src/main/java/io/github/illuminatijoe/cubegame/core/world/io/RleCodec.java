@@ -0,0 +1,124 @@
+package io.github.illuminatijoe.cubegame.core.world.io;
+
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Run-length encoded palette indices, pure Java. The palette size and the palette in order of first
+ * appearance, then runs in index order: the run length as a varint followed by the palette index,
+ * one byte each for palettes of up to 256 entries and two otherwise.
+ * <p>
+ * Index order walks x first, so terrain layers of one block become a handful of long runs.
+ */
+public class RleCodec implements ChunkCodec {
+    public static final byte ID = 2;
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public String getName() {
+        return "rle";
+    }
+
+    @Override
+    public void encode(ChunkStorage storage, ByteBuffer out) {
+        Buffers buffers = BUFFERS.get();
+        char[] ids = buffers.ids;
+        int[] slots = buffers.slots;
+        char[] palette = buffers.palette;
+        storage.copyTo(ids);
+
+        int paletteSize = 0;
+        for (int i = 0; i < ChunkStorage.VOLUME; i++) {
+            char id = ids[i];
+            if (slots[id] == 0) {
+                palette[paletteSize++] = id;
+                slots[id] = paletteSize;
+            }
+        }
+
+        out.putChar((char) paletteSize);
+        for (int i = 0; i < paletteSize; i++) out.putChar(palette[i]);
+
+        boolean wide = paletteSize > 256;
+        int start = 0;
+        while (start < ChunkStorage.VOLUME) {
+            char id = ids[start];
+            int end = start + 1;
+            while (end < ChunkStorage.VOLUME && ids[end] == id) end++;
+
+            putVarInt(out, end - start);
+            int index = slots[id] - 1;
+            if (wide) out.putChar((char) index);
+            else out.put((byte) index);
+            start = end;
+        }
+
+        // Leave the lookup clean for the next chunk
+        for (int i = 0; i < paletteSize; i++) slots[palette[i]] = 0;
+    }
+
+    @Override
+    public ChunkStorage decode(ByteBuffer in) throws IOException {
+        try {
+            int paletteSize = in.getChar();
+            if (paletteSize < 1 || paletteSize > ChunkStorage.VOLUME) {
+                throw new IOException("Bad palette size " + paletteSize);
+            }
+
+            Buffers buffers = BUFFERS.get();
+            char[] palette = buffers.palette;
+            for (int i = 0; i < paletteSize; i++) palette[i] = in.getChar();
+
+            char[] ids = buffers.ids;
+            boolean wide = paletteSize > 256;
+            int start = 0;
+            while (start < ChunkStorage.VOLUME) {
+                int length = getVarInt(in);
+                int index = wide ? in.getChar() : in.get() & 0xFF;
+                if (length < 1 || length > ChunkStorage.VOLUME - start) throw new IOException("Bad run length " + length);
+                if (index >= paletteSize) throw new IOException("Bad palette index " + index);
+
+                Arrays.fill(ids, start, start + length, palette[index]);
+                start += length;
+            }
+            return ChunkStorage.of(ids);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt run-length encoded chunk", e);
+        }
+    }
+
+    // 7 bits per byte, low bits first, high bit set on all but the last byte
+    private static void putVarInt(ByteBuffer out, int value) {
+        while (value >= 0x80) {
+            out.put((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static int getVarInt(ByteBuffer in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IOException("Bad varint");
+    }
+
+    private static class Buffers {
+        final char[] ids = new char[ChunkStorage.VOLUME];
+        final char[] palette = new char[ChunkStorage.VOLUME];
+        // Palette index + 1 of every id seen in the chunk being encoded, 0 for the rest
+        final int[] slots = new int[Character.MAX_VALUE + 1];
+    }
+}
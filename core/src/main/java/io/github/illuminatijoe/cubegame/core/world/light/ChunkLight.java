@@ -0,0 +1,100 @@
+package io.github.illuminatijoe.cubegame.core.world.light;
+
+import io.github.illuminatijoe.cubegame.core.utils.NibbleArray;
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+
+import java.util.Arrays;
+
+/**
+ * Sky and block light of a chunk, 0-15 per voxel in the same index order as {@link ChunkStorage}.
+ * Fully lit air and dark solid chunks keep a single value per channel. Packed light is
+ * {@code sky << 4 | block}, one byte per voxel, as the mesher bakes it into vertices.
+ */
+public class ChunkLight {
+    public static final int SKY = 0;
+    public static final int BLOCK = 1;
+    public static final int MAX = 15;
+    // Packed light of open sky
+    public static final byte FULL_SKY = (byte) (MAX << 4);
+
+    private static final int SIZE = ChunkStorage.SIZE;
+    // Index strides of the x, y and z axes
+    private static final int[] STRIDE = { 1, ChunkStorage.AREA, SIZE };
+
+    private final NibbleArray sky;
+    private final NibbleArray block;
+
+    public ChunkLight() {
+        this(new NibbleArray(ChunkStorage.VOLUME), new NibbleArray(ChunkStorage.VOLUME));
+    }
+
+    private ChunkLight(NibbleArray sky, NibbleArray block) {
+        this.sky = sky;
+        this.block = block;
+    }
+
+    public int get(int channel, int index) {
+        return channel == SKY ? sky.get(index) : block.get(index);
+    }
+
+    public void set(int channel, int index, int value) {
+        if (channel == SKY) sky.set(index, value);
+        else block.set(index, value);
+    }
+
+    public void fill(int channel, int value) {
+        if (channel == SKY) sky.fill(value);
+        else block.fill(value);
+    }
+
+    // Whether every voxel of channel holds value
+    public boolean isUniform(int channel, int value) {
+        NibbleArray array = channel == SKY ? sky : block;
+        return array.isUniform() && array.get(0) == value;
+    }
+
+    public int getPacked(int index) {
+        return sky.get(index) << 4 | block.get(index);
+    }
+
+    // Packed light of every voxel into out, which must hold at least VOLUME entries
+    public void copyPacked(byte[] out) {
+        if (sky.isUniform() && block.isUniform()) {
+            Arrays.fill(out, 0, ChunkStorage.VOLUME, (byte) getPacked(0));
+            return;
+        }
+        for (int i = 0; i < ChunkStorage.VOLUME; i++) {
+            out[i] = (byte) getPacked(i);
+        }
+    }
+
+    // Packed light of the slice at layer along axis, in the order of ChunkStorage.copySlice
+    public void copySlice(int axis, int layer, byte[] out) {
+        copySlice(axis, layer, out, 0);
+    }
+
+    // Like copySlice(axis, layer, out), writing from out[offset]
+    public void copySlice(int axis, int layer, byte[] out, int offset) {
+        if (sky.isUniform() && block.isUniform()) {
+            Arrays.fill(out, offset, offset + ChunkStorage.AREA, (byte) getPacked(0));
+            return;
+        }
+
+        int uStride = STRIDE[(axis + 1) % 3];
+        int vStride = STRIDE[(axis + 2) % 3];
+        int base = layer * STRIDE[axis];
+        for (int j = 0, n = offset; j < SIZE; j++) {
+            for (int i = 0; i < SIZE; i++, n++) {
+                out[n] = (byte) getPacked(base + i * uStride + j * vStride);
+            }
+        }
+    }
+
+    public ChunkLight copy() {
+        return new ChunkLight(sky.copy(), block.copy());
+    }
+
+    public long getMemoryUsage() {
+        return 16 + sky.getMemoryUsage() + block.getMemoryUsage();
+    }
+}
@@ -0,0 +1,451 @@
+package io.github.illuminatijoe.cubegame.core.world.light;
+
+import io.github.illuminatijoe.cubegame.core.Direction;
+import io.github.illuminatijoe.cubegame.core.world.BlockKey;
+import io.github.illuminatijoe.cubegame.core.world.Chunk;
+import io.github.illuminatijoe.cubegame.core.world.ChunkKey;
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+import io.github.illuminatijoe.cubegame.core.world.World;
+import io.github.illuminatijoe.cubegame.core.world.block.BlockRegistry;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Flood fill lighting across the loaded chunks of a {@link World}, render thread only.
+ * <p>
+ * Light spreads from voxel to voxel through non-opaque blocks, losing one level per step. Sky light enters
+ * at the top of the world and travels straight down without losing any; block light starts at blocks with a
+ * {@link BlockRegistry#getLightEmission light emission}. Both channels are updated incrementally with BFS
+ * queues: an added light source floods outwards, a removed one first clears every voxel it lit and then
+ * refills the gap from the light around it. Only voxels whose light actually changes are visited, so an
+ * edit costs roughly the size of the area it relights, whichever chunks that spans.
+ * <p>
+ * A chunk is lit when it joins the world: open sky columns are filled straight down (on through the
+ * loaded chunks below), without the BFS, then light spreads sideways and in from the loaded neighbours.
+ * Without the chunk above the sky stays dark until that chunk arrives. Unloading leaves the neighbours'
+ * light as is; reloading the same blocks restores the same light.
+ * Every operation adds the chunks whose meshes show changed light to a caller's collection.
+ */
+public class LightEngine {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final int SIZE = ChunkStorage.SIZE;
+    private static final int LAST = SIZE - 1;
+    private static final int CACHE_SIZE = 64;
+
+    // Per Direction ordinal: storage index and key steps towards the neighbour within a chunk
+    private static final int[] INDEX_STEP = new int[6];
+    private static final long[] KEY_STEP = new long[6];
+
+    static {
+        for (Direction dir : DIRECTIONS) {
+            INDEX_STEP[dir.ordinal()] = dir.dx + dir.dz * SIZE + dir.dy * ChunkStorage.AREA;
+            KEY_STEP[dir.ordinal()] = BlockKey.delta(dir.dx, dir.dy, dir.dz);
+        }
+    }
+
+    private final World world;
+
+    private final CellQueue addQueue = new CellQueue();
+    private final CellQueue removeQueue = new CellQueue();
+    // Lowest newly sky lit voxel of each column during lightColumns, SIZE for none
+    private final int[] columnBottom = new int[SIZE * SIZE];
+
+    // Direct mapped chunk lookups, valid while their stamp is the current operation's
+    private final long[] cachedKeys = new long[CACHE_SIZE];
+    private final Chunk[] cachedChunks = new Chunk[CACHE_SIZE];
+    private final int[] cachedStamps = new int[CACHE_SIZE];
+    private int stamp;
+    // Chunks with changed light, valid for one operation
+    private Collection<Chunk> changed;
+    private Chunk lastChanged;
+
+    private long visitedCount;
+
+    public LightEngine(World world) {
+        this.world = world;
+    }
+
+    // Lights a chunk that just joined the world and spreads its light into the loaded neighbours
+    public void onChunkAdded(Chunk chunk, Collection<Chunk> changed) {
+        begin(changed);
+
+        ChunkLight light = chunk.getLight();
+        ChunkStorage storage = chunk.getStorage();
+        long key = chunk.getKey();
+        light.fill(ChunkLight.SKY, 0);
+        light.fill(ChunkLight.BLOCK, 0);
+
+        boolean top = ChunkKey.y(key) == World.MAX_CHUNK_Y;
+        Chunk above = top ? null : chunk(ChunkKey.offset(key, 0, 1, 0));
+        if (top || above != null) lightSkyDown(chunk, top ? null : above.getLight());
+        propagate(ChunkLight.SKY);
+
+        if (BlockRegistry.hasLightSources() && !(storage.isUniform() && BlockRegistry.getLightEmission(storage.get(0)) == 0)) {
+            int baseX = ChunkKey.x(key) * SIZE;
+            int baseY = ChunkKey.y(key) * SIZE;
+            int baseZ = ChunkKey.z(key) * SIZE;
+            for (int index = 0; index < ChunkStorage.VOLUME; index++) {
+                int emission = BlockRegistry.getLightEmission(storage.get(index));
+                if (emission == 0) continue;
+                light.set(ChunkLight.BLOCK, index, emission);
+                addQueue.add(BlockKey.of(baseX + (index & LAST), baseY + (index >> 8), baseZ + ((index >> 4) & LAST)), emission);
+            }
+            propagate(ChunkLight.BLOCK);
+        }
+
+        // Light flowing in from the loaded neighbours
+        for (int channel = ChunkLight.SKY; channel <= ChunkLight.BLOCK; channel++) {
+            if (light.isUniform(channel, ChunkLight.MAX)) continue;
+            for (Direction dir : DIRECTIONS) {
+                Chunk neighbor = chunk(ChunkKey.offset(key, dir.dx, dir.dy, dir.dz));
+                if (neighbor == null || neighbor.getLight().isUniform(channel, 0)) continue;
+                addFace(neighbor, dir.opposite(), channel);
+            }
+            propagate(channel);
+        }
+        end();
+    }
+
+    // Updates the light around the block at blockKey after it was changed
+    public void onBlockChanged(long blockKey, Collection<Chunk> changed) {
+        begin(changed);
+        Chunk chunk = chunk(BlockKey.toChunkKey(blockKey));
+        if (chunk == null) {
+            end();
+            return;
+        }
+
+        ChunkLight light = chunk.getLight();
+        int index = BlockKey.toLocalIndex(blockKey);
+        char id = chunk.getStorage().get(index);
+        boolean transparent = BlockRegistry.isTransparent(id);
+        for (int channel = ChunkLight.SKY; channel <= ChunkLight.BLOCK; channel++) {
+            // Clear whatever this voxel lit before, then refill from the light around it
+            int old = light.get(channel, index);
+            if (old > 0) {
+                light.set(channel, index, 0);
+                markChanged(chunk, blockKey);
+                removeQueue.add(blockKey, old);
+                unpropagate(channel);
+            }
+
+            int emission = channel == ChunkLight.BLOCK ? BlockRegistry.getLightEmission(id) : 0;
+            if (emission > 0) {
+                light.set(channel, index, emission);
+                markChanged(chunk, blockKey);
+                addQueue.add(blockKey, emission);
+            }
+            if (transparent) {
+                if (channel == ChunkLight.SKY && BlockKey.y(blockKey) == (World.MAX_CHUNK_Y + 1) * SIZE - 1) {
+                    light.set(channel, index, ChunkLight.MAX);
+                    markChanged(chunk, blockKey);
+                    addQueue.add(blockKey, ChunkLight.MAX);
+                }
+                for (Direction dir : DIRECTIONS) {
+                    long neighborKey = BlockKey.offset(blockKey, dir.dx, dir.dy, dir.dz);
+                    if (chunk(BlockKey.toChunkKey(neighborKey)) != null) addQueue.add(neighborKey, 0);
+                }
+            }
+            propagate(channel);
+        }
+        end();
+    }
+
+    // Voxels whose light was set or cleared so far
+    public long getVisitedCount() {
+        return visitedCount;
+    }
+
+    private void begin(Collection<Chunk> changed) {
+        this.changed = changed;
+        lastChanged = null;
+        // Chunks may have come and gone since the last operation
+        if (++stamp == 0) {
+            Arrays.fill(cachedStamps, 0);
+            stamp = 1;
+        }
+    }
+
+    private void end() {
+        changed = null;
+        lastChanged = null;
+        Arrays.fill(cachedChunks, null);
+    }
+
+    /**
+     * Fills the open sky columns of chunk, lit from above (null for the top of the world), and of every
+     * loaded chunk below them the columns reach. Empty chunks under open sky are filled whole.
+     */
+    private void lightSkyDown(Chunk chunk, ChunkLight above) {
+        while (chunk != null) {
+            ChunkLight light = chunk.getLight();
+            if (chunk.getStorage().isEmpty() && (above == null || above.isUniform(ChunkLight.SKY, ChunkLight.MAX))) {
+                if (light.isUniform(ChunkLight.SKY, ChunkLight.MAX)) return;
+                fillOpenSky(chunk);
+            } else if (!lightColumns(chunk, above)) {
+                return;
+            }
+            above = light;
+            chunk = chunk(ChunkKey.offset(chunk.getKey(), 0, -1, 0));
+        }
+    }
+
+    // Fills an empty chunk with full sky light at once, queueing only its faces towards neighbours that can take light
+    private void fillOpenSky(Chunk chunk) {
+        chunk.getLight().fill(ChunkLight.SKY, ChunkLight.MAX);
+        visitedCount += ChunkStorage.VOLUME;
+
+        long key = chunk.getKey();
+        for (Direction dir : DIRECTIONS) {
+            Chunk neighbor = chunk(ChunkKey.offset(key, dir.dx, dir.dy, dir.dz));
+            if (neighbor == null || neighbor.getLight().isUniform(ChunkLight.SKY, ChunkLight.MAX)) continue;
+
+            ChunkStorage storage = neighbor.getStorage();
+            // Its faces towards this chunk show the new light
+            if (!storage.isEmpty()) changed.add(neighbor);
+            if (storage.isUniform() && BlockRegistry.isOpaque(storage.get(0))) continue;
+            addFace(chunk, dir, -1);
+        }
+    }
+
+    /**
+     * Sets full sky light down every column of chunk that is open to the sky above (null for the top of
+     * the world) until the first opaque block, and queues the newly lit voxels that can spread sideways.
+     *
+     * @return whether any newly lit column reaches the bottom of the chunk
+     */
+    private boolean lightColumns(Chunk chunk, ChunkLight above) {
+        ChunkLight light = chunk.getLight();
+        ChunkStorage storage = chunk.getStorage();
+        int[] bottom = columnBottom;
+        boolean any = false;
+        boolean reachesBottom = false;
+
+        // A column's index is x + z * SIZE, the index of its voxel in layer 0
+        for (int column = 0; column < ChunkStorage.AREA; column++) {
+            bottom[column] = SIZE;
+            if (above != null && above.get(ChunkLight.SKY, column) != ChunkLight.MAX) continue;
+
+            int y = LAST;
+            int index = column + y * ChunkStorage.AREA;
+            if (light.get(ChunkLight.SKY, index) == ChunkLight.MAX) continue;
+            for (; y >= 0; y--, index -= ChunkStorage.AREA) {
+                if (BlockRegistry.isOpaque(storage.get(index))) break;
+                light.set(ChunkLight.SKY, index, ChunkLight.MAX);
+            }
+            bottom[column] = y + 1;
+            if (y < LAST) any = true;
+            if (y < 0) reachesBottom = true;
+        }
+        if (!any) return false;
+
+        long key = chunk.getKey();
+        int baseX = ChunkKey.x(key) * SIZE;
+        int baseY = ChunkKey.y(key) * SIZE;
+        int baseZ = ChunkKey.z(key) * SIZE;
+        for (int column = 0; column < ChunkStorage.AREA; column++) {
+            int x = column & LAST;
+            int z = column >> 4;
+            for (int y = bottom[column]; y < SIZE; y++) {
+                int index = column + y * ChunkStorage.AREA;
+                long voxel = BlockKey.of(baseX + x, baseY + y, baseZ + z);
+                markChanged(chunk, voxel);
+                // Inside the chunk only a darker, open voxel sideways needs this one's light
+                if (x == 0 || x == LAST || z == 0 || z == LAST
+                    || needsLight(storage, light, index - 1) || needsLight(storage, light, index + 1)
+                    || needsLight(storage, light, index - SIZE) || needsLight(storage, light, index + SIZE)) {
+                    addQueue.add(voxel, ChunkLight.MAX);
+                }
+            }
+        }
+        return reachesBottom;
+    }
+
+    private static boolean needsLight(ChunkStorage storage, ChunkLight light, int index) {
+        return light.get(ChunkLight.SKY, index) < ChunkLight.MAX - 1 && !BlockRegistry.isOpaque(storage.get(index));
+    }
+
+    // Floods light outwards from every voxel in the add queue
+    private void propagate(int channel) {
+        CellQueue queue = addQueue;
+        while (!queue.isEmpty()) {
+            long key = queue.peekKey();
+            queue.poll();
+            Chunk chunk = chunk(BlockKey.toChunkKey(key));
+            if (chunk == null) continue;
+
+            int index = BlockKey.toLocalIndex(key);
+            int level = chunk.getLight().get(channel, index);
+            if (level <= 1) continue;
+
+            for (Direction dir : DIRECTIONS) {
+                Chunk neighbor = chunk;
+                int neighborIndex = index + INDEX_STEP[dir.ordinal()];
+                long neighborKey = key + KEY_STEP[dir.ordinal()];
+                if (!isInside(dir, index)) {
+                    neighborKey = BlockKey.offset(key, dir.dx, dir.dy, dir.dz);
+                    neighbor = chunk(BlockKey.toChunkKey(neighborKey));
+                    if (neighbor == null) continue;
+                    neighborIndex = BlockKey.toLocalIndex(neighborKey);
+                }
+                if (BlockRegistry.isOpaque(neighbor.getStorage().get(neighborIndex))) continue;
+
+                int target = channel == ChunkLight.SKY && dir == Direction.DOWN && level == ChunkLight.MAX ? level : level - 1;
+                ChunkLight light = neighbor.getLight();
+                if (light.get(channel, neighborIndex) >= target) continue;
+
+                light.set(channel, neighborIndex, target);
+                markChanged(neighbor, neighborKey);
+                queue.add(neighborKey, target);
+            }
+        }
+    }
+
+    // Clears the light that came from the voxels in the remove queue, queueing brighter voxels to refill it
+    private void unpropagate(int channel) {
+        CellQueue queue = removeQueue;
+        while (!queue.isEmpty()) {
+            long key = queue.peekKey();
+            int level = queue.peekValue();
+            queue.poll();
+            Chunk chunk = chunk(BlockKey.toChunkKey(key));
+            int index = BlockKey.toLocalIndex(key);
+
+            for (Direction dir : DIRECTIONS) {
+                Chunk neighbor = chunk;
+                int neighborIndex = index + INDEX_STEP[dir.ordinal()];
+                long neighborKey = key + KEY_STEP[dir.ordinal()];
+                if (!isInside(dir, index)) {
+                    neighborKey = BlockKey.offset(key, dir.dx, dir.dy, dir.dz);
+                    neighbor = chunk(BlockKey.toChunkKey(neighborKey));
+                    if (neighbor == null) continue;
+                    neighborIndex = BlockKey.toLocalIndex(neighborKey);
+                }
+
+                ChunkLight light = neighbor.getLight();
+                int neighborLevel = light.get(channel, neighborIndex);
+                if (neighborLevel == 0) continue;
+
+                boolean skyColumn = channel == ChunkLight.SKY && dir == Direction.DOWN && level == ChunkLight.MAX;
+                if (neighborLevel < level || skyColumn && neighborLevel == ChunkLight.MAX) {
+                    light.set(channel, neighborIndex, 0);
+                    markChanged(neighbor, neighborKey);
+                    queue.add(neighborKey, neighborLevel);
+
+                    // Sources keep shining
+                    int emission = channel == ChunkLight.BLOCK ? BlockRegistry.getLightEmission(neighbor.getStorage().get(neighborIndex)) : 0;
+                    if (emission > 0) {
+                        light.set(channel, neighborIndex, emission);
+                        addQueue.add(neighborKey, emission);
+                    }
+                } else {
+                    // Lit from elsewhere, spreads back into the cleared voxels
+                    addQueue.add(neighborKey, neighborLevel);
+                }
+            }
+        }
+    }
+
+    // Whether the neighbour of the voxel at index in direction dir is in the same chunk
+    private static boolean isInside(Direction dir, int index) {
+        int local = dir.axis == 0 ? index & LAST : dir.axis == 1 ? index >> 8 : (index >> 4) & LAST;
+        return dir.negative ? local > 0 : local < LAST;
+    }
+
+    // Queues the layer of chunk facing direction dir, only the voxels lit above 1 in litChannel unless it is -1
+    private void addFace(Chunk chunk, Direction dir, int litChannel) {
+        ChunkLight light = chunk.getLight();
+        long key = chunk.getKey();
+        int baseX = ChunkKey.x(key) * SIZE;
+        int baseY = ChunkKey.y(key) * SIZE;
+        int baseZ = ChunkKey.z(key) * SIZE;
+        int layer = dir.negative ? 0 : LAST;
+        for (int a = 0; a < SIZE; a++) {
+            for (int b = 0; b < SIZE; b++) {
+                int x = dir.axis == 0 ? layer : a;
+                int y = dir.axis == 1 ? layer : dir.axis == 0 ? a : b;
+                int z = dir.axis == 2 ? layer : b;
+                if (litChannel >= 0 && light.get(litChannel, ChunkStorage.index(x, y, z)) <= 1) continue;
+                addQueue.add(BlockKey.of(baseX + x, baseY + y, baseZ + z), 0);
+            }
+        }
+    }
+
+    // Records that the mesh of chunk, and of any neighbour the voxel at key touches, shows changed light
+    private void markChanged(Chunk chunk, long key) {
+        visitedCount++;
+        if (chunk != lastChanged) {
+            lastChanged = chunk;
+            if (!chunk.getStorage().isEmpty()) changed.add(chunk);
+        }
+
+        int x = BlockKey.x(key) & LAST;
+        int y = BlockKey.y(key) & LAST;
+        int z = BlockKey.z(key) & LAST;
+        if (x == 0) markNeighbor(chunk, -1, 0, 0);
+        else if (x == LAST) markNeighbor(chunk, 1, 0, 0);
+        if (y == 0) markNeighbor(chunk, 0, -1, 0);
+        else if (y == LAST) markNeighbor(chunk, 0, 1, 0);
+        if (z == 0) markNeighbor(chunk, 0, 0, -1);
+        else if (z == LAST) markNeighbor(chunk, 0, 0, 1);
+    }
+
+    private void markNeighbor(Chunk chunk, int dx, int dy, int dz) {
+        Chunk neighbor = chunk(ChunkKey.offset(chunk.getKey(), dx, dy, dz));
+        if (neighbor != null && !neighbor.getStorage().isEmpty()) changed.add(neighbor);
+    }
+
+    private Chunk chunk(long chunkKey) {
+        int slot = (ChunkKey.x(chunkKey) & 3) | (ChunkKey.y(chunkKey) & 3) << 2 | (ChunkKey.z(chunkKey) & 3) << 4;
+        if (cachedStamps[slot] != stamp || cachedKeys[slot] != chunkKey) {
+            cachedStamps[slot] = stamp;
+            cachedKeys[slot] = chunkKey;
+            cachedChunks[slot] = world.getChunk(chunkKey);
+        }
+        return cachedChunks[slot];
+    }
+
+    // FIFO of voxel keys with a light level each, drained completely by every operation
+    private static class CellQueue {
+        private long[] keys = new long[4096];
+        private byte[] levels = new byte[4096];
+        private int head;
+        private int tail;
+
+        void add(long key, int level) {
+            if (tail == keys.length) {
+                if (head > 0) {
+                    // Reuse the drained front
+                    System.arraycopy(keys, head, keys, 0, tail - head);
+                    System.arraycopy(levels, head, levels, 0, tail - head);
+                    tail -= head;
+                    head = 0;
+                }
+                if (tail == keys.length) {
+                    keys = Arrays.copyOf(keys, keys.length * 2);
+                    levels = Arrays.copyOf(levels, levels.length * 2);
+                }
+            }
+            keys[tail] = key;
+            levels[tail] = (byte) level;
+            tail++;
+        }
+
+        boolean isEmpty() {
+            return head == tail;
+        }
+
+        long peekKey() {
+            return keys[head];
+        }
+
+        int peekValue() {
+            return levels[head];
+        }
+
+        void poll() {
+            if (++head == tail) head = tail = 0;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.illuminatijoe.cubegame.core.world.mesh;
+
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+import io.github.illuminatijoe.cubegame.core.world.block.BlockRegistry;
+
+/**
+ * Levels of detail for distant chunk meshes. At level n every cell of 2^n blocks per axis is replaced
+ * by a single block throughout: opaque if at least half of the cell is, then the most common opaque
+ * block, otherwise air lit by the brightest sky and block light of the cell's open voxels. The chunk
+ * keeps its size and cells stay aligned to it, so the regular {@link ChunkMesher} meshes the result.
+ * Coarser levels are meshed without ambient occlusion, which would differ between the voxels of a cell;
+ * every face of a cell then has one block and light, and greedy merging turns it into at most one quad.
+ * <p>
+ * Neighbouring chunks on the same level cull their shared border against each other's downsampled
+ * cells. Between different levels the surfaces don't line up, so both sides mesh their border as if
+ * facing air and the walls close the gap (skirts).
+ */
+public final class ChunkLod {
+    public static final int MAX_LEVEL = 3;
+
+    // Chunks further than LEVEL_DISTANCES[i] from the player (horizontally, in chunks) are meshed at level i + 1
+    private static final int[] LEVEL_DISTANCES = { 6, 10, 16 };
+
+    private static final int SIZE = ChunkStorage.SIZE;
+    private static final int AREA = ChunkStorage.AREA;
+
+    private ChunkLod() {
+    }
+
+    // Level of a chunk dx and dz chunks away from the player
+    public static int levelFor(int dx, int dz) {
+        int distance2 = dx * dx + dz * dz;
+        int level = 0;
+        while (level < MAX_LEVEL && distance2 > LEVEL_DISTANCES[level] * LEVEL_DISTANCES[level]) level++;
+        return level;
+    }
+
+    // Blocks per cell along each axis
+    public static int scale(int level) {
+        return 1 << level;
+    }
+
+    // Downsamples a chunk's blocks and packed light (ChunkStorage order) to level, in place
+    public static void downsample(char[] blocks, byte[] lights, int level) {
+        int scale = scale(level);
+        if (scale == 1) return;
+
+        for (int cy = 0; cy < SIZE; cy += scale) {
+            for (int cz = 0; cz < SIZE; cz += scale) {
+                for (int cx = 0; cx < SIZE; cx += scale) {
+                    int start = cx + cz * SIZE + cy * AREA;
+                    int cell = reduce(blocks, lights, start, 1, SIZE, AREA, scale);
+                    char id = (char) cell;
+                    byte light = (byte) (cell >>> 16);
+                    for (int y = 0; y < scale; y++) {
+                        for (int z = 0; z < scale; z++) {
+                            int index = start + z * SIZE + y * AREA;
+                            for (int x = 0; x < scale; x++, index++) {
+                                blocks[index] = id;
+                                lights[index] = light;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Downsamples a neighbour's border to level: layers holds its 2^level outermost slices (as captured by
+     * {@link ChunkNeighbors}, touching slice first), slice and lightSlice receive the touching layer of
+     * the neighbour's downsampled blocks and light.
+     */
+    public static void downsampleBorder(char[] layers, byte[] lightLayers, int level, char[] slice, byte[] lightSlice) {
+        int scale = scale(level);
+        for (int cj = 0; cj < SIZE; cj += scale) {
+            for (int ci = 0; ci < SIZE; ci += scale) {
+                int start = ci + cj * SIZE;
+                int cell = reduce(layers, lightLayers, start, 1, SIZE, AREA, scale);
+                char id = (char) cell;
+                byte light = (byte) (cell >>> 16);
+                for (int j = 0; j < scale; j++) {
+                    int n = start + j * SIZE;
+                    for (int i = 0; i < scale; i++, n++) {
+                        slice[n] = id;
+                        lightSlice[n] = light;
+                    }
+                }
+            }
+        }
+    }
+
+    // Block id | packed light << 16 of the cell of scale^3 voxels at start, spanning strides a, b and c
+    private static int reduce(char[] blocks, byte[] lights, int start, int strideA, int strideB, int strideC, int scale) {
+        // Majority vote among the opaque blocks
+        int candidate = ChunkStorage.AIR;
+        int votes = 0;
+        int opaque = 0;
+        int sky = 0;
+        int block = 0;
+        for (int c = 0; c < scale; c++) {
+            for (int b = 0; b < scale; b++) {
+                int index = start + b * strideB + c * strideC;
+                for (int a = 0; a < scale; a++, index += strideA) {
+                    int id = blocks[index];
+                    if (BlockRegistry.isOpaque(id)) {
+                        opaque++;
+                        if (votes == 0) {
+                            candidate = id;
+                            votes = 1;
+                        } else {
+                            votes += candidate == id ? 1 : -1;
+                        }
+                    } else {
+                        int light = lights[index] & 0xFF;
+                        sky = Math.max(sky, light >>> 4);
+                        block = Math.max(block, light & 0xF);
+                    }
+                }
+            }
+        }
+
+        if (opaque * 2 >= scale * scale * scale) return candidate;
+        return ChunkStorage.AIR | (sky << 4 | block) << 16;
+    }
+}
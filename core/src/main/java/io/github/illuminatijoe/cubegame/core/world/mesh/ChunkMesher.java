@@ -0,0 +1,320 @@
+package io.github.illuminatijoe.cubegame.core.world.mesh;
+
+import io.github.illuminatijoe.cubegame.core.Direction;
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+import io.github.illuminatijoe.cubegame.core.world.block.BlockRegistry;
+import io.github.illuminatijoe.cubegame.core.world.light.ChunkLight;
+
+import java.util.Arrays;
+
+/**
+ * Greedy mesher that turns a chunk's block ids into {@link MeshData}. Each face carries the light of the
+ * voxel in front of it and an ambient occlusion level per corner, from the two side and one diagonal
+ * voxels next to that corner in front of the face. Only faces with the same block, light and occlusion
+ * are merged, so a merged quad shades exactly like the faces it replaces.
+ * <p>
+ * Occlusion across chunk edges and corners, where neither face neighbour has the voxel, treats it as open.
+ * <p>
+ * Distant chunks are meshed from blocks and borders downsampled to a {@link ChunkLod level of detail}
+ * first and without occlusion, the rest is the same.
+ * <p>
+ * All scratch state is owned by the mesher and reused, so meshing a chunk doesn't allocate
+ * (apart from the output growing). It has no GL dependency; uploading the result is a separate step.
+ * A mesher is not thread-safe, use one per thread.
+ */
+public class ChunkMesher {
+    private static final int SIZE = ChunkStorage.SIZE;
+    // Chunk plus one voxel of its neighbours on every side
+    private static final int PADDED = SIZE + 2;
+    // Every corner unoccluded
+    private static final int NO_OCCLUSION = 0xFF;
+
+    // Index strides of the x, y and z axes in ChunkStorage order and in the padded occluder grid
+    private static final int[] STRIDE = { 1, ChunkStorage.AREA, SIZE };
+    private static final int[] PADDED_STRIDE = { 1, PADDED * PADDED, PADDED };
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final char[] blocks = new char[ChunkStorage.VOLUME];
+    private final byte[] lights = new byte[ChunkStorage.VOLUME];
+    // 1 for opaque voxels, padded with the neighbours' border slices
+    private final byte[] occluders = new byte[PADDED * PADDED * PADDED];
+    // Block id | packed light << 16 | corner occlusion << 24 of the visible face in each cell of the current slice, 0 for none
+    private final int[] mask = new int[SIZE * SIZE];
+    // Neighbour borders of the current chunk by Direction ordinal, downsampled into the scratch slices if needed
+    private final char[][] borders = new char[6][];
+    private final byte[][] borderLights = new byte[6][];
+    private final char[][] downsampledBorders = new char[6][ChunkStorage.AREA];
+    private final byte[][] downsampledBorderLights = new byte[6][ChunkStorage.AREA];
+    private final int[] corner = new int[3];
+    private boolean ambientOcclusion = true;
+    // Whether the chunk being meshed gets occlusion, never on coarser levels
+    private boolean occlude;
+
+    // Disabled, every corner is meshed unoccluded and merging only depends on block and light
+    public void setAmbientOcclusion(boolean ambientOcclusion) {
+        this.ambientOcclusion = ambientOcclusion;
+    }
+
+    // Meshes storage as if every face were under open sky
+    public void mesh(ChunkStorage storage, ChunkNeighbors neighbors, MeshData out) {
+        mesh(storage, null, neighbors, out);
+    }
+
+    /**
+     * Meshes storage lit by light (open sky if null) into out. Faces on the chunk border are culled
+     * against neighbors and take their light; sides without a captured neighbour are treated as opaque.
+     */
+    public void mesh(ChunkStorage storage, ChunkLight light, ChunkNeighbors neighbors, MeshData out) {
+        mesh(storage, light, neighbors, 0, out);
+    }
+
+    /**
+     * Meshes storage at a {@link ChunkLod} level. Neighbours on the same level must have been captured
+     * {@link ChunkLod#scale scale} layers deep so their borders can be downsampled as well.
+     */
+    public void mesh(ChunkStorage storage, ChunkLight light, ChunkNeighbors neighbors, int level, MeshData out) {
+        out.clear();
+        if (storage.isEmpty()) return;
+        resolveBorders(neighbors, level);
+        // Occlusion varies between the voxels of a cell and would split its faces again
+        occlude = ambientOcclusion && level == 0;
+        if (storage.isUniform()) {
+            meshUniform(storage.get(0), out);
+            return;
+        }
+
+        storage.copyTo(blocks);
+        if (light == null) Arrays.fill(lights, ChunkLight.FULL_SKY);
+        else light.copyPacked(lights);
+        ChunkLod.downsample(blocks, lights, level);
+        if (occlude) fillOccluders(true);
+        for (Direction dir : DIRECTIONS) {
+            meshDirection(dir, borders[dir.ordinal()], borderLights[dir.ordinal()], out);
+        }
+    }
+
+    private void resolveBorders(ChunkNeighbors neighbors, int level) {
+        int scale = ChunkLod.scale(level);
+        for (Direction dir : DIRECTIONS) {
+            int side = dir.ordinal();
+            char[] border = neighbors.get(dir);
+            byte[] borderLight = neighbors.getLight(dir);
+            // Shallower captures are air or seams, the same on every level
+            if (border != null && scale > 1 && neighbors.getDepth(dir) >= scale) {
+                ChunkLod.downsampleBorder(border, borderLight, level, downsampledBorders[side], downsampledBorderLights[side]);
+                border = downsampledBorders[side];
+                borderLight = downsampledBorderLights[side];
+            }
+            borders[side] = border;
+            borderLights[side] = borderLight;
+        }
+    }
+
+    // Only border faces can show on a chunk of one block, and only where the neighbour's slice isn't opaque
+    private void meshUniform(char id, MeshData out) {
+        if (!BlockRegistry.isOpaque(id)) return;
+        // Faces only look outwards, the chunk's own voxels never occlude them
+        if (occlude) fillOccluders(false);
+
+        for (Direction dir : DIRECTIONS) {
+            char[] border = borders[dir.ordinal()];
+            if (border == null) continue;
+            byte[] borderLight = borderLights[dir.ordinal()];
+
+            int axis = dir.axis;
+            int u = (axis + 1) % 3;
+            int v = (axis + 2) % 3;
+            int uStride = PADDED_STRIDE[u];
+            int vStride = PADDED_STRIDE[v];
+            int front = (dir.negative ? 0 : SIZE + 1) * PADDED_STRIDE[axis];
+
+            boolean any = false;
+            int n = 0;
+            for (int j = 0; j < SIZE; j++) {
+                for (int i = 0; i < SIZE; i++, n++) {
+                    int face = 0;
+                    if (!BlockRegistry.isOpaque(border[n])) {
+                        int ao = occlude ? occlusion(front + (i + 1) * uStride + (j + 1) * vStride, uStride, vStride) : NO_OCCLUSION;
+                        face = id | (borderLight[n] & 0xFF) << 16 | ao << 24;
+                        any = true;
+                    }
+                    mask[n] = face;
+                }
+            }
+            if (!any) continue;
+
+            emitQuads(dir, axis, u, v, dir.negative ? 0 : SIZE, out);
+        }
+    }
+
+    // Copies the opacity of the chunk (unless interior is false) and of its neighbours' border slices into occluders
+    private void fillOccluders(boolean interior) {
+        byte[] occluders = this.occluders;
+        Arrays.fill(occluders, (byte) 0);
+
+        if (interior) {
+            int index = 0;
+            for (int y = 0; y < SIZE; y++) {
+                for (int z = 0; z < SIZE; z++) {
+                    int padded = 1 + (z + 1) * PADDED + (y + 1) * PADDED * PADDED;
+                    for (int x = 0; x < SIZE; x++, index++) {
+                        if (BlockRegistry.isOpaque(blocks[index])) occluders[padded + x] = 1;
+                    }
+                }
+            }
+        }
+
+        for (Direction dir : DIRECTIONS) {
+            char[] border = borders[dir.ordinal()];
+            if (border == null) continue;
+
+            int axis = dir.axis;
+            int uStride = PADDED_STRIDE[(axis + 1) % 3];
+            int vStride = PADDED_STRIDE[(axis + 2) % 3];
+            int base = (dir.negative ? 0 : SIZE + 1) * PADDED_STRIDE[axis];
+            int n = 0;
+            for (int j = 0; j < SIZE; j++) {
+                for (int i = 0; i < SIZE; i++, n++) {
+                    if (BlockRegistry.isOpaque(border[n])) occluders[base + (i + 1) * uStride + (j + 1) * vStride] = 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Occlusion of the four corners of the face whose front voxel is at padded index front, 2 bits each in
+     * the order (-u, -v), (+u, -v), (+u, +v), (-u, +v).
+     */
+    private int occlusion(int front, int uStride, int vStride) {
+        byte[] o = occluders;
+        int below = o[front - vStride];
+        int above = o[front + vStride];
+        int left = o[front - uStride];
+        int right = o[front + uStride];
+        return cornerOcclusion(left, below, o[front - uStride - vStride])
+            | cornerOcclusion(right, below, o[front + uStride - vStride]) << 2
+            | cornerOcclusion(right, above, o[front + uStride + vStride]) << 4
+            | cornerOcclusion(left, above, o[front - uStride + vStride]) << 6;
+    }
+
+    // 3 for an open corner down to 0 where both sides are solid, whatever the diagonal
+    private static int cornerOcclusion(int side1, int side2, int diagonal) {
+        if (side1 + side2 == 2) return 0;
+        return 3 - side1 - side2 - diagonal;
+    }
+
+    private void meshDirection(Direction dir, char[] border, byte[] borderLight, MeshData out) {
+        int axis = dir.axis;
+        int u = (axis + 1) % 3;
+        int v = (axis + 2) % 3;
+        int step = dir.negative ? -1 : 1;
+        int axisStride = STRIDE[axis];
+        int uStride = STRIDE[u];
+        int vStride = STRIDE[v];
+        int paddedUStride = PADDED_STRIDE[u];
+        int paddedVStride = PADDED_STRIDE[v];
+
+        for (int layer = 0; layer < SIZE; layer++) {
+            int neighborLayer = layer + step;
+            boolean neighborInside = neighborLayer >= 0 && neighborLayer < SIZE;
+            int front = (neighborLayer + 1) * PADDED_STRIDE[axis];
+
+            int n = 0;
+            for (int j = 0; j < SIZE; j++) {
+                for (int i = 0; i < SIZE; i++, n++) {
+                    int index = layer * axisStride + i * uStride + j * vStride;
+                    int id = blocks[index];
+
+                    int face = 0;
+                    if (BlockRegistry.isOpaque(id)) {
+                        if (neighborInside) {
+                            int neighborIndex = index + step * axisStride;
+                            if (!BlockRegistry.isOpaque(blocks[neighborIndex])) face = id | (lights[neighborIndex] & 0xFF) << 16;
+                        } else if (border != null && !BlockRegistry.isOpaque(border[n])) {
+                            face = id | (borderLight[n] & 0xFF) << 16;
+                        }
+                        if (face != 0) {
+                            int ao = occlude
+                                ? occlusion(front + (i + 1) * paddedUStride + (j + 1) * paddedVStride, paddedUStride, paddedVStride)
+                                : NO_OCCLUSION;
+                            face |= ao << 24;
+                        }
+                    }
+                    mask[n] = face;
+                }
+            }
+
+            int plane = dir.negative ? layer : layer + 1;
+            emitQuads(dir, axis, u, v, plane, out);
+        }
+    }
+
+    private void emitQuads(Direction dir, int axis, int u, int v, int plane, MeshData out) {
+        int[] mask = this.mask;
+        int[] p = corner;
+
+        for (int j = 0; j < SIZE; j++) {
+            for (int i = 0; i < SIZE; ) {
+                int face = mask[i + j * SIZE];
+                if (face == 0) {
+                    i++;
+                    continue;
+                }
+
+                int w = 1;
+                while (i + w < SIZE && mask[i + w + j * SIZE] == face) w++;
+
+                int h = 1;
+                outer:
+                for (; j + h < SIZE; h++) {
+                    for (int k = 0; k < w; k++) {
+                        if (mask[i + k + (j + h) * SIZE] != face) break outer;
+                    }
+                }
+
+                p[axis] = plane;
+                p[u] = i;
+                p[v] = j;
+                emitQuad(dir, u, v, w, h, face, out);
+
+                for (int l = 0; l < h; l++) {
+                    for (int k = 0; k < w; k++) {
+                        mask[i + k + (j + l) * SIZE] = 0;
+                    }
+                }
+                i += w;
+            }
+        }
+    }
+
+    // Emits the quad at corner spanning w along u and h along v, wound counter-clockwise seen from outside
+    private void emitQuad(Direction dir, int u, int v, int w, int h, int face, MeshData out) {
+        int[] p = corner;
+        int x = p[0], y = p[1], z = p[2];
+
+        int dux = u == 0 ? w : 0, duy = u == 1 ? w : 0, duz = u == 2 ? w : 0;
+        int dvx = v == 0 ? h : 0, dvy = v == 1 ? h : 0, dvz = v == 2 ? h : 0;
+        int side = dir.ordinal();
+        int layer = BlockRegistry.getTextureIndex(face & 0xFFFF);
+        int light = (face >>> 16) & 0xFF;
+        int ao = face >>> 24;
+
+        if (!dir.negative) {
+            out.quad(
+                x, y, z,
+                x + dux, y + duy, z + duz,
+                x + dux + dvx, y + duy + dvy, z + duz + dvz,
+                x + dvx, y + dvy, z + dvz,
+                side, layer, light, ao);
+        } else {
+            // Corners come in the order (-u, -v), (-u, +v), (+u, +v), (+u, -v)
+            ao = ao & 0x33 | (ao & 0x0C) << 4 | (ao & 0xC0) >>> 4;
+            out.quad(
+                x, y, z,
+                x + dvx, y + dvy, z + dvz,
+                x + dux + dvx, y + duy + dvy, z + duz + dvz,
+                x + dux, y + duy, z + duz,
+                side, layer, light, ao);
+        }
+    }
+}
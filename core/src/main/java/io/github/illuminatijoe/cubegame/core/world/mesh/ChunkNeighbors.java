@@ -0,0 +1,128 @@
+package io.github.illuminatijoe.cubegame.core.world.mesh;
+
+import io.github.illuminatijoe.cubegame.core.Direction;
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+import io.github.illuminatijoe.cubegame.core.world.light.ChunkLight;
+
+import java.util.Arrays;
+
+/**
+ * Read-only copy of the border slices of a chunk's six neighbours, blocks and packed light, taken on the
+ * render thread so the mesher can cull and light faces across chunk borders from a worker thread.
+ * <p>
+ * For each direction the slice is the layer of the neighbour touching the chunk, followed by the next
+ * layers inwards when captured deeper for a {@link ChunkLod level of detail}. A missing slice means the
+ * neighbour isn't loaded; the mesher treats it as opaque and the chunk gets remeshed once the neighbour
+ * arrives.
+ */
+public class ChunkNeighbors {
+    private static final char[] AIR_SLICE = new char[ChunkStorage.AREA];
+    private static final byte[] SKY_SLICE = new byte[ChunkStorage.AREA];
+
+    static {
+        Arrays.fill(SKY_SLICE, ChunkLight.FULL_SKY);
+    }
+
+    private final char[][] slices = new char[6][];
+    private final byte[][] lightSlices = new byte[6][];
+    private final int[] depths = new int[6];
+    private int presentMask;
+
+    public void clear() {
+        Arrays.fill(slices, null);
+        Arrays.fill(lightSlices, null);
+        Arrays.fill(depths, 0);
+        presentMask = 0;
+    }
+
+    // Copies the border of the neighbour in direction dir, lit by open sky
+    public void set(Direction dir, ChunkStorage neighbor) {
+        set(dir, neighbor, null);
+    }
+
+    // Copies the border of the neighbour in direction dir and its light, open sky if light is null
+    public void set(Direction dir, ChunkStorage neighbor, ChunkLight light) {
+        set(dir, neighbor, light, 1);
+    }
+
+    // Copies the depth outermost layers of the neighbour in direction dir and their light, touching layer first
+    public void set(Direction dir, ChunkStorage neighbor, ChunkLight light, int depth) {
+        int side = dir.ordinal();
+        int layer = dir.negative ? ChunkStorage.SIZE - 1 : 0;
+        int step = dir.negative ? -1 : 1;
+        int length = depth * ChunkStorage.AREA;
+
+        char[] slice = slices[side];
+        if (slice == null || slice == AIR_SLICE || slice.length < length) {
+            slice = new char[length];
+            slices[side] = slice;
+        }
+        for (int d = 0; d < depth; d++) {
+            neighbor.copySlice(dir.axis, layer + d * step, slice, d * ChunkStorage.AREA);
+        }
+
+        if (light == null && depth == 1) {
+            lightSlices[side] = SKY_SLICE;
+        } else {
+            byte[] lightSlice = lightSlices[side];
+            if (lightSlice == null || lightSlice == SKY_SLICE || lightSlice.length < length) {
+                lightSlice = new byte[length];
+                lightSlices[side] = lightSlice;
+            }
+            for (int d = 0; d < depth; d++) {
+                if (light == null) Arrays.fill(lightSlice, d * ChunkStorage.AREA, (d + 1) * ChunkStorage.AREA, ChunkLight.FULL_SKY);
+                else light.copySlice(dir.axis, layer + d * step, lightSlice, d * ChunkStorage.AREA);
+            }
+        }
+        depths[side] = depth;
+        presentMask |= 1 << side;
+    }
+
+    /**
+     * Marks the neighbour in direction dir as meshed on another level of detail: its blocks don't line up
+     * with the chunk's, so the border is meshed as if facing air, lit by the neighbour's touching layer.
+     */
+    public void setSeam(Direction dir, ChunkLight light) {
+        int side = dir.ordinal();
+        slices[side] = AIR_SLICE;
+        if (light == null) {
+            lightSlices[side] = SKY_SLICE;
+        } else {
+            byte[] lightSlice = lightSlices[side];
+            if (lightSlice == null || lightSlice == SKY_SLICE) {
+                lightSlice = new byte[ChunkStorage.AREA];
+                lightSlices[side] = lightSlice;
+            }
+            light.copySlice(dir.axis, dir.negative ? ChunkStorage.SIZE - 1 : 0, lightSlice);
+        }
+        depths[side] = 1;
+        presentMask |= 1 << side;
+    }
+
+    // Marks the side in direction dir as open air under the sky, e.g. past the top of the world
+    public void setAir(Direction dir) {
+        slices[dir.ordinal()] = AIR_SLICE;
+        lightSlices[dir.ordinal()] = SKY_SLICE;
+        depths[dir.ordinal()] = 1;
+        presentMask |= 1 << dir.ordinal();
+    }
+
+    public char[] get(Direction dir) {
+        return slices[dir.ordinal()];
+    }
+
+    // Packed light of the border slice, null where get is
+    public byte[] getLight(Direction dir) {
+        return lightSlices[dir.ordinal()];
+    }
+
+    // Layers captured in direction dir, 0 if none
+    public int getDepth(Direction dir) {
+        return depths[dir.ordinal()];
+    }
+
+    // Bit per Direction ordinal for every side that was known when captured
+    public int getPresentMask() {
+        return presentMask;
+    }
+}
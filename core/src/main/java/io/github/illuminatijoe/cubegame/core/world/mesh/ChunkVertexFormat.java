@@ -0,0 +1,80 @@
+package io.github.illuminatijoe.cubegame.core.world.mesh;
+
+/**
+ * Compact chunk vertex: two 32-bit ints, 8 bytes instead of 32 for float position, normal and uv.
+ * <pre>
+ * int 0: x (8) | y (8) | z (8) | face (3) | corner (2) | ambient occlusion (2) | unused (1)
+ * int 1: texture layer (16) | block light (4) | sky light (4) | slot (8)
+ * </pre>
+ * Positions are local to the chunk (0-16). Face is the {@link io.github.illuminatijoe.cubegame.core.Direction}
+ * ordinal and corner the vertex's index within its quad. Ambient occlusion runs from 0 (corner
+ * between two solid blocks) to 3 (unoccluded). Light is the packed light of the voxel in front of
+ * the face, as in {@link io.github.illuminatijoe.cubegame.core.world.light.ChunkLight#getPacked}.
+ * The slot is left 0 by the mesher and set on upload to the mesh's slot in its
+ * {@link io.github.illuminatijoe.cubegame.core.render.MeshArena} page, which holds the chunk's offset.
+ * The shader reads every byte as an unsigned byte attribute (little endian), rebuilds the normal from
+ * the face and derives tiling uvs from the position.
+ */
+public final class ChunkVertexFormat {
+    public static final int INTS_PER_VERTEX = 2;
+    public static final int BYTES_PER_VERTEX = INTS_PER_VERTEX * 4;
+
+    private ChunkVertexFormat() {
+    }
+
+    public static int packPosition(int x, int y, int z, int face, int corner) {
+        return packPosition(x, y, z, face, corner, 3);
+    }
+
+    public static int packPosition(int x, int y, int z, int face, int corner, int ao) {
+        return x | y << 8 | z << 16 | face << 24 | corner << 27 | ao << 29;
+    }
+
+    public static int packMaterial(int textureLayer, int light) {
+        return textureLayer & 0xFFFF | (light & 0xFF) << 16;
+    }
+
+    public static int x(int position) {
+        return position & 0xFF;
+    }
+
+    public static int y(int position) {
+        return (position >>> 8) & 0xFF;
+    }
+
+    public static int z(int position) {
+        return (position >>> 16) & 0xFF;
+    }
+
+    public static int face(int position) {
+        return (position >>> 24) & 0x7;
+    }
+
+    public static int corner(int position) {
+        return (position >>> 27) & 0x3;
+    }
+
+    public static int ambientOcclusion(int position) {
+        return (position >>> 29) & 0x3;
+    }
+
+    public static int textureLayer(int material) {
+        return material & 0xFFFF;
+    }
+
+    public static int blockLight(int material) {
+        return (material >>> 16) & 0xF;
+    }
+
+    public static int skyLight(int material) {
+        return (material >>> 20) & 0xF;
+    }
+
+    public static int slot(int material) {
+        return material >>> 24;
+    }
+
+    public static int withSlot(int material, int slot) {
+        return material & 0xFFFFFF | slot << 24;
+    }
+}
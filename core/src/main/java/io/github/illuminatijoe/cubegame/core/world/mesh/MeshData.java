@@ -0,0 +1,101 @@
+package io.github.illuminatijoe.cubegame.core.world.mesh;
+
+import java.util.Arrays;
+
+/**
+ * CPU-side chunk geometry: vertices packed in {@link ChunkVertexFormat} and triangle indices.
+ * Instances are reused between meshing runs, so the arrays only ever grow.
+ */
+public class MeshData {
+    public static final int VERTEX_SIZE = ChunkVertexFormat.INTS_PER_VERTEX;
+
+    private int[] vertices;
+    private short[] indices;
+    private int vertexCount;
+    private int indexCount;
+
+    public MeshData() {
+        this(1024);
+    }
+
+    public MeshData(int initialVertices) {
+        vertices = new int[initialVertices * VERTEX_SIZE];
+        indices = new short[initialVertices / 4 * 6];
+    }
+
+    public void clear() {
+        vertexCount = 0;
+        indexCount = 0;
+    }
+
+    /**
+     * Adds a quad from four corners in counter-clockwise order, light packed as in ChunkLight and the
+     * ambient occlusion level (0-3, 3 unoccluded) of corner k in bits 2k of ao. The quad is split along
+     * the diagonal that keeps the occlusion gradient symmetric.
+     */
+    public void quad(int x0, int y0, int z0,
+                     int x1, int y1, int z1,
+                     int x2, int y2, int z2,
+                     int x3, int y3, int z3,
+                     int face, int textureLayer, int light, int ao) {
+        ensureCapacity(4, 6);
+
+        int base = vertexCount;
+        int material = ChunkVertexFormat.packMaterial(textureLayer, light);
+        int[] vs = vertices;
+        int i = base * VERTEX_SIZE;
+        int ao0 = ao & 3, ao1 = (ao >>> 2) & 3, ao2 = (ao >>> 4) & 3, ao3 = (ao >>> 6) & 3;
+        vs[i] = ChunkVertexFormat.packPosition(x0, y0, z0, face, 0, ao0);
+        vs[i + 1] = material;
+        vs[i + 2] = ChunkVertexFormat.packPosition(x1, y1, z1, face, 1, ao1);
+        vs[i + 3] = material;
+        vs[i + 4] = ChunkVertexFormat.packPosition(x2, y2, z2, face, 2, ao2);
+        vs[i + 5] = material;
+        vs[i + 6] = ChunkVertexFormat.packPosition(x3, y3, z3, face, 3, ao3);
+        vs[i + 7] = material;
+        vertexCount += 4;
+
+        // Splitting along the brighter diagonal would smear a dark corner across the whole quad
+        int first = ao0 + ao2 > ao1 + ao3 ? 1 : 0;
+        short[] is = indices;
+        int j = indexCount;
+        is[j] = (short) (base + first);
+        is[j + 1] = (short) (base + first + 1);
+        is[j + 2] = (short) (base + first + 2);
+        is[j + 3] = (short) (base + first + 2);
+        is[j + 4] = (short) (base + ((first + 3) & 3));
+        is[j + 5] = (short) (base + first);
+        indexCount += 6;
+    }
+
+    private void ensureCapacity(int extraVertices, int extraIndices) {
+        int neededVertices = (vertexCount + extraVertices) * VERTEX_SIZE;
+        if (neededVertices > vertices.length) {
+            vertices = Arrays.copyOf(vertices, Math.max(neededVertices, vertices.length * 2));
+        }
+        int neededIndices = indexCount + extraIndices;
+        if (neededIndices > indices.length) {
+            indices = Arrays.copyOf(indices, Math.max(neededIndices, indices.length * 2));
+        }
+    }
+
+    public int[] getVertices() {
+        return vertices;
+    }
+
+    public short[] getIndices() {
+        return indices;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public int getIndexCount() {
+        return indexCount;
+    }
+
+    public boolean isEmpty() {
+        return indexCount == 0;
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.illuminatijoe.cubegame.core.render;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BlockAtlasPackerTest {
+    private static final long KEY = 0x1234_5678_9ABCL;
+    // Magic, version, key, tile size, columns, rows, level count
+    private static final int LEVEL_COUNT_OFFSET = 28;
+    private static final int FIRST_LENGTH_OFFSET = 32;
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private BlockAtlasPacker.PackedAtlas atlas;
+    private byte[] bytes;
+
+    @BeforeEach
+    void writeAtlas() throws IOException {
+        int[][] tiles = new int[3][];
+        for (int t = 0; t < tiles.length; t++) {
+            tiles[t] = new int[4 * 4];
+            Arrays.fill(tiles[t], 0x10203040 * (t + 1) | 0xFF);
+        }
+        atlas = BlockAtlasPacker.pack(tiles, 4);
+        file = dir.resolve("atlas.bin");
+        BlockAtlasPacker.write(atlas, KEY, file);
+        bytes = Files.readAllBytes(file);
+    }
+
+    @Test
+    void roundTrip() throws IOException {
+        BlockAtlasPacker.PackedAtlas read = BlockAtlasPacker.read(file, KEY);
+        assertNotNull(read);
+        assertEquals(atlas.getTileSize(), read.getTileSize());
+        assertEquals(atlas.getColumns(), read.getColumns());
+        assertEquals(atlas.getRows(), read.getRows());
+        assertEquals(atlas.getLevelCount(), read.getLevelCount());
+        for (int m = 0; m < atlas.getLevelCount(); m++) {
+            assertArrayEquals(atlas.getLevel(m), read.getLevel(m));
+        }
+    }
+
+    @Test
+    void missingOrForeignFileIsSkipped() throws IOException {
+        assertNull(BlockAtlasPacker.read(dir.resolve("missing.bin"), KEY));
+        assertNull(BlockAtlasPacker.read(file, KEY + 1));
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws IOException {
+        for (int length : new int[] { 0, 3, 16, LEVEL_COUNT_OFFSET, FIRST_LENGTH_OFFSET + 2, bytes.length / 2, bytes.length - 1 }) {
+            Files.write(file, Arrays.copyOf(bytes, length));
+            assertNull(BlockAtlasPacker.read(file, KEY), "truncated to " + length);
+        }
+    }
+
+    @Test
+    void trailingBytesAreRejected() throws IOException {
+        Files.write(file, Arrays.copyOf(bytes, bytes.length + 4));
+        assertNull(BlockAtlasPacker.read(file, KEY));
+    }
+
+    @Test
+    void damagedLengthsAreRejected() throws IOException {
+        // Negative, oversized and merely wrong level lengths
+        for (int length : new int[] { -1, Integer.MIN_VALUE, Integer.MAX_VALUE, bytes.length, atlas.getLevel(0).length + 1 }) {
+            assertNull(readPatched(FIRST_LENGTH_OFFSET, length), "level length " + length);
+        }
+        for (int count : new int[] { -1, 0, Integer.MAX_VALUE, atlas.getLevelCount() + 1 }) {
+            assertNull(readPatched(LEVEL_COUNT_OFFSET, count), "level count " + count);
+        }
+    }
+
+    @Test
+    void damagedLayoutIsRejected() throws IOException {
+        // Tile size, columns and rows
+        for (int offset = 16; offset < LEVEL_COUNT_OFFSET; offset += 4) {
+            for (int value : new int[] { 0, -4, 3, 1 << 30 }) {
+                assertNull(readPatched(offset, value), "offset " + offset + " value " + value);
+            }
+        }
+    }
+
+    private BlockAtlasPacker.PackedAtlas readPatched(int offset, int value) throws IOException {
+        byte[] patched = bytes.clone();
+        ByteBuffer.wrap(patched).putInt(offset, value);
+        Files.write(file, patched);
+        return BlockAtlasPacker.read(file, KEY);
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.illuminatijoe.cubegame.core.render;
+
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.math.Plane;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import io.github.illuminatijoe.cubegame.core.world.Chunk;
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ChunkCullerTest {
+    private PerspectiveCamera camera;
+    private Plane[] planes;
+
+    // Frustum.update projects through native Matrix4 code
+    @BeforeAll
+    static void loadNatives() {
+        GdxNativesLoader.load();
+    }
+
+    // At the origin looking down -z with a 90 degree field of view both ways, near 1 and far 100:
+    // the side planes are x = +-z and y = +-z
+    @BeforeEach
+    void setUp() {
+        camera = new PerspectiveCamera(90, 100, 100);
+        camera.position.set(0, 0, 0);
+        camera.direction.set(0, 0, -1);
+        camera.up.set(0, 1, 0);
+        camera.near = 1;
+        camera.far = 100;
+        camera.update();
+        planes = camera.frustum.planes;
+    }
+
+    @Test
+    void boxInsideEveryPlane() {
+        assertEquals(ChunkCuller.INSIDE, ChunkCuller.classify(planes, 0, 0, -50, 1, 1, 1));
+        assertEquals(ChunkCuller.INSIDE, ChunkCuller.classify(planes, 20, -20, -40, 5, 5, 5));
+    }
+
+    @Test
+    void boxesStraddlingEachPlaneIntersect() {
+        // Near and far
+        assertEquals(ChunkCuller.INTERSECTING, ChunkCuller.classify(planes, 0, 0, -1, 0.5f, 0.5f, 0.5f));
+        assertEquals(ChunkCuller.INTERSECTING, ChunkCuller.classify(planes, 0, 0, -100, 1, 1, 1));
+        // Left, right, bottom, top
+        assertEquals(ChunkCuller.INTERSECTING, ChunkCuller.classify(planes, -50, 0, -50, 1, 1, 1));
+        assertEquals(ChunkCuller.INTERSECTING, ChunkCuller.classify(planes, 50, 0, -50, 1, 1, 1));
+        assertEquals(ChunkCuller.INTERSECTING, ChunkCuller.classify(planes, 0, -50, -50, 1, 1, 1));
+        assertEquals(ChunkCuller.INTERSECTING, ChunkCuller.classify(planes, 0, 50, -50, 1, 1, 1));
+    }
+
+    @Test
+    void boxesBeyondEachPlaneAreOutside() {
+        assertEquals(ChunkCuller.OUTSIDE, ChunkCuller.classify(planes, 0, 0, -0.25f, 0.5f, 0.5f, 0.5f));
+        assertEquals(ChunkCuller.OUTSIDE, ChunkCuller.classify(planes, 0, 0, -110, 1, 1, 1));
+        assertEquals(ChunkCuller.OUTSIDE, ChunkCuller.classify(planes, -60, 0, -50, 1, 1, 1));
+        assertEquals(ChunkCuller.OUTSIDE, ChunkCuller.classify(planes, 60, 0, -50, 1, 1, 1));
+        assertEquals(ChunkCuller.OUTSIDE, ChunkCuller.classify(planes, 0, -60, -50, 1, 1, 1));
+        assertEquals(ChunkCuller.OUTSIDE, ChunkCuller.classify(planes, 0, 60, -50, 1, 1, 1));
+        // Behind the camera
+        assertEquals(ChunkCuller.OUTSIDE, ChunkCuller.classify(planes, 0, 0, 50, 1, 1, 1));
+    }
+
+    @Test
+    void boxEnclosingTheFrustumIntersects() {
+        assertEquals(ChunkCuller.INTERSECTING, ChunkCuller.classify(planes, 0, 0, -50, 200, 200, 200));
+    }
+
+    @Test
+    void regionBeyondRenderDistanceIsRejected() {
+        ChunkCuller culler = new ChunkCuller();
+        Chunk near = chunk(0, 0, -2);
+        Chunk behind = chunk(0, 0, 2);
+        culler.onChunkLoaded(near);
+        culler.onChunkLoaded(behind);
+        // A region 20 chunks out, in front of the camera but past a render distance of 4
+        List<Chunk> far = new ArrayList<>();
+        for (int x = 20; x < 20 + ChunkCuller.REGION_SIZE; x++) {
+            far.add(chunk(x, 0, -2));
+            culler.onChunkLoaded(far.get(far.size() - 1));
+        }
+
+        List<Chunk> visible = new ArrayList<>();
+        culler.cull(camera, new Vector3(0, 0, 0), 4, visible);
+
+        assertEquals(1, visible.size());
+        assertSame(near, visible.get(0));
+        assertEquals(ChunkCuller.REGION_SIZE, culler.getDistanceCulledCount());
+        assertEquals(1, culler.getFrustumCulledCount());
+
+        // Unloading the far region drops it from the next pass
+        for (Chunk chunk : far) {
+            culler.onChunkUnloaded(chunk);
+        }
+        culler.cull(camera, new Vector3(0, 0, 0), 4, visible);
+        assertEquals(0, culler.getDistanceCulledCount());
+        assertEquals(2, culler.getRegionsTested());
+    }
+
+    private static Chunk chunk(int x, int y, int z) {
+        return new Chunk(new Vector3(x, y, z), new ChunkStorage());
+    }
+}
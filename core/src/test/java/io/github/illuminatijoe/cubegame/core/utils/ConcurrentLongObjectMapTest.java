@@ -0,0 +1,103 @@
+package io.github.illuminatijoe.cubegame.core.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentLongObjectMapTest {
+    private static final int READERS = 4;
+    private static final long RUN_NANOS = 500_000_000L;
+
+    @Test
+    void optimisticReadsSeeConsistentValuesWhileWritersResize() throws InterruptedException {
+        // Stable keys stay mapped throughout; the first churn keys collide with them, so removals shift the
+        // stable entries around. Every round starts a new map, so its table grows step by step again while
+        // the readers look the stable keys up
+        long[] stable = LongObjectMapTest.colliding(0x0ABC_0000_0000_0000L, 64);
+        long[] churn = new long[8000];
+        System.arraycopy(LongObjectMapTest.colliding(0x0ABC_0000_0000_0000L + 64, 256), 0, churn, 0, 256);
+        Random random = new Random(11);
+        for (int i = 256; i < churn.length; i++) churn[i] = random.nextLong();
+        // Boxed once, remove(key, value) compares by identity
+        Long[] churnValues = new Long[churn.length];
+        for (int i = 0; i < churn.length; i++) churnValues[i] = churn[i];
+        long[] absent = LongObjectMapTest.colliding(0x0DEF_0000_0000_0000L, 64);
+        AtomicReference<ConcurrentLongObjectMap<Long>> current = new AtomicReference<>(withKeys(stable));
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicLong reads = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(READERS + 1);
+        List<Thread> threads = new ArrayList<>();
+
+        threads.add(new Thread(() -> {
+            try {
+                long end = System.nanoTime() + RUN_NANOS;
+                int round = 0;
+                while (System.nanoTime() < end && failure.get() == null) {
+                    int count = 300 + round++ * 300 % (churn.length - 300);
+                    ConcurrentLongObjectMap<Long> map = withKeys(stable);
+                    current.set(map);
+                    for (int i = 0; i < count; i++) map.put(churn[i], churnValues[i]);
+                    for (int i = count - 1; i >= 0; i -= 2) map.remove(churn[i]);
+                    for (int i = 0; i < count; i++) map.remove(churn[i], churnValues[i]);
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                running.set(false);
+                done.countDown();
+            }
+        }, "writer"));
+
+        for (int r = 0; r < READERS; r++) {
+            int offset = r;
+            threads.add(new Thread(() -> {
+                try {
+                    long count = 0;
+                    for (int i = offset; running.get() && failure.get() == null; i++) {
+                        ConcurrentLongObjectMap<Long> map = current.get();
+                        long key = stable[i % stable.length];
+                        Long value = map.get(key);
+                        if (value == null || value != key) throw new AssertionError("Stable key " + key + " read as " + value);
+                        long missing = absent[i % absent.length];
+                        if (map.get(missing) != null) throw new AssertionError("Absent key " + missing + " was found");
+                        count++;
+                    }
+                    reads.addAndGet(count);
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    done.countDown();
+                }
+            }, "reader-" + r));
+        }
+
+        for (Thread thread : threads) thread.start();
+        assertTrue(done.await(30, TimeUnit.SECONDS), "Threads finished");
+        if (failure.get() != null) throw new AssertionError(failure.get());
+
+        assertTrue(reads.get() > 0);
+        ConcurrentLongObjectMap<Long> map = current.get();
+        assertEquals(stable.length, map.size());
+        for (long key : stable) assertEquals(key, map.get(key));
+        for (long key : churn) assertNull(map.get(key));
+    }
+
+    private static ConcurrentLongObjectMap<Long> withKeys(long[] keys) {
+        ConcurrentLongObjectMap<Long> map = new ConcurrentLongObjectMap<>();
+        for (long key : keys) map.put(key, key);
+        return map;
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.illuminatijoe.cubegame.core.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FreeListAllocatorTest {
+    @Test
+    void allocatesFromTheSmallestRangeThatFits() {
+        FreeListAllocator allocator = new FreeListAllocator(100);
+        int a = allocator.allocate(10);
+        int b = allocator.allocate(30);
+        int c = allocator.allocate(10);
+        int d = allocator.allocate(5);
+        allocator.allocate(45);
+        // Free ranges of 30 (b) and 5 (d): a 4 takes the 5, a 20 the 30
+        allocator.free(b, 30);
+        allocator.free(d, 5);
+
+        assertEquals(d, allocator.allocate(4));
+        assertEquals(b, allocator.allocate(20));
+        assertEquals(0, a);
+        assertEquals(40, c);
+    }
+
+    @Test
+    void prefersAnExactFit() {
+        FreeListAllocator allocator = new FreeListAllocator(100);
+        int a = allocator.allocate(20);
+        allocator.allocate(10);
+        int c = allocator.allocate(12);
+        allocator.allocate(58);
+        allocator.free(a, 20);
+        allocator.free(c, 12);
+
+        assertEquals(c, allocator.allocate(12));
+    }
+
+    @Test
+    void coalescesNeighboursOnFree() {
+        FreeListAllocator allocator = new FreeListAllocator(100);
+        int a = allocator.allocate(20);
+        int b = allocator.allocate(20);
+        int c = allocator.allocate(20);
+        allocator.allocate(40);
+
+        allocator.free(a, 20);
+        allocator.free(c, 20);
+        assertEquals(2, allocator.getFreeRangeCount());
+        // b joins both neighbours into one range
+        allocator.free(b, 20);
+        assertEquals(1, allocator.getFreeRangeCount());
+        assertEquals(60, allocator.getLargestFreeRange());
+        assertEquals(0, allocator.allocate(60));
+    }
+
+    @Test
+    void mergesWithTheFreeTail() {
+        FreeListAllocator allocator = new FreeListAllocator(64);
+        int a = allocator.allocate(16);
+        int b = allocator.allocate(16);
+        allocator.free(b, 16);
+        assertEquals(1, allocator.getFreeRangeCount());
+        allocator.free(a, 16);
+        assertEquals(1, allocator.getFreeRangeCount());
+        assertEquals(64, allocator.getLargestFreeRange());
+        assertEquals(0, allocator.getUsed());
+        assertEquals(0, allocator.getAllocationCount());
+    }
+
+    @Test
+    void failsWhenExhausted() {
+        FreeListAllocator allocator = new FreeListAllocator(32);
+        assertEquals(0, allocator.allocate(32));
+        assertEquals(-1, allocator.allocate(1));
+        assertEquals(32, allocator.getUsed());
+        assertEquals(0, allocator.getFree());
+    }
+
+    @Test
+    void failsWhenNoSingleRangeIsLargeEnough() {
+        FreeListAllocator allocator = new FreeListAllocator(40);
+        int a = allocator.allocate(10);
+        allocator.allocate(10);
+        int c = allocator.allocate(10);
+        allocator.allocate(10);
+        allocator.free(a, 10);
+        allocator.free(c, 10);
+
+        assertEquals(20, allocator.getFree());
+        assertEquals(-1, allocator.allocate(15));
+    }
+
+    @Test
+    void rejectsDoubleFreeAndOverlaps() {
+        FreeListAllocator allocator = new FreeListAllocator(40);
+        int a = allocator.allocate(10);
+        allocator.allocate(10);
+        allocator.free(a, 10);
+
+        assertThrows(IllegalArgumentException.class, () -> allocator.free(a, 10));
+        assertThrows(IllegalArgumentException.class, () -> allocator.free(5, 10));
+        assertThrows(IllegalArgumentException.class, () -> allocator.free(35, 10));
+        assertThrows(IllegalArgumentException.class, () -> allocator.allocate(0));
+    }
+
+    @Test
+    void fragmentationAfterScriptedSequence() {
+        FreeListAllocator allocator = new FreeListAllocator(100);
+        assertEquals(0f, allocator.getFragmentation());
+
+        int[] offsets = new int[10];
+        for (int i = 0; i < 10; i++) {
+            offsets[i] = allocator.allocate(10);
+        }
+        // Full, nothing free to fragment
+        assertEquals(0f, allocator.getFragmentation());
+
+        // Free every other range: five separate holes of 10
+        for (int i = 0; i < 10; i += 2) {
+            allocator.free(offsets[i], 10);
+        }
+        assertEquals(5, allocator.getFreeRangeCount());
+        assertEquals(1f - 10f / 50f, allocator.getFragmentation(), 1e-6f);
+
+        // Freeing ranges 1 and 3 joins the first three holes into one of 50, out of 70 free
+        allocator.free(offsets[1], 10);
+        allocator.free(offsets[3], 10);
+        assertEquals(3, allocator.getFreeRangeCount());
+        assertEquals(1f - 50f / 70f, allocator.getFragmentation(), 1e-6f);
+
+        // Everything free is one piece again
+        for (int i = 5; i < 10; i += 2) {
+            allocator.free(offsets[i], 10);
+        }
+        assertEquals(1, allocator.getFreeRangeCount());
+        assertEquals(0f, allocator.getFragmentation());
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.illuminatijoe.cubegame.core.utils;
+
+import io.github.illuminatijoe.cubegame.core.world.ChunkKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongObjectMapTest {
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        Random random = new Random(3);
+        long[] pool = keyPool(random);
+        LongObjectMap<Object> map = new LongObjectMap<>();
+        Map<Long, Object> expected = new HashMap<>();
+        int initialCapacity = map.capacity();
+
+        for (int op = 0; op < 200_000; op++) {
+            long key = pool[random.nextInt(pool.length)];
+            int kind = random.nextInt(100);
+            if (kind < 45) {
+                Object value = new Object();
+                assertSame(expected.put(key, value), map.put(key, value));
+            } else if (kind < 50) {
+                Object value = new Object();
+                assertSame(expected.putIfAbsent(key, value), map.putIfAbsent(key, value));
+            } else if (kind < 80) {
+                assertSame(expected.remove(key), map.remove(key));
+            } else if (kind < 90) {
+                // Half the time the current value, otherwise a stranger
+                Object value = random.nextBoolean() ? expected.get(key) : new Object();
+                boolean removed = value != null && expected.remove(key, value);
+                assertEquals(removed, map.remove(key, value));
+            } else if (kind < 99) {
+                assertSame(expected.get(key), map.get(key));
+                assertEquals(expected.containsKey(key), map.containsKey(key));
+            } else if (random.nextInt(20) == 0) {
+                expected.clear();
+                map.clear();
+            }
+            assertEquals(expected.size(), map.size());
+            if (op % 1000 == 0) assertSameEntries(expected, map);
+        }
+        assertSameEntries(expected, map);
+        assertTrue(map.capacity() > initialCapacity, "Grew at least once");
+    }
+
+    @Test
+    void collidingKeysSurviveRemovalAndGrowth() {
+        long[] colliding = colliding(0x1234_5678_0000_0000L, 200);
+        LongObjectMap<Long> map = new LongObjectMap<>();
+        for (long key : colliding) map.put(key, key);
+        assertTrue(map.capacity() >= 400);
+
+        // Remove every other one from the middle of the run, the rest must be shifted back and still found
+        for (int i = 0; i < colliding.length; i += 2) assertEquals(colliding[i], map.remove(colliding[i]));
+        for (int i = 0; i < colliding.length; i++) {
+            if (i % 2 == 0) assertNull(map.get(colliding[i]));
+            else assertEquals(colliding[i], map.get(colliding[i]));
+        }
+        assertEquals(colliding.length / 2, map.size());
+    }
+
+    @Test
+    void forEachVisitsEveryEntryOnce() {
+        LongObjectMap<String> map = new LongObjectMap<>(4);
+        Map<Long, String> expected = new HashMap<>();
+        for (int i = -50; i < 50; i++) {
+            long key = ChunkKey.of(i, i % 7, -i);
+            String value = "chunk " + i;
+            map.put(key, value);
+            expected.put(key, value);
+        }
+        assertSameEntries(expected, map);
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertTrue(map.isEmpty());
+        map.forEach((key, value) -> {
+            throw new AssertionError("Visited " + key + " after clear");
+        });
+        for (long key : expected.keySet()) assertNull(map.get(key));
+
+        // Still usable after clearing
+        map.put(5, "five");
+        assertEquals("five", map.get(5));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void rejectsNullValues() {
+        LongObjectMap<Object> map = new LongObjectMap<>();
+        assertThrows(IllegalArgumentException.class, () -> map.put(1, null));
+    }
+
+    private static void assertSameEntries(Map<Long, ?> expected, LongObjectMap<?> map) {
+        Map<Long, Object> visited = new HashMap<>();
+        map.forEach((key, value) -> assertNull(visited.put(key, value), "Visited " + key + " twice"));
+        assertEquals(expected.size(), visited.size());
+        for (Map.Entry<Long, ?> entry : expected.entrySet()) {
+            assertSame(entry.getValue(), visited.get(entry.getKey()));
+        }
+    }
+
+    // Chunk keys around the origin, keys colliding in every table size, and extremes
+    static long[] keyPool(Random random) {
+        long[] colliding = colliding(random.nextLong() & 0xFFFF_0000_0000_0000L, 64);
+        long[] pool = new long[400 + colliding.length + 4];
+        for (int i = 0; i < 400; i++) {
+            pool[i] = ChunkKey.of(random.nextInt(32) - 16, random.nextInt(8) - 4, random.nextInt(32) - 16);
+        }
+        System.arraycopy(colliding, 0, pool, 400, colliding.length);
+        int end = 400 + colliding.length;
+        pool[end] = 0;
+        pool[end + 1] = -1;
+        pool[end + 2] = Long.MIN_VALUE;
+        pool[end + 3] = Long.MAX_VALUE;
+        return pool;
+    }
+
+    /**
+     * Keys whose hash only differs in the low bits, so they share a home slot in any table up to 2^40 slots:
+     * the hash multiplies by an odd constant, its inverse turns chosen hashes back into keys.
+     */
+    static long[] colliding(long hashBase, int count) {
+        long inverse = GOLDEN;
+        for (int i = 0; i < 5; i++) inverse *= 2 - GOLDEN * inverse;
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) keys[i] = (hashBase + i) * inverse;
+        return keys;
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.illuminatijoe.cubegame.core.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The batch grid evaluators must give exactly what the scalar functions give at every sample, both on the
+ * cached lattice path and on the per-sample fallback for grids over too large a lattice.
+ */
+class OpenSimplex2SGridTest {
+    private static final long SEED = 0x5EED_C0DEL;
+
+    @Test
+    void noise2GridMatchesScalar() {
+        checkGrid2(SEED, 0, 0, 1, 16, 16);
+        checkGrid2(SEED, -37.25, -1000.5, 0.013, 16, 16);
+        checkGrid2(-SEED, -5.5, 3.75, 2.5, 33, 7);
+        checkGrid2(SEED, 1e6, -1e6, 0.7, 1, 40);
+        // Just under and well over MAX_BATCH_LATTICE_POINTS, the latter falls back to scalar sampling
+        checkGrid2(SEED, -12.3, -45.6, 1, 60, 60);
+        checkGrid2(SEED, -12.3, -45.6, 1, 100, 100);
+        checkGrid2(SEED, 400.1, -7.9, 3.3, 256, 16);
+    }
+
+    @Test
+    void noise3GridMatchesScalar() {
+        checkGrid3(SEED, 0, 0, 0, 1, 16, 16, 16);
+        checkGrid3(SEED, -31.5, -64.25, -17.75, 1 / 48.0, 16, 16, 16);
+        checkGrid3(-SEED, -1e4, 12.5, 3e4, 0.37, 5, 9, 3);
+        checkGrid3(SEED, 7.5, -2.5, -9.25, 2.75, 16, 4, 16);
+        // Lattice over MAX_BATCH_LATTICE_POINTS, falls back to scalar sampling
+        checkGrid3(SEED, -100.5, -20, -100.5, 1, 40, 40, 40);
+    }
+
+    @Test
+    void randomGridsMatchScalar() {
+        Random random = new Random(42);
+        for (int n = 0; n < 200; n++) {
+            long seed = random.nextLong();
+            double step = Math.exp(random.nextDouble() * 6 - 4.5);
+            double x = (random.nextDouble() - 0.5) * 2e4;
+            double y = (random.nextDouble() - 0.5) * 2e4;
+            double z = (random.nextDouble() - 0.5) * 2e4;
+            if (n % 2 == 0) {
+                checkGrid2(seed, x, z, step, 1 + random.nextInt(48), 1 + random.nextInt(48));
+            } else {
+                checkGrid3(seed, x, y, z, step, 1 + random.nextInt(20), 1 + random.nextInt(20), 1 + random.nextInt(20));
+            }
+        }
+    }
+
+    private static void checkGrid2(long seed, double x0, double y0, double step, int width, int height) {
+        float[] out = new float[width * height];
+        OpenSimplex2S.noise2Grid(seed, x0, y0, step, width, height, out);
+        for (int j = 0; j < height; j++) {
+            for (int i = 0; i < width; i++) {
+                float expected = OpenSimplex2S.noise2(seed, x0 + i * step, y0 + j * step);
+                int index = i + j * width;
+                assertEquals(expected, out[index], 0f, () -> "noise2 at " + index + " of grid at " + x0 + "," + y0 + " step " + step);
+            }
+        }
+    }
+
+    private static void checkGrid3(long seed, double x0, double y0, double z0, double step, int sizeX, int sizeY, int sizeZ) {
+        float[] out = new float[sizeX * sizeY * sizeZ];
+        OpenSimplex2S.noise3Grid_ImproveXZ(seed, x0, y0, z0, step, sizeX, sizeY, sizeZ, out);
+        for (int j = 0; j < sizeY; j++) {
+            for (int k = 0; k < sizeZ; k++) {
+                for (int i = 0; i < sizeX; i++) {
+                    float expected = OpenSimplex2S.noise3_ImproveXZ(seed, x0 + i * step, y0 + j * step, z0 + k * step);
+                    int index = i + k * sizeX + j * sizeX * sizeZ;
+                    assertEquals(expected, out[index], 0f,
+                        () -> "noise3 at " + index + " of grid at " + x0 + "," + y0 + "," + z0 + " step " + step);
+                }
+            }
+        }
+    }
+}
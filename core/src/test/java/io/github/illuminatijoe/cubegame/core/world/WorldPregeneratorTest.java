@@ -0,0 +1,64 @@
+package io.github.illuminatijoe.cubegame.core.world;
+
+import io.github.illuminatijoe.cubegame.core.world.io.RegionFile;
+import io.github.illuminatijoe.cubegame.core.world.io.RegionStorage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WorldPregeneratorTest {
+    // Around the origin, so the square spans four region files
+    private static final int RADIUS = 3;
+    private static final long CHUNKS = (2L * RADIUS + 1) * (2L * RADIUS + 1) * RegionFile.HEIGHT;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void regionFilesDoNotDependOnParallelism() throws IOException, InterruptedException {
+        Path sequential = dir.resolve("sequential");
+        Path parallel = dir.resolve("parallel");
+        assertEquals(CHUNKS, pregenerate(sequential, 1));
+        assertEquals(CHUNKS, pregenerate(parallel, 4));
+
+        List<Path> files = regionFiles(sequential);
+        assertEquals(4, files.size());
+        assertEquals(files, regionFiles(parallel));
+        for (Path file : files) {
+            assertEquals(-1, Files.mismatch(sequential.resolve(file), parallel.resolve(file)), file + " differs");
+        }
+
+        // Everything is saved already, resuming generates nothing and leaves the files alone
+        assertEquals(0, pregenerate(parallel, 4));
+        for (Path file : files) {
+            assertEquals(-1, Files.mismatch(sequential.resolve(file), parallel.resolve(file)), file + " differs");
+        }
+    }
+
+    private static long pregenerate(Path directory, int parallelism) throws IOException, InterruptedException {
+        AtomicLong reported = new AtomicLong();
+        long generated;
+        try (RegionStorage storage = new RegionStorage(directory)) {
+            generated = new WorldPregenerator(storage, parallelism)
+                .generate(0, 0, RADIUS, (done, total, chunksPerSecond) -> reported.set(done));
+        }
+        // The last report comes after everything was written
+        assertEquals(CHUNKS, reported.get());
+        return generated;
+    }
+
+    // Names of the region files in directory, sorted
+    private static List<Path> regionFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(Path::getFileName).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.illuminatijoe.cubegame.core.world.io;
+
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static io.github.illuminatijoe.cubegame.core.world.io.Storages.assertSameBlocks;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChunkSerializerTest {
+    private static final String[] CODECS = { "raw", "deflate", "rle" };
+    // Distinct ids and the bits per entry ChunkStorage.of packs them into
+    private static final int[][] LAYOUTS = { { 1, 0 }, { 2, 1 }, { 16, 4 }, { 256, 8 }, { 1000, 16 } };
+
+    static Stream<Arguments> codecsAndLayouts() {
+        List<Arguments> arguments = new ArrayList<>();
+        for (String codec : CODECS) {
+            for (int[] layout : LAYOUTS) arguments.add(Arguments.of(codec, layout[0], layout[1]));
+        }
+        return arguments.stream();
+    }
+
+    @ParameterizedTest(name = "{0}, {1} ids")
+    @MethodSource("codecsAndLayouts")
+    void roundTrips(String name, int distinct, int bits) throws IOException {
+        ChunkStorage storage = storage(distinct, new Random(distinct));
+        assertEquals(bits, storage.getBitsPerEntry());
+        ChunkCodec codec = ChunkSerializer.codec(name);
+
+        // The codec by itself, even where the serializer would fall back to raw
+        ByteBuffer out = ByteBuffer.allocate(ChunkSerializer.MAX_PAYLOAD_SIZE);
+        codec.encode(storage, out);
+        ChunkStorage decoded = codec.decode(out.flip());
+        assertSameBlocks(storage, decoded);
+        assertEquals(bits, decoded.getBitsPerEntry());
+        assertEquals(0, out.remaining(), "Decoding consumed exactly the encoded bytes");
+
+        // Through the payload, read back by a serializer encoding with another codec
+        ByteBuffer payload = new ChunkSerializer(codec).encode(storage);
+        byte id = payload.get(0);
+        assertEquals(id == RawCodec.ID ? RawCodec.ID : codec.getId(), id);
+        for (String other : CODECS) {
+            assertSameBlocks(storage, new ChunkSerializer(ChunkSerializer.codec(other)).decode(payload.duplicate()));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "raw", "deflate", "rle" })
+    void truncatedPayloadsFailWithIOException(String name) {
+        ChunkCodec codec = ChunkSerializer.codec(name);
+        ByteBuffer out = ByteBuffer.allocate(ChunkSerializer.MAX_PAYLOAD_SIZE);
+        codec.encode(storage(16, new Random(1)), out);
+        byte[] encoded = new byte[out.flip().remaining()];
+        out.get(encoded);
+
+        for (int length : new int[] { 0, 1, 2, 5, encoded.length / 2, encoded.length * 3 / 4 }) {
+            ByteBuffer truncated = ByteBuffer.wrap(encoded, 0, length).slice();
+            assertThrows(IOException.class, () -> codec.decode(truncated), name + " cut to " + length + " bytes");
+        }
+    }
+
+    @Test
+    void unknownCodecIdFailsWithIOException() {
+        ChunkSerializer serializer = new ChunkSerializer(new RleCodec());
+        for (byte id : new byte[] { 3, 100, -1, Byte.MIN_VALUE }) {
+            ByteBuffer payload = ByteBuffer.allocate(16).put(0, id);
+            IOException e = assertThrows(IOException.class, () -> serializer.decode(payload));
+            assertEquals("Unknown chunk codec " + id, e.getMessage());
+        }
+        assertThrows(IOException.class, () -> serializer.decode(ByteBuffer.allocate(0)));
+    }
+
+    @Test
+    void corruptRunsFailWithIOException() {
+        RleCodec codec = new RleCodec();
+        ByteBuffer out = ByteBuffer.allocate(ChunkSerializer.MAX_PAYLOAD_SIZE);
+        codec.encode(storage(2, new Random(2)), out);
+        out.flip();
+        // Palette size, two ids, then the first run: make its palette index point past the palette
+        int firstRun = 2 + 2 * 2;
+        while (out.get(firstRun) < 0) firstRun++;
+        ByteBuffer badIndex = ByteBuffer.allocate(out.remaining()).put(out.duplicate()).put(firstRun + 1, (byte) 2).flip();
+        assertThrows(IOException.class, () -> codec.decode(badIndex));
+
+        // A run longer than the chunk
+        ByteBuffer longRun = ByteBuffer.allocate(16).putChar((char) 1).putChar((char) 1);
+        longRun.put((byte) 0x81).put((byte) 0x81).put((byte) 0x01).put((byte) 0).flip();
+        assertThrows(IOException.class, () -> codec.decode(longRun));
+    }
+
+    // Every one of distinct ids, air among them, in runs of random length
+    private static ChunkStorage storage(int distinct, Random random) {
+        char[] ids = new char[ChunkStorage.VOLUME];
+        int i = 0;
+        int next = 0;
+        while (i < ids.length) {
+            int run = Math.min(ids.length - i, 1 + random.nextInt(6));
+            // In order until all appeared, so a small chunk still uses every id
+            char id = (char) (next < distinct ? next++ : random.nextInt(distinct));
+            for (int end = i + run; i < end; i++) ids[i] = id;
+        }
+        return ChunkStorage.of(ids);
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.illuminatijoe.cubegame.core.world.io;
+
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static io.github.illuminatijoe.cubegame.core.world.io.Storages.assertSameBlocks;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegionFileTest {
+    private static final int CHUNKS = RegionFile.SIZE * RegionFile.SIZE * RegionFile.HEIGHT;
+    private static final int HEADER_SECTORS = (CHUNKS * 4 + RegionFile.SECTOR_BYTES - 1) / RegionFile.SECTOR_BYTES;
+
+    // Raw, so the payload sizes follow the storage layout
+    private final ChunkSerializer serializer = new ChunkSerializer(new RawCodec());
+    private final Random random = new Random(5);
+
+    @TempDir
+    Path dir;
+
+    private Path path;
+    // One sector uniform, the other 16 bits per block over many sectors
+    private ChunkStorage small;
+    private ChunkStorage large;
+
+    @BeforeEach
+    void setUp() {
+        path = dir.resolve("r.0.0.region");
+        small = new ChunkStorage((char) 7);
+        large = Storages.random(random, 400);
+        assertEquals(16, large.getBitsPerEntry());
+    }
+
+    @Test
+    void growingAndShrinkingMovesToFreeSectors() throws IOException {
+        try (RegionFile file = new RegionFile(path)) {
+            file.write(0, serializer.encode(small));
+            int first = entry(0);
+            assertEquals(HEADER_SECTORS << 8 | 1, first);
+
+            // Grows into new sectors, the old copy stays until the header switched
+            file.write(0, serializer.encode(large));
+            int grown = entry(0);
+            int largeSectors = grown & 0xFF;
+            assertTrue(largeSectors > 1);
+            assertNotEquals(first >>> 8, grown >>> 8);
+            assertSameBlocks(large, file.read(0, serializer));
+
+            // Shrinks back into the first free run, which is the sector it started in
+            file.write(0, serializer.encode(small));
+            assertEquals(first, entry(0));
+            assertSameBlocks(small, file.read(0, serializer));
+
+            // The large run was freed and fits the next large chunk exactly
+            file.write(1, serializer.encode(large));
+            assertEquals(grown, entry(1));
+            assertSameBlocks(large, file.read(1, serializer));
+            assertSameBlocks(small, file.read(0, serializer));
+        }
+
+        try (RegionFile file = new RegionFile(path)) {
+            assertSameBlocks(small, file.read(0, serializer));
+            assertSameBlocks(large, file.read(1, serializer));
+            assertNull(file.read(2, serializer));
+        }
+    }
+
+    @Test
+    void ignoresHeaderEntriesThatOverlapOrPointOutside() throws IOException {
+        int fileSectors;
+        try (RegionFile file = new RegionFile(path)) {
+            file.write(0, serializer.encode(small));
+            file.write(1, serializer.encode(large));
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            fileSectors = (int) (channel.size() / RegionFile.SECTOR_BYTES);
+        }
+        int overlapping = entry(1) + (1 << 8);
+        setEntry(2, overlapping);
+        setEntry(3, (fileSectors + 10) << 8 | 1);
+        setEntry(4, (fileSectors - 1) << 8 | 2);
+        setEntry(5, 1 << 8 | 1);
+        setEntry(6, (fileSectors - 1) << 8);
+
+        try (RegionFile file = new RegionFile(path)) {
+            assertSameBlocks(small, file.read(0, serializer));
+            assertSameBlocks(large, file.read(1, serializer));
+            for (int index = 2; index <= 6; index++) {
+                assertFalse(file.contains(index), "entry " + index);
+                assertEquals(0, entry(index), "entry " + index + " cleared");
+            }
+
+            // Sectors claimed only by dropped entries are free again and don't clobber the valid chunks
+            for (int index = 2; index <= 6; index++) file.write(index, serializer.encode(large));
+            assertSameBlocks(small, file.read(0, serializer));
+            assertSameBlocks(large, file.read(1, serializer));
+            for (int index = 2; index <= 6; index++) assertSameBlocks(large, file.read(index, serializer));
+        }
+    }
+
+    @Test
+    void rejectsBadChunkLengths() throws IOException {
+        try (RegionFile file = new RegionFile(path)) {
+            file.write(0, serializer.encode(small));
+            file.write(1, serializer.encode(large));
+        }
+        int sectors = entry(1) & 0xFF;
+        // Zero, negative, and one byte past the sectors the entry claims
+        int[] lengths = { 0, -1, sectors * RegionFile.SECTOR_BYTES - 3 };
+        for (int length : lengths) {
+            setLength(1, length);
+            try (RegionFile file = new RegionFile(path)) {
+                IOException e = assertThrows(IOException.class, () -> file.read(1, serializer));
+                assertTrue(e.getMessage().startsWith("Bad chunk length"), e.getMessage());
+                // The neighbour is unaffected
+                assertSameBlocks(small, file.read(0, serializer));
+            }
+        }
+    }
+
+    // Header entry as stored in the file, read through a separate channel
+    private int entry(int index) throws IOException {
+        return readInt((long) index * 4);
+    }
+
+    private void setEntry(int index, int entry) throws IOException {
+        writeInt((long) index * 4, entry);
+    }
+
+    // Overwrites the length in front of the payload of the chunk at index
+    private void setLength(int index, int length) throws IOException {
+        writeInt((long) (entry(index) >>> 8) * RegionFile.SECTOR_BYTES, length);
+    }
+
+    private int readInt(long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4);
+            channel.read(buffer, position);
+            return buffer.flip().getInt();
+        }
+    }
+
+    private void writeInt(long position, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, value), position);
+        }
+    }
+}
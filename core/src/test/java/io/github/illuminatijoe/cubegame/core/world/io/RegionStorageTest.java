@@ -0,0 +1,97 @@
+package io.github.illuminatijoe.cubegame.core.world.io;
+
+import io.github.illuminatijoe.cubegame.core.world.ChunkKey;
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+import io.github.illuminatijoe.cubegame.core.world.World;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static io.github.illuminatijoe.cubegame.core.world.io.Storages.assertSameBlocks;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegionStorageTest {
+    private final Random random = new Random(13);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void savedColumnsSurviveReopening() throws IOException {
+        // Columns on both sides of the region borders around the origin, at every height
+        Map<Long, ChunkStorage> saved = new HashMap<>();
+        try (RegionStorage storage = new RegionStorage(dir)) {
+            for (int x = -40; x < 40; x += 9) {
+                for (int z = -40; z < 40; z += 7) {
+                    for (int y = World.MIN_CHUNK_Y; y <= World.MAX_CHUNK_Y; y++) {
+                        ChunkStorage chunk = Storages.random(random, 1 + random.nextInt(300));
+                        storage.save(x, y, z, chunk);
+                        saved.put(ChunkKey.of(x, y, z), chunk);
+                    }
+                }
+            }
+            // Overwrite some, possibly with a different size
+            for (int x = -40; x < 40; x += 18) {
+                ChunkStorage chunk = Storages.random(random, 1 + random.nextInt(300));
+                storage.save(x, 0, -40, chunk);
+                saved.put(ChunkKey.of(x, 0, -40), chunk);
+            }
+        }
+
+        try (RegionStorage storage = new RegionStorage(dir)) {
+            for (Map.Entry<Long, ChunkStorage> entry : saved.entrySet()) {
+                long key = entry.getKey();
+                int x = ChunkKey.x(key), y = ChunkKey.y(key), z = ChunkKey.z(key);
+                assertTrue(storage.contains(x, y, z));
+                assertSameBlocks(entry.getValue(), storage.load(x, y, z));
+            }
+            assertFalse(storage.contains(-39, 0, -40));
+            assertNull(storage.load(-39, 0, -40));
+            assertNull(storage.load(1000, 0, 1000));
+        }
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedRegion() throws IOException {
+        int regions = RegionStorage.MAX_OPEN_FILES + 4;
+        ChunkStorage[] saved = new ChunkStorage[regions];
+        try (RegionStorage storage = new RegionStorage(dir)) {
+            for (int i = 0; i < RegionStorage.MAX_OPEN_FILES; i++) {
+                saved[i] = Storages.random(random, 20);
+                storage.save(i * RegionFile.SIZE, 0, 0, saved[i]);
+            }
+            assertEquals(RegionStorage.MAX_OPEN_FILES, storage.getOpenFileCount());
+
+            // Touching the first region makes the second the least recently used
+            assertSameBlocks(saved[0], storage.load(0, 0, 0));
+            for (int i = RegionStorage.MAX_OPEN_FILES; i < regions; i++) {
+                saved[i] = Storages.random(random, 20);
+                storage.save(i * RegionFile.SIZE, 0, 0, saved[i]);
+                assertEquals(RegionStorage.MAX_OPEN_FILES, storage.getOpenFileCount());
+            }
+            assertTrue(storage.isOpen(0, 0));
+            for (int i = 1; i <= regions - RegionStorage.MAX_OPEN_FILES; i++) {
+                assertFalse(storage.isOpen(i * RegionFile.SIZE, 0), "region " + i + " evicted");
+
+                // Closed, so everything written to it is in the file
+                try (RegionFile file = new RegionFile(dir.resolve("r." + i + ".0.region"))) {
+                    assertSameBlocks(saved[i], file.read(RegionFile.index(0, 0, 0), storage.getSerializer()));
+                }
+            }
+
+            // Evicted regions reopen on demand
+            for (int i = 0; i < regions; i++) {
+                assertSameBlocks(saved[i], storage.load(i * RegionFile.SIZE, 0, 0));
+            }
+            assertEquals(RegionStorage.MAX_OPEN_FILES, storage.getOpenFileCount());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.illuminatijoe.cubegame.core.world.io;
+
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Chunk contents for the io tests
+final class Storages {
+    private Storages() {
+    }
+
+    // Random blocks drawn from distinct ids, in runs along x like terrain; one id gives a uniform chunk
+    static ChunkStorage random(Random random, int distinct) {
+        char[] ids = new char[ChunkStorage.VOLUME];
+        char base = (char) (1 + random.nextInt(1000));
+        int i = 0;
+        while (i < ids.length) {
+            int run = Math.min(ids.length - i, 1 + random.nextInt(8));
+            char id = (char) (base + random.nextInt(distinct));
+            for (int end = i + run; i < end; i++) ids[i] = id;
+        }
+        return ChunkStorage.of(ids);
+    }
+
+    static void assertSameBlocks(ChunkStorage expected, ChunkStorage actual) {
+        char[] expectedIds = new char[ChunkStorage.VOLUME];
+        char[] actualIds = new char[ChunkStorage.VOLUME];
+        expected.copyTo(expectedIds);
+        actual.copyTo(actualIds);
+        assertArrayEquals(expectedIds, actualIds);
+        assertEquals(expected.getNonAirCount(), actual.getNonAirCount());
+    }
+}
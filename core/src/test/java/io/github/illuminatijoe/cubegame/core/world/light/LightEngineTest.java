@@ -0,0 +1,213 @@
+package io.github.illuminatijoe.cubegame.core.world.light;
+
+import com.badlogic.gdx.math.Vector3;
+import io.github.illuminatijoe.cubegame.core.Direction;
+import io.github.illuminatijoe.cubegame.core.utils.LongObjectMap;
+import io.github.illuminatijoe.cubegame.core.world.BlockKey;
+import io.github.illuminatijoe.cubegame.core.world.Chunk;
+import io.github.illuminatijoe.cubegame.core.world.ChunkKey;
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+import io.github.illuminatijoe.cubegame.core.world.World;
+import io.github.illuminatijoe.cubegame.core.world.block.Block;
+import io.github.illuminatijoe.cubegame.core.world.block.BlockRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Compares the incremental engine against a flood fill from scratch over the same chunks
+class LightEngineTest {
+    private static final Block LAMP = BlockRegistry.register("light_test_lamp", true, false, 0, 14);
+    private static final Block GLASS = BlockRegistry.register("light_test_glass", true, true, 0);
+    private static final char DIRT = BlockRegistry.DIRT.getId();
+    private static final int SIZE = ChunkStorage.SIZE;
+    // Chunk columns from -RADIUS to RADIUS on x and z, each the full height of the world
+    private static final int RADIUS = 1;
+
+    private World world;
+    private LightEngine engine;
+    private final Set<Chunk> changed = new HashSet<>();
+    private final Random random = new Random(7);
+
+    @BeforeEach
+    void createWorld() {
+        // Headless, so only this engine touches the chunks' light
+        world = new World();
+        engine = new LightEngine(world);
+    }
+
+    @AfterEach
+    void dispose() {
+        world.dispose();
+    }
+
+    @Test
+    void chunkLoadMatchesReference() {
+        loadAll();
+        assertMatchesReference("after loading");
+    }
+
+    @Test
+    void blockEditsAcrossBordersMatchReference() {
+        loadAll();
+        char[] ids = { ChunkStorage.AIR, DIRT, LAMP.getId(), GLASS.getId() };
+        for (int i = 1; i <= 400; i++) {
+            // Mostly next to a chunk border, where light crosses into the neighbour
+            int x = nearBorder();
+            int z = nearBorder();
+            int y = random.nextInt(SIZE * 4) - SIZE;
+            setBlock(x, y, z, ids[random.nextInt(ids.length)]);
+            if (i % 50 == 0) assertMatchesReference("after " + i + " edits");
+        }
+    }
+
+    @Test
+    void coveringSkyColumnMatchesReference() {
+        loadAll();
+        int top = (World.MAX_CHUNK_Y + 1) * SIZE - 1;
+        // A roof at the top of the world over a border, then a hole in it, then gone again
+        for (int x = -4; x < 4; x++) {
+            for (int z = -4; z < 4; z++) {
+                setBlock(x, top, z, DIRT);
+            }
+        }
+        assertMatchesReference("after covering");
+        setBlock(0, top, 0, ChunkStorage.AIR);
+        assertMatchesReference("after opening a hole");
+        for (int x = -4; x < 4; x++) {
+            for (int z = -4; z < 4; z++) {
+                setBlock(x, top, z, ChunkStorage.AIR);
+            }
+        }
+        assertMatchesReference("after uncovering");
+    }
+
+    @Test
+    void unloadAndReloadRestoresLight() {
+        loadAll();
+        for (int i = 0; i < 40; i++) {
+            setBlock(nearBorder(), random.nextInt(SIZE * 2), nearBorder(), LAMP.getId());
+        }
+        assertMatchesReference("before unloading");
+
+        long[] keys = { ChunkKey.of(0, 0, 0), ChunkKey.of(0, World.MAX_CHUNK_Y, 0), ChunkKey.of(-1, 1, 0) };
+        for (long key : keys) {
+            Chunk chunk = world.getChunkMap().remove(key);
+            Chunk reloaded = new Chunk(chunk.getChunkPos(), chunk.getStorage().copy());
+            world.getChunkMap().put(key, reloaded);
+            engine.onChunkAdded(reloaded, changed);
+            assertMatchesReference("after reloading " + ChunkKey.toString(key));
+        }
+    }
+
+    // Generates every chunk in range and adds them in random order, below their sky as often as not
+    private void loadAll() {
+        List<Chunk> chunks = new ArrayList<>();
+        for (int x = -RADIUS; x <= RADIUS; x++) {
+            for (int z = -RADIUS; z <= RADIUS; z++) {
+                for (int y = World.MIN_CHUNK_Y; y <= World.MAX_CHUNK_Y; y++) {
+                    chunks.add(new Chunk(new Vector3(x, y, z)));
+                }
+            }
+        }
+        Collections.shuffle(chunks, random);
+        for (Chunk chunk : chunks) {
+            world.getChunkMap().put(chunk.getKey(), chunk);
+            engine.onChunkAdded(chunk, changed);
+        }
+    }
+
+    private int nearBorder() {
+        int border = (random.nextInt(2 * RADIUS + 1) - RADIUS) * SIZE;
+        return border + random.nextInt(6) - 3;
+    }
+
+    private void setBlock(int x, int y, int z, char id) {
+        long blockKey = BlockKey.of(x, y, z);
+        Chunk chunk = world.getChunk(BlockKey.toChunkKey(blockKey));
+        if (chunk == null) return;
+        chunk.getStorage().set(BlockKey.toLocalIndex(blockKey), id);
+        engine.onBlockChanged(blockKey, changed);
+    }
+
+    private void assertMatchesReference(String when) {
+        LongObjectMap<Chunk> chunks = world.getChunkMap();
+        for (int channel = ChunkLight.SKY; channel <= ChunkLight.BLOCK; channel++) {
+            Map<Long, byte[]> reference = reference(chunks, channel);
+            int mismatches = 0;
+            String first = null;
+            for (Map.Entry<Long, byte[]> entry : reference.entrySet()) {
+                ChunkLight light = chunks.get(entry.getKey()).getLight();
+                byte[] expected = entry.getValue();
+                for (int index = 0; index < ChunkStorage.VOLUME; index++) {
+                    if (light.get(channel, index) == expected[index]) continue;
+                    if (first == null) {
+                        first = ChunkKey.toString(entry.getKey()) + " index " + index + ": " + light.get(channel, index)
+                            + " instead of " + expected[index];
+                    }
+                    mismatches++;
+                }
+            }
+            if (mismatches > 0) fail((channel == ChunkLight.SKY ? "Sky" : "Block") + " light " + when + " differs in "
+                + mismatches + " voxels, first at " + first);
+        }
+    }
+
+    // Light of every loaded chunk flooded from scratch: sky from the top of the world, block light from emitters
+    private static Map<Long, byte[]> reference(LongObjectMap<Chunk> chunks, int channel) {
+        Map<Long, byte[]> levels = new HashMap<>();
+        ArrayDeque<Long> queue = new ArrayDeque<>();
+        chunks.forEach((key, chunk) -> {
+            byte[] light = new byte[ChunkStorage.VOLUME];
+            levels.put(key, light);
+            ChunkStorage storage = chunk.getStorage();
+            int baseX = ChunkKey.x(key) * SIZE;
+            int baseY = ChunkKey.y(key) * SIZE;
+            int baseZ = ChunkKey.z(key) * SIZE;
+            for (int index = 0; index < ChunkStorage.VOLUME; index++) {
+                int y = index >> 8;
+                int level;
+                if (channel == ChunkLight.BLOCK) {
+                    level = BlockRegistry.getLightEmission(storage.get(index));
+                } else {
+                    boolean topOfWorld = ChunkKey.y(key) == World.MAX_CHUNK_Y && y == SIZE - 1;
+                    level = topOfWorld && !BlockRegistry.isOpaque(storage.get(index)) ? ChunkLight.MAX : 0;
+                }
+                if (level == 0) continue;
+                light[index] = (byte) level;
+                queue.add(BlockKey.of(baseX + (index & (SIZE - 1)), baseY + y, baseZ + (index >> 4 & (SIZE - 1))));
+            }
+        });
+
+        while (!queue.isEmpty()) {
+            long voxel = queue.poll();
+            int level = levels.get(BlockKey.toChunkKey(voxel))[BlockKey.toLocalIndex(voxel)];
+            for (Direction dir : Direction.values()) {
+                long next = BlockKey.offset(voxel, dir.dx, dir.dy, dir.dz);
+                Chunk chunk = chunks.get(BlockKey.toChunkKey(next));
+                if (chunk == null) continue;
+                int index = BlockKey.toLocalIndex(next);
+                if (BlockRegistry.isOpaque(chunk.getStorage().get(index))) continue;
+
+                // Full sky light falls straight down without fading
+                int target = channel == ChunkLight.SKY && dir == Direction.DOWN && level == ChunkLight.MAX ? level : level - 1;
+                byte[] light = levels.get(BlockKey.toChunkKey(next));
+                if (light[index] >= target) continue;
+                light[index] = (byte) target;
+                queue.add(next);
+            }
+        }
+        return levels;
+    }
+}
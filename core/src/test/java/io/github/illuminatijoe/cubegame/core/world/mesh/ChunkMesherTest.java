@@ -0,0 +1,255 @@
+package io.github.illuminatijoe.cubegame.core.world.mesh;
+
+import io.github.illuminatijoe.cubegame.core.Direction;
+import io.github.illuminatijoe.cubegame.core.world.ChunkStorage;
+import io.github.illuminatijoe.cubegame.core.world.block.Block;
+import io.github.illuminatijoe.cubegame.core.world.block.BlockRegistry;
+import io.github.illuminatijoe.cubegame.core.world.light.ChunkLight;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkMesherTest {
+    private static final Block STONE = BlockRegistry.register("mesher_test_stone", true, false, 1);
+    private static final char DIRT = BlockRegistry.DIRT.getId();
+
+    private final ChunkMesher mesher = new ChunkMesher();
+    private final MeshData mesh = new MeshData();
+
+    @Test
+    void singleBlockHasOneQuadPerFace() {
+        ChunkStorage storage = new ChunkStorage();
+        storage.setBlock(5, 5, 5, DIRT);
+        mesher.mesh(storage, airNeighbors(), mesh);
+
+        List<Quad> quads = quads(mesh);
+        assertEquals(6, quads.size());
+        assertEquals(36, mesh.getIndexCount());
+        Set<Direction> faces = EnumSet.noneOf(Direction.class);
+        for (Quad quad : quads) {
+            faces.add(quad.face);
+            assertEquals(1, quad.area());
+        }
+        assertEquals(EnumSet.allOf(Direction.class), faces);
+    }
+
+    @Test
+    void flatSlabMergesIntoOneQuadPerSide() {
+        ChunkStorage storage = new ChunkStorage();
+        for (int z = 0; z < ChunkStorage.SIZE; z++) {
+            for (int x = 0; x < ChunkStorage.SIZE; x++) {
+                storage.setBlock(x, 4, z, DIRT);
+            }
+        }
+        mesher.mesh(storage, airNeighbors(), mesh);
+
+        List<Quad> quads = quads(mesh);
+        assertEquals(6, quads.size());
+        for (Quad quad : quads) {
+            boolean vertical = quad.face == Direction.UP || quad.face == Direction.DOWN;
+            assertEquals(vertical ? ChunkStorage.AREA : ChunkStorage.SIZE, quad.area(), quad.face.name());
+        }
+    }
+
+    @Test
+    void differentBlocksDoNotMerge() {
+        ChunkStorage same = new ChunkStorage();
+        same.setBlock(5, 5, 5, DIRT);
+        same.setBlock(6, 5, 5, DIRT);
+        mesher.mesh(same, airNeighbors(), mesh);
+        assertEquals(6, quads(mesh).size());
+
+        ChunkStorage mixed = new ChunkStorage();
+        mixed.setBlock(5, 5, 5, DIRT);
+        mixed.setBlock(6, 5, 5, STONE.getId());
+        mesher.mesh(mixed, airNeighbors(), mesh);
+        // Top, bottom, north and south split in two, plus both ends
+        List<Quad> quads = quads(mesh);
+        assertEquals(10, quads.size());
+        for (Quad quad : quads) {
+            assertEquals(1, quad.area());
+        }
+    }
+
+    @Test
+    void differentOcclusionDoesNotMerge() {
+        // 3x3 slab with a block on its middle: every top face around it is occluded differently
+        ChunkStorage storage = new ChunkStorage();
+        for (int z = 5; z < 8; z++) {
+            for (int x = 5; x < 8; x++) {
+                storage.setBlock(x, 5, z, DIRT);
+            }
+        }
+        storage.setBlock(6, 6, 6, DIRT);
+
+        mesher.mesh(storage, airNeighbors(), mesh);
+        List<Quad> occluded = slabTops(quads(mesh));
+        assertEquals(8, occluded.size());
+        for (Quad quad : occluded) {
+            assertEquals(1, quad.area());
+            assertTrue(quad.minAo() < 3, "Every face next to the block is occluded at some corner");
+        }
+
+        mesher.setAmbientOcclusion(false);
+        mesher.mesh(storage, airNeighbors(), mesh);
+        List<Quad> flat = slabTops(quads(mesh));
+        assertTrue(flat.size() < 8, "Without occlusion the ring merges");
+        assertEquals(8, flat.stream().mapToInt(Quad::area).sum());
+    }
+
+    @Test
+    void lodCellFacesAreOneQuadEach() {
+        // Checkerboard of 2x2x2 cells: at full detail the diagonal neighbours occlude the edges of every side
+        ChunkStorage storage = new ChunkStorage();
+        int cells = 0;
+        for (int cz = 0; cz < ChunkStorage.SIZE; cz += 2) {
+            for (int cx = 0; cx < ChunkStorage.SIZE; cx += 2) {
+                if ((cx + cz) / 2 % 2 != 0) continue;
+                cells++;
+                for (int y = 0; y < 2; y++) {
+                    for (int z = cz; z < cz + 2; z++) {
+                        for (int x = cx; x < cx + 2; x++) {
+                            storage.setBlock(x, y, z, DIRT);
+                        }
+                    }
+                }
+            }
+        }
+
+        mesher.mesh(storage, null, airNeighbors(), 0, mesh);
+        assertTrue(quads(mesh).size() > cells * 6, "Occlusion splits faces at full detail");
+
+        mesher.mesh(storage, null, airNeighbors(), 1, mesh);
+        List<Quad> quads = quads(mesh);
+        assertEquals(cells * 6, quads.size());
+        for (Quad quad : quads) {
+            assertEquals(4, quad.area());
+            assertEquals(3, quad.minAo(), "No occlusion on coarser levels");
+        }
+    }
+
+    @Test
+    void uniformChunkMatchesGeneralPath() {
+        ChunkNeighbors neighbors = new ChunkNeighbors();
+        ChunkStorage partial = new ChunkStorage();
+        for (int i = 0; i < ChunkStorage.VOLUME; i += 3) {
+            partial.set(i, i % 2 == 0 ? DIRT : STONE.getId());
+        }
+        ChunkLight dim = new ChunkLight();
+        dim.fill(ChunkLight.SKY, 9);
+        dim.fill(ChunkLight.BLOCK, 4);
+        dim.set(ChunkLight.BLOCK, 0, 12);
+        neighbors.setAir(Direction.UP);
+        neighbors.set(Direction.NORTH, partial, dim);
+        neighbors.set(Direction.EAST, partial);
+        neighbors.setSeam(Direction.SOUTH, dim);
+        neighbors.setAir(Direction.DOWN);
+        // West stays missing, treated as opaque
+
+        ChunkStorage uniform = new ChunkStorage(DIRT);
+        ChunkStorage general = new ChunkStorage();
+        for (int i = 0; i < ChunkStorage.VOLUME; i++) {
+            general.set(i, DIRT);
+        }
+        assertTrue(uniform.isUniform());
+        assertFalse(general.isUniform());
+
+        for (boolean ao : new boolean[] { true, false }) {
+            mesher.setAmbientOcclusion(ao);
+            mesher.mesh(uniform, null, neighbors, mesh);
+            List<String> expected = signatures(mesh);
+            mesher.mesh(general, null, neighbors, mesh);
+            List<String> actual = signatures(mesh);
+            assertFalse(expected.isEmpty());
+            assertEquals(expected, actual, "ambient occlusion " + ao);
+        }
+    }
+
+    private static ChunkNeighbors airNeighbors() {
+        ChunkNeighbors neighbors = new ChunkNeighbors();
+        for (Direction dir : Direction.values()) {
+            neighbors.setAir(dir);
+        }
+        return neighbors;
+    }
+
+    // Upward faces on top of the slab, at y = 6
+    private static List<Quad> slabTops(List<Quad> quads) {
+        List<Quad> tops = new ArrayList<>();
+        for (Quad quad : quads) {
+            if (quad.face == Direction.UP && quad.min[1] == 6) tops.add(quad);
+        }
+        return tops;
+    }
+
+    // Quads as sorted vertex pairs, independent of emission order
+    private static List<String> signatures(MeshData mesh) {
+        int[] vertices = mesh.getVertices();
+        List<String> quads = new ArrayList<>();
+        for (int q = 0; q < mesh.getVertexCount() / 4; q++) {
+            String[] corners = new String[4];
+            for (int c = 0; c < 4; c++) {
+                int v = (q * 4 + c) * MeshData.VERTEX_SIZE;
+                corners[c] = Integer.toHexString(vertices[v]) + "/" + Integer.toHexString(vertices[v + 1]);
+            }
+            Arrays.sort(corners);
+            quads.add(String.join(" ", corners));
+        }
+        quads.sort(null);
+        return quads;
+    }
+
+    private static List<Quad> quads(MeshData mesh) {
+        assertEquals(0, mesh.getVertexCount() % 4);
+        assertEquals(mesh.getVertexCount() / 4 * 6, mesh.getIndexCount());
+        int[] vertices = mesh.getVertices();
+        List<Quad> quads = new ArrayList<>();
+        for (int q = 0; q < mesh.getVertexCount() / 4; q++) {
+            quads.add(new Quad(vertices, q * 4 * MeshData.VERTEX_SIZE));
+        }
+        return quads;
+    }
+
+    private static final class Quad {
+        final Direction face;
+        final int[] min = { Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE };
+        final int[] max = { Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE };
+        final int[] ao = new int[4];
+
+        Quad(int[] vertices, int offset) {
+            face = Direction.values()[ChunkVertexFormat.face(vertices[offset])];
+            for (int c = 0; c < 4; c++) {
+                int position = vertices[offset + c * MeshData.VERTEX_SIZE];
+                assertEquals(face.ordinal(), ChunkVertexFormat.face(position));
+                int[] xyz = { ChunkVertexFormat.x(position), ChunkVertexFormat.y(position), ChunkVertexFormat.z(position) };
+                for (int a = 0; a < 3; a++) {
+                    min[a] = Math.min(min[a], xyz[a]);
+                    max[a] = Math.max(max[a], xyz[a]);
+                }
+                ao[c] = ChunkVertexFormat.ambientOcclusion(position);
+            }
+            assertEquals(min[face.axis], max[face.axis], "Quad must be flat along its face's axis");
+        }
+
+        // Blocks covered
+        int area() {
+            int area = 1;
+            for (int a = 0; a < 3; a++) {
+                if (a != face.axis) area *= max[a] - min[a];
+            }
+            return area;
+        }
+
+        int minAo() {
+            return Math.min(Math.min(ao[0], ao[1]), Math.min(ao[2], ao[3]));
+        }
+    }
+}
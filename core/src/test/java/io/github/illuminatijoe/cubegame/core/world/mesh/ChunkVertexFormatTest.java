@@ -0,0 +1,79 @@
+package io.github.illuminatijoe.cubegame.core.world.mesh;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ChunkVertexFormatTest {
+    @Test
+    void positionRoundTripsEveryField() {
+        // Every local position a chunk vertex can take, with every face, corner and AO value
+        for (int x = 0; x <= 16; x++) {
+            for (int y = 0; y <= 16; y++) {
+                for (int z = 0; z <= 16; z++) {
+                    for (int face = 0; face < 6; face++) {
+                        for (int corner = 0; corner < 4; corner++) {
+                            for (int ao = 0; ao < 4; ao++) {
+                                int packed = ChunkVertexFormat.packPosition(x, y, z, face, corner, ao);
+                                if (ChunkVertexFormat.x(packed) != x || ChunkVertexFormat.y(packed) != y
+                                    || ChunkVertexFormat.z(packed) != z || ChunkVertexFormat.face(packed) != face
+                                    || ChunkVertexFormat.corner(packed) != corner
+                                    || ChunkVertexFormat.ambientOcclusion(packed) != ao) {
+                                    fail("Position " + x + "," + y + "," + z + " face " + face + " corner " + corner
+                                        + " ao " + ao + " packed as " + Integer.toHexString(packed));
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void positionAxesUseTheirFullByte() {
+        for (int v = 0; v < 256; v++) {
+            int packed = ChunkVertexFormat.packPosition(v, 255 - v, v ^ 0x5A, 5, 3, 0);
+            assertEquals(v, ChunkVertexFormat.x(packed));
+            assertEquals(255 - v, ChunkVertexFormat.y(packed));
+            assertEquals(v ^ 0x5A, ChunkVertexFormat.z(packed));
+            assertEquals(5, ChunkVertexFormat.face(packed));
+            assertEquals(3, ChunkVertexFormat.corner(packed));
+            assertEquals(0, ChunkVertexFormat.ambientOcclusion(packed));
+        }
+    }
+
+    @Test
+    void defaultAoIsUnoccluded() {
+        assertEquals(3, ChunkVertexFormat.ambientOcclusion(ChunkVertexFormat.packPosition(1, 2, 3, 4, 1)));
+    }
+
+    @Test
+    void materialRoundTripsEveryLayerLightAndSlot() {
+        for (int layer = 0; layer <= 0xFFFF; layer++) {
+            for (int light = 0; light <= 0xFF; light++) {
+                int material = ChunkVertexFormat.packMaterial(layer, light);
+                int slot = (layer ^ light) & 0xFF;
+                int slotted = ChunkVertexFormat.withSlot(material, slot);
+                if (ChunkVertexFormat.textureLayer(material) != layer || ChunkVertexFormat.slot(material) != 0
+                    || ChunkVertexFormat.textureLayer(slotted) != layer
+                    || ChunkVertexFormat.blockLight(slotted) != (light & 0xF)
+                    || ChunkVertexFormat.skyLight(slotted) != light >>> 4
+                    || ChunkVertexFormat.slot(slotted) != slot) {
+                    fail("Layer " + layer + " light " + light + " slot " + slot + " packed as " + Integer.toHexString(slotted));
+                }
+            }
+        }
+    }
+
+    @Test
+    void slotCanBeReplaced() {
+        int material = ChunkVertexFormat.packMaterial(0xABCD, 0x7E);
+        for (int slot = 0; slot < 256; slot++) {
+            int slotted = ChunkVertexFormat.withSlot(ChunkVertexFormat.withSlot(material, 255 - slot), slot);
+            assertEquals(slot, ChunkVertexFormat.slot(slotted));
+            assertEquals(material, ChunkVertexFormat.withSlot(slotted, 0));
+        }
+    }
+}
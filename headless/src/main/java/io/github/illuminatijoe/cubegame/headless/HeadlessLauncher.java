@@ -0,0 +1,30 @@
+package io.github.illuminatijoe.cubegame.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import io.github.illuminatijoe.cubegame.core.world.io.ChunkCodec;
+import io.github.illuminatijoe.cubegame.core.world.io.ChunkSerializer;
+import io.github.illuminatijoe.cubegame.core.world.io.DeflateCodec;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Launches a world without a window or GL context, for dedicated servers, pre-generation and CI performance runs.
+ * Arguments: {@code [render distance] [time limit in seconds] [ticks per second, 0 = unthrottled] [save directory]
+ * [chunk codec]}, the world is only saved when a save directory is given. The codec is one of
+ * {@link ChunkSerializer#codec(String)}'s names and only applies to chunks written by this run.
+ */
+public class HeadlessLauncher {
+    public static void main(String[] args) {
+        int renderDistance = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int ticksPerSecond = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        Path saveDirectory = args.length > 3 ? Paths.get(args[3]) : null;
+        ChunkCodec codec = args.length > 4 ? ChunkSerializer.codec(args[4]) : new DeflateCodec();
+
+        HeadlessApplicationConfiguration configuration = new HeadlessApplicationConfiguration();
+        configuration.updatesPerSecond = ticksPerSecond;
+        new HeadlessApplication(new HeadlessWorldRunner(renderDistance, seconds, saveDirectory, codec), configuration);
+    }
+}
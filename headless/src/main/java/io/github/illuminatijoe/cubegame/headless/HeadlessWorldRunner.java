@@ -0,0 +1,142 @@
+package io.github.illuminatijoe.cubegame.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import io.github.illuminatijoe.cubegame.core.utils.LongObjectMap;
+import io.github.illuminatijoe.cubegame.core.world.Chunk;
+import io.github.illuminatijoe.cubegame.core.world.ChunkManager;
+import io.github.illuminatijoe.cubegame.core.world.World;
+import io.github.illuminatijoe.cubegame.core.world.gen.HeightmapCache;
+import io.github.illuminatijoe.cubegame.core.world.gen.TerrainGenerator;
+import io.github.illuminatijoe.cubegame.core.world.io.ChunkCodec;
+import io.github.illuminatijoe.cubegame.core.world.io.ChunkSaveService;
+import io.github.illuminatijoe.cubegame.core.world.io.ChunkSerializer;
+import io.github.illuminatijoe.cubegame.core.world.io.RegionStorage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Ticks a headless {@link World} around the origin until everything within the render distance is loaded
+ * or the time limit runs out, then prints generation throughput and memory use and exits. With a save
+ * directory, chunks saved by earlier runs are loaded instead of generated and everything is saved on exit.
+ */
+public class HeadlessWorldRunner extends ApplicationAdapter implements World.ChunkListener {
+    private static final String TAG = "Headless";
+
+    private final int renderDistance;
+    private final long limitNanos;
+    private final Path saveDirectory;
+    private final ChunkCodec codec;
+    private final Vector3 center = new Vector3();
+    private final Vector3 viewDirection = new Vector3(0f, 0f, -1f);
+
+    private World world;
+    private long start;
+    private long ticks;
+    private long loaded;
+    private boolean finished;
+
+    // saveDirectory may be null for a world that isn't saved, codec is used for the chunks it saves
+    public HeadlessWorldRunner(int renderDistance, int seconds, Path saveDirectory, ChunkCodec codec) {
+        this.renderDistance = renderDistance;
+        this.limitNanos = seconds * 1_000_000_000L;
+        this.saveDirectory = saveDirectory;
+        this.codec = codec;
+    }
+
+    @Override
+    public void create() {
+        RegionStorage saves = null;
+        if (saveDirectory != null) {
+            try {
+                saves = new RegionStorage(saveDirectory, new ChunkSerializer(codec));
+            } catch (IOException e) {
+                throw new GdxRuntimeException("Couldn't open the world save in " + saveDirectory, e);
+            }
+        }
+        world = new World(null, saves);
+        world.addListener(this);
+        Gdx.app.log(TAG, "Loading render distance " + renderDistance + " around " + center);
+        start = System.nanoTime();
+    }
+
+    @Override
+    public void render() {
+        if (finished) return;
+
+        world.update(center, viewDirection, renderDistance);
+        ticks++;
+
+        long elapsed = System.nanoTime() - start;
+        boolean idle = world.getChunkManager().isIdle();
+        if (idle || elapsed >= limitNanos) {
+            finished = true;
+            if (!idle) Gdx.app.log(TAG, "Time limit reached before loading finished");
+            report(elapsed);
+            Gdx.app.exit();
+        }
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        ChunkManager chunks = world.getChunkManager();
+
+        long storageBytes = 0;
+        int uniform = 0;
+        LongObjectMap<Chunk> chunkMap = world.getChunkMap();
+        for (int i = 0; i < chunkMap.capacity(); i++) {
+            Chunk chunk = chunkMap.valueAt(i);
+            if (chunk == null) continue;
+            storageBytes += chunk.getStorage().getMemoryUsage();
+            if (chunk.getStorage().isUniform()) uniform++;
+        }
+
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        long heapUsed = runtime.totalMemory() - runtime.freeMemory();
+
+        Gdx.app.log(TAG, String.format(Locale.ROOT, "%d chunks in %.2f s over %d ticks: %.1f chunks/s",
+            loaded, seconds, ticks, loaded / seconds));
+        Gdx.app.log(TAG, String.format(Locale.ROOT, "Loaded %d (%d uniform), pending %d, evicted %d",
+            chunks.getLoadedCount(), uniform, chunks.getPendingCount(), chunks.getEvictedCount()));
+        Gdx.app.log(TAG, String.format(Locale.ROOT, "Block storage %.2f MB (%d bytes per chunk), heap %d / %d MB",
+            storageBytes / 1e6, storageBytes / Math.max(1, chunks.getLoadedCount()),
+            heapUsed / 1_000_000, runtime.maxMemory() / 1_000_000));
+
+        TerrainGenerator generator = TerrainGenerator.getDefault();
+        long generated = Math.max(1, generator.getGeneratedCount());
+        Gdx.app.log(TAG, String.format(Locale.ROOT, "Generated %d chunks, %.1f%% skipped the block fill (%d empty, %d full)",
+            generator.getGeneratedCount(), (generator.getEmptyCount() + generator.getFullCount()) * 100.0 / generated,
+            generator.getEmptyCount(), generator.getFullCount()));
+
+        HeightmapCache heightmaps = generator.getHeightmaps();
+        Gdx.app.log(TAG, String.format(Locale.ROOT, "Heightmaps: %d hits, %d misses, %d evicted, %d cached (%.2f MB)",
+            heightmaps.getHitCount(), heightmaps.getMissCount(), heightmaps.getEvictedCount(), heightmaps.size(),
+            heightmaps.getMemoryUsage() / 1e6));
+    }
+
+    @Override
+    public void onChunkLoaded(Chunk chunk) {
+        loaded++;
+    }
+
+    @Override
+    public void onChunkUnloaded(Chunk chunk) {
+    }
+
+    @Override
+    public void dispose() {
+        ChunkSaveService saves = world.getSaveService();
+        long start = System.nanoTime();
+        world.dispose();
+        if (saves != null) {
+            Gdx.app.log(TAG, String.format(Locale.ROOT, "Saved %d chunks (%d coalesced, %d failed) to %s with %s, shutdown took %.2f s",
+                saves.getSavedCount(), saves.getCoalescedCount(), saves.getFailedCount(), saveDirectory, codec.getName(),
+                (System.nanoTime() - start) / 1e9));
+        }
+    }
+}
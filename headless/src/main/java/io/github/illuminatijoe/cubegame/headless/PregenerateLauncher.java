@@ -0,0 +1,42 @@
+package io.github.illuminatijoe.cubegame.headless;
+
+import io.github.illuminatijoe.cubegame.core.world.World;
+import io.github.illuminatijoe.cubegame.core.world.WorldPregenerator;
+import io.github.illuminatijoe.cubegame.core.world.io.ChunkSerializer;
+import io.github.illuminatijoe.cubegame.core.world.io.DeflateCodec;
+import io.github.illuminatijoe.cubegame.core.world.io.RegionStorage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Pre-generates the square of columns around spawn into a save directory, printing progress as it goes.
+ * Arguments: {@code <save directory> <radius in chunks> [threads, default all cores] [chunk codec] [seed]}.
+ */
+public class PregenerateLauncher {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("Usage: <save directory> <radius in chunks> [threads] [chunk codec] [seed]");
+            System.exit(1);
+        }
+        Path saveDirectory = Paths.get(args[0]);
+        int radius = Integer.parseInt(args[1]);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        ChunkSerializer serializer = new ChunkSerializer(args.length > 3 ? ChunkSerializer.codec(args[3]) : new DeflateCodec());
+        if (args.length > 4) World.seed = Long.parseLong(args[4]);
+
+        System.out.printf(Locale.ROOT, "Pre-generating radius %d around spawn into %s with %d threads, seed %d%n",
+            radius, saveDirectory, threads, World.seed);
+        long start = System.nanoTime();
+        long generated;
+        try (RegionStorage storage = new RegionStorage(saveDirectory, serializer)) {
+            generated = new WorldPregenerator(storage, threads).generate(0, 0, radius, (done, total, chunksPerSecond) ->
+                System.out.printf(Locale.ROOT, "%d / %d chunks (%.1f%%), %.0f chunks/s%n",
+                    done, total, done * 100.0 / total, chunksPerSecond));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "Generated %d chunks in %.2f s: %.0f chunks/s%n", generated, seconds, generated / seconds);
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.illuminatijoe.cubegame.lwjgl3;
+
+import io.github.illuminatijoe.cubegame.core.render.MultiDraw;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.PointerBuffer;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL14;
+
+import java.nio.IntBuffer;
+
+/** Draws all ranges with one glMultiDrawElements call, part of every desktop GL since 1.4. */
+public class Lwjgl3MultiDraw implements MultiDraw {
+    private IntBuffer counts = BufferUtils.createIntBuffer(256);
+    private PointerBuffer offsets = BufferUtils.createPointerBuffer(256);
+
+    @Override
+    public int drawTriangles(int[] firsts, int[] counts, int offset, int count) {
+        if (this.counts.capacity() < count) {
+            int capacity = Math.max(count, this.counts.capacity() * 2);
+            this.counts = BufferUtils.createIntBuffer(capacity);
+            offsets = BufferUtils.createPointerBuffer(capacity);
+        }
+
+        this.counts.clear();
+        offsets.clear();
+        for (int i = offset; i < offset + count; i++) {
+            this.counts.put(counts[i]);
+            // Byte offsets into the bound index buffer
+            offsets.put((long) firsts[i] * 2);
+        }
+        this.counts.flip();
+        offsets.flip();
+        GL14.glMultiDrawElements(GL11.GL_TRIANGLES, this.counts, GL11.GL_UNSIGNED_SHORT, offsets);
+        return 1;
+    }
+}